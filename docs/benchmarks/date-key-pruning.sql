@@ -0,0 +1,55 @@
+-- Partition pruning for the collected-date predicate (phshoes.search.query.date-key-mode).
+--
+-- Run in a Snowflake worksheet against the catalog fact table with the result cache off so
+-- every statement actually scans. After each query, GET_QUERY_OPERATOR_STATS reports
+-- partitions scanned vs. total for the TableScan operator; record both for each mode.
+--
+-- Set these before running:
+SET catalog_table = 'FACT_PRODUCT_SHOES';
+SET date_key = 20250307;
+
+ALTER SESSION SET USE_CACHED_RESULT = FALSE;
+
+-- 1) EXPRESSION (legacy): arithmetic over three columns, no min/max metadata to prune on.
+SELECT COUNT(*)
+FROM IDENTIFIER($catalog_table)
+WHERE YEAR * 10000 + MONTH * 100 + DAY = $date_key;
+
+SELECT operator_type,
+       operator_statistics:pruning:partitions_scanned::NUMBER AS partitions_scanned,
+       operator_statistics:pruning:partitions_total::NUMBER   AS partitions_total
+FROM TABLE(GET_QUERY_OPERATOR_STATS(LAST_QUERY_ID()))
+WHERE operator_type = 'TableScan';
+
+-- 2) COMPONENTS (default): same rows, each column compared directly.
+SELECT COUNT(*)
+FROM IDENTIFIER($catalog_table)
+WHERE YEAR = FLOOR($date_key / 10000)
+  AND MONTH = MOD(FLOOR($date_key / 100), 100)
+  AND DAY = MOD($date_key, 100);
+
+SELECT operator_type,
+       operator_statistics:pruning:partitions_scanned::NUMBER AS partitions_scanned,
+       operator_statistics:pruning:partitions_total::NUMBER   AS partitions_total
+FROM TABLE(GET_QUERY_OPERATOR_STATS(LAST_QUERY_ID()))
+WHERE operator_type = 'TableScan';
+
+-- 3) COLUMN: precomputed key populated at ingest. Requires the column below plus a
+--    matching attribute on CatalogShoe (phshoes.search.query.date-key-attribute).
+--
+-- ALTER TABLE IDENTIFIER($catalog_table) ADD COLUMN DATE_KEY NUMBER(8, 0);
+-- UPDATE IDENTIFIER($catalog_table) SET DATE_KEY = YEAR * 10000 + MONTH * 100 + DAY WHERE DATE_KEY IS NULL;
+-- ALTER TABLE IDENTIFIER($catalog_table) CLUSTER BY (DATE_KEY);
+
+SELECT COUNT(*)
+FROM IDENTIFIER($catalog_table)
+WHERE DATE_KEY = $date_key;
+
+SELECT operator_type,
+       operator_statistics:pruning:partitions_scanned::NUMBER AS partitions_scanned,
+       operator_statistics:pruning:partitions_total::NUMBER   AS partitions_total
+FROM TABLE(GET_QUERY_OPERATOR_STATS(LAST_QUERY_ID()))
+WHERE operator_type = 'TableScan';
+
+-- Clustering health for whichever key the table is clustered on.
+SELECT SYSTEM$CLUSTERING_INFORMATION($catalog_table, '(YEAR, MONTH, DAY)');
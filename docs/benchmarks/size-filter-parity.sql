@@ -0,0 +1,59 @@
+-- Result parity for the requested-sizes filter (phshoes.search.query.size-filter-mode).
+--
+-- REGEX (default) matches the size as a quoted string inside the serialized EXTRA document; ARRAY_CONTAINS
+-- matches it as an element of GET(EXTRA, 'sizes'). The two only agree when EXTRA is a parsed object whose
+-- "sizes" is an array of strings. Run against one day of the catalog fact table for a few common sizes before
+-- switching the mode: both *_only counts in 1) must be 0 and 2) must show a single OBJECT / ARRAY / VARCHAR row.
+--
+-- Set these before running:
+SET catalog_table = 'FACT_PRODUCT_SHOES';
+SET date_key = 20250307;
+SET size = '10';
+
+ALTER SESSION SET USE_CACHED_RESULT = FALSE;
+
+-- 1) Rows each form matches, and rows only one of them matches.
+WITH day AS (
+    SELECT ID, EXTRA
+    FROM IDENTIFIER($catalog_table)
+    WHERE YEAR = FLOOR($date_key / 10000)
+      AND MONTH = MOD(FLOOR($date_key / 100), 100)
+      AND DAY = MOD($date_key, 100)
+), matched AS (
+    SELECT ID,
+           COALESCE(REGEXP_LIKE(TO_VARCHAR(EXTRA),
+                   $$\"sizes\"\s*:\s*\[[^\]]*\"$$ || REPLACE($size, '.', $$\.$$) || $$\"$$), FALSE) AS by_regex,
+           COALESCE(ARRAY_CONTAINS(TO_VARIANT($size), GET(EXTRA, 'sizes')), FALSE)               AS by_array
+    FROM day
+)
+SELECT COUNT_IF(by_regex)                 AS regex_rows,
+       COUNT_IF(by_array)                 AS array_rows,
+       COUNT_IF(by_regex AND NOT by_array) AS regex_only,
+       COUNT_IF(by_array AND NOT by_regex) AS array_only
+FROM matched;
+
+-- 2) How EXTRA and its sizes are stored. ARRAY_CONTAINS misses sizes stored as numbers (10 vs "10") and EXTRA
+--    values holding JSON text instead of a parsed object.
+SELECT TYPEOF(EXTRA)                       AS extra_type,
+       TYPEOF(GET(EXTRA, 'sizes'))         AS sizes_type,
+       TYPEOF(GET(GET(EXTRA, 'sizes'), 0)) AS element_type,
+       COUNT(*)                            AS row_count
+FROM IDENTIFIER($catalog_table)
+WHERE YEAR = FLOOR($date_key / 10000)
+  AND MONTH = MOD(FLOOR($date_key / 100), 100)
+  AND DAY = MOD($date_key, 100)
+GROUP BY 1, 2, 3
+ORDER BY row_count DESC;
+
+-- 3) A sample of the disagreeing rows, to see which side is wrong.
+SELECT ID,
+       COALESCE(ARRAY_CONTAINS(TO_VARIANT($size), GET(EXTRA, 'sizes')), FALSE) AS by_array,
+       GET(EXTRA, 'sizes')                                                    AS sizes
+FROM IDENTIFIER($catalog_table)
+WHERE YEAR = FLOOR($date_key / 10000)
+  AND MONTH = MOD(FLOOR($date_key / 100), 100)
+  AND DAY = MOD($date_key, 100)
+  AND COALESCE(REGEXP_LIKE(TO_VARCHAR(EXTRA),
+          $$\"sizes\"\s*:\s*\[[^\]]*\"$$ || REPLACE($size, '.', $$\.$$) || $$\"$$), FALSE)
+      != COALESCE(ARRAY_CONTAINS(TO_VARIANT($size), GET(EXTRA, 'sizes')), FALSE)
+LIMIT 20;
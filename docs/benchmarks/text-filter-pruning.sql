@@ -0,0 +1,75 @@
+-- Pruning and search optimization for the brand and title filters (phshoes.search.query.text-filter-mode).
+--
+-- Run in a Snowflake worksheet against one day of the catalog fact table with the result cache off so
+-- every statement actually scans. After each query, GET_QUERY_OPERATOR_STATS reports partitions scanned
+-- vs. total for the TableScan operator; record both for each mode, before and after adding search
+-- optimization (its query profile then shows a Search Optimization Access node).
+--
+-- Set these before running:
+SET catalog_table = 'FACT_PRODUCT_SHOES';
+SET date_key = 20250307;
+SET brand = 'nike';
+SET title_pattern = '%pegasus%';
+
+ALTER SESSION SET USE_CACHED_RESULT = FALSE;
+
+-- 1) LOWER (default): functions on the columns, so only the date columns prune.
+SELECT COUNT(*)
+FROM IDENTIFIER($catalog_table)
+WHERE YEAR = FLOOR($date_key / 10000)
+  AND MONTH = MOD(FLOOR($date_key / 100), 100)
+  AND DAY = MOD($date_key, 100)
+  AND LOWER(BRAND) IN ($brand)
+  AND LOWER(TITLE) LIKE $title_pattern;
+
+SELECT operator_type,
+       operator_statistics:pruning:partitions_scanned::NUMBER AS partitions_scanned,
+       operator_statistics:pruning:partitions_total::NUMBER   AS partitions_total
+FROM TABLE(GET_QUERY_OPERATOR_STATS(LAST_QUERY_ID()))
+WHERE operator_type = 'TableScan';
+
+-- 2) ILIKE: raw columns, case-insensitive match.
+SELECT COUNT(*)
+FROM IDENTIFIER($catalog_table)
+WHERE YEAR = FLOOR($date_key / 10000)
+  AND MONTH = MOD(FLOOR($date_key / 100), 100)
+  AND DAY = MOD($date_key, 100)
+  AND ILIKE(BRAND, $brand)
+  AND ILIKE(TITLE, $title_pattern);
+
+SELECT operator_type,
+       operator_statistics:pruning:partitions_scanned::NUMBER AS partitions_scanned,
+       operator_statistics:pruning:partitions_total::NUMBER   AS partitions_total
+FROM TABLE(GET_QUERY_OPERATOR_STATS(LAST_QUERY_ID()))
+WHERE operator_type = 'TableScan';
+
+-- 3) NORMALIZED: lower-cased columns populated at ingest, compared as stored. Requires the columns below
+--    plus matching attributes on CatalogShoe (phshoes.search.query.normalized-*-attribute).
+--
+-- ALTER TABLE IDENTIFIER($catalog_table) ADD COLUMN BRAND_NORMALIZED STRING;
+-- ALTER TABLE IDENTIFIER($catalog_table) ADD COLUMN TITLE_NORMALIZED STRING;
+-- ALTER TABLE IDENTIFIER($catalog_table) ADD COLUMN SUBTITLE_NORMALIZED STRING;
+-- UPDATE IDENTIFIER($catalog_table)
+--    SET BRAND_NORMALIZED = LOWER(BRAND), TITLE_NORMALIZED = LOWER(TITLE), SUBTITLE_NORMALIZED = LOWER(SUBTITLE)
+--  WHERE BRAND_NORMALIZED IS NULL;
+
+SELECT COUNT(*)
+FROM IDENTIFIER($catalog_table)
+WHERE YEAR = FLOOR($date_key / 10000)
+  AND MONTH = MOD(FLOOR($date_key / 100), 100)
+  AND DAY = MOD($date_key, 100)
+  AND BRAND_NORMALIZED IN ($brand)
+  AND TITLE_NORMALIZED LIKE $title_pattern;
+
+SELECT operator_type,
+       operator_statistics:pruning:partitions_scanned::NUMBER AS partitions_scanned,
+       operator_statistics:pruning:partitions_total::NUMBER   AS partitions_total
+FROM TABLE(GET_QUERY_OPERATOR_STATS(LAST_QUERY_ID()))
+WHERE operator_type = 'TableScan';
+
+-- Search optimization for the forms above; re-run 2) and 3) once it reports 100% active.
+--
+-- ALTER TABLE IDENTIFIER($catalog_table) ADD SEARCH OPTIMIZATION
+--     ON EQUALITY(BRAND_NORMALIZED), SUBSTRING(BRAND, TITLE, SUBTITLE, TITLE_NORMALIZED, SUBTITLE_NORMALIZED);
+SELECT SYSTEM$ESTIMATE_SEARCH_OPTIMIZATION_COSTS($catalog_table,
+    'EQUALITY(BRAND_NORMALIZED), SUBSTRING(BRAND, TITLE, SUBTITLE, TITLE_NORMALIZED, SUBTITLE_NORMALIZED)');
@@ -0,0 +1,46 @@
+// k6 load profile for GET /api/v1/search/fact-product-shoes.
+// Run once per threading mode and compare p95 latency and error rate at the same arrival rate:
+//   SPRING_THREADS_VIRTUAL_ENABLED=false  k6 run -e BASE_URL=http://localhost:8084 docs/benchmarks/text-search-load.js
+//   SPRING_THREADS_VIRTUAL_ENABLED=true   k6 run -e BASE_URL=http://localhost:8084 docs/benchmarks/text-search-load.js
+// The peak rate keeps more requests in flight than the platform search pool holds (64 threads + 256 queue);
+// with rate limiting enabled, set PHSHOES_API_RATE_LIMIT_ENABLED=false on the target first.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8084';
+const QUERIES = [
+  'nike running shoes under 5000',
+  'adidas ultraboost size 10',
+  'white sneakers on sale',
+  'asics gel kayano',
+  'new balance 550 men',
+  'hoka trail shoes',
+];
+
+export const options = {
+  scenarios: {
+    ramp: {
+      executor: 'ramping-arrival-rate',
+      startRate: 20,
+      timeUnit: '1s',
+      preAllocatedVUs: 200,
+      maxVUs: 1000,
+      stages: [
+        { target: 100, duration: '1m' },
+        { target: 400, duration: '2m' },
+        { target: 400, duration: '2m' },
+        { target: 0, duration: '30s' },
+      ],
+    },
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+    http_req_duration: ['p(95)<3000'],
+  },
+};
+
+export default function () {
+  const q = QUERIES[Math.floor(Math.random() * QUERIES.length)];
+  const res = http.get(`${BASE_URL}/api/v1/search/fact-product-shoes?q=${encodeURIComponent(q)}&page=0&size=15`);
+  check(res, { 'status is 200': (r) => r.status === 200 });
+}
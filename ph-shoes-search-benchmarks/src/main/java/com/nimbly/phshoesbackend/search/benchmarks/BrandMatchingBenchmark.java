@@ -0,0 +1,65 @@
+package com.nimbly.phshoesbackend.search.benchmarks;
+
+import com.nimbly.phshoesbackend.search.core.model.PreFilterAnalysis;
+import com.nimbly.phshoesbackend.search.core.service.impl.PreFilterExtractorImpl;
+import com.nimbly.phshoesbackend.search.core.util.BrandDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-filter analysis as the brand vocabulary grows: the bundled dictionary plus {@code brands} synthetic
+ * catalog brands. The score should stay flat across the parameter values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BrandMatchingBenchmark {
+
+    private static final String[] QUERIES = {
+            "nike pegasus under 5000 size 10",
+            "cheapest new ballance running shoes",
+            "addidas ultraboost on sale",
+            "brand 250 trail shoes sizes 9, 9.5 and 10",
+            "white sneakers for school",
+            "most expensive asics gel kayano us 9",
+    };
+
+    @Param({"0", "100", "500"})
+    public int brands;
+
+    private PreFilterExtractorImpl extractor;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BrandDictionary.Builder builder = BrandDictionary.builder();
+        BrandDictionary.defaults().phrases().forEach((phrase, brand) -> builder.alias(brand, phrase));
+        for (int i = 0; i < brands; i++) {
+            builder.brand("brand " + i);
+        }
+        BrandDictionary dictionary = builder.build();
+        extractor = new PreFilterExtractorImpl(() -> dictionary);
+    }
+
+    @Benchmark
+    public PreFilterAnalysis analyze() {
+        String query = QUERIES[cursor];
+        cursor = cursor + 1 == QUERIES.length ? 0 : cursor + 1;
+        return extractor.analyze(query);
+    }
+}
@@ -0,0 +1,99 @@
+package com.nimbly.phshoesbackend.search.benchmarks;
+
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.util.FilterNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FilterNormalizer} against the implementation it replaced ({@link LegacyFilterNormalizer}), over
+ * criteria shaped like merged AI intents. {@code input=raw} is the first normalization in
+ * {@code FilterPipeline}; {@code input=normalized} is the second one after validation, which sees criteria
+ * that are already canonical. Every op normalizes a fresh copy; {@code copyOnly} is that overhead alone.
+ * Run with {@code -prof gc} to compare allocation per op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FilterNormalizerBenchmark {
+
+    @Param({"raw", "normalized"})
+    public String input;
+
+    private AISearchFilterCriteria[] criteria;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        criteria = new AISearchFilterCriteria[]{
+                criteria(List.of(" Nike "), "Pegasus 41", List.of("Running", " road "), List.of("US 10", "10.5"), "Male "),
+                criteria(List.of("New Balance", "newbalance"), "990", List.of("Made in USA"), List.of("9"), null),
+                criteria(List.of("ADIDAS"), "Ultraboost 22", List.of("ultraboost", "22"), List.of("22"), "women"),
+                criteria(List.of("asics"), "Gel-Kayano", List.of("Stability", "size 9"), List.of("uk 9", "9.5"), "female"),
+                criteria(null, null, List.of("trail", "Waterproof", "trail"), null, "Kids"),
+                criteria(List.of("hoka", "Hoka "), "Clifton 9", List.of(), List.of("size 9", "eu 42"), "unisex"),
+        };
+        if ("normalized".equals(input)) {
+            for (AISearchFilterCriteria each : criteria) {
+                FilterNormalizer.normalize(each);
+            }
+        }
+    }
+
+    @Benchmark
+    public AISearchFilterCriteria current() {
+        AISearchFilterCriteria copy = criteria[next()].copy();
+        FilterNormalizer.normalize(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public AISearchFilterCriteria legacy() {
+        AISearchFilterCriteria copy = criteria[next()].copy();
+        LegacyFilterNormalizer.normalize(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public AISearchFilterCriteria copyOnly() {
+        return criteria[next()].copy();
+    }
+
+    private int next() {
+        int index = cursor;
+        cursor = index + 1 == criteria.length ? 0 : index + 1;
+        return index;
+    }
+
+    private static AISearchFilterCriteria criteria(List<String> brands, String model, List<String> titleKeywords,
+                                                   List<String> sizes, String gender) {
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setBrands(brands);
+        criteria.setModel(model);
+        criteria.setTitleKeywords(titleKeywords);
+        criteria.setSubtitleKeywords(Arrays.asList(" Men's ", null));
+        criteria.setSizes(sizes);
+        criteria.setGender(gender);
+        criteria.setPriceSaleMin(5000.0);
+        criteria.setPriceSaleMax(3000.0);
+        criteria.setPriceOriginalMax(5000.0);
+        return criteria;
+    }
+}
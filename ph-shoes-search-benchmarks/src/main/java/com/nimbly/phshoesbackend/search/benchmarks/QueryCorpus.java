@@ -0,0 +1,35 @@
+package com.nimbly.phshoesbackend.search.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Loads {@code corpus/queries.txt}: one query per line, blank lines and {@code #} comments skipped.
+ */
+public final class QueryCorpus {
+
+    static final String RESOURCE = "corpus/queries.txt";
+
+    private QueryCorpus() {}
+
+    public static String[] load() {
+        try (InputStream in = QueryCorpus.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark corpus " + RESOURCE);
+            }
+            List<String> queries = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))
+                    .lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .toList();
+            return queries.toArray(String[]::new);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
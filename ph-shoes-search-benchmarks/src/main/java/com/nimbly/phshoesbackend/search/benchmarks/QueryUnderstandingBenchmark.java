@@ -0,0 +1,219 @@
+package com.nimbly.phshoesbackend.search.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.cache.IntentCache;
+import com.nimbly.phshoesbackend.search.core.config.props.CatalogQueryProperties;
+import com.nimbly.phshoesbackend.search.core.config.props.IntentCacheProperties;
+import com.nimbly.phshoesbackend.search.core.config.props.IntentParsingProperties;
+import com.nimbly.phshoesbackend.search.core.exception.AiSearchException;
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.model.FilterPipelineResult;
+import com.nimbly.phshoesbackend.search.core.model.PreFilterAnalysis;
+import com.nimbly.phshoesbackend.search.core.service.FilterPipeline;
+import com.nimbly.phshoesbackend.search.core.service.FilterValidator;
+import com.nimbly.phshoesbackend.search.core.service.IntentRouter;
+import com.nimbly.phshoesbackend.search.core.service.OpenAiIntentParserService;
+import com.nimbly.phshoesbackend.search.core.service.PreFilterExtractor;
+import com.nimbly.phshoesbackend.search.core.service.impl.KeywordIntentParser;
+import com.nimbly.phshoesbackend.search.core.service.impl.PreFilterExtractorImpl;
+import com.nimbly.phshoesbackend.search.core.util.BrandDictionary;
+import com.nimbly.phshoesbackend.search.core.util.FilterNormalizer;
+import com.nimbly.phshoesbackend.search.core.util.SpecificationBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-query throughput of the rule-based query-understanding stages, cycling through {@link QueryCorpus}.
+ * <p>
+ * {@code normalize} and {@code validate} mutate their input, so each op starts from a
+ * {@link AISearchFilterCriteria#copy() copy} of the pre-extracted criteria; {@code copyOnly} measures that
+ * overhead on its own. {@code extract} and {@code strip} each run the full single-pass
+ * {@link PreFilterExtractor#analyze analysis}, which {@code analyze} returns whole. {@code pipeline} runs
+ * {@link FilterPipeline#process} end to end (pre-filter analysis, intent lookup, merge, normalize, validate)
+ * with a stubbed intent parser executed inline, either against a warm intent cache ({@code intentCache=hit})
+ * or with the cache disabled so every op parses and merges; {@code rulesFirst} toggles the
+ * {@link IntentRouter} so queries the rules understand skip the parser.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class QueryUnderstandingBenchmark {
+
+    private String[] queries;
+    private AISearchFilterCriteria[] extracted;
+    private AISearchFilterCriteria[] validated;
+    private PreFilterExtractor extractor;
+    private FilterValidator validator;
+    private SpecificationBuilder specificationBuilder;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queries = QueryCorpus.load();
+        extractor = new PreFilterExtractorImpl(BrandDictionary::defaults);
+        validator = new FilterValidator(extractor);
+        specificationBuilder = new SpecificationBuilder(new CatalogQueryProperties());
+
+        List<AISearchFilterCriteria> valid = new ArrayList<>();
+        extracted = new AISearchFilterCriteria[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            extracted[i] = extractor.extract(queries[i]);
+            AISearchFilterCriteria criteria = extracted[i].copy();
+            try {
+                FilterNormalizer.normalize(criteria);
+                validator.validate(criteria);
+                FilterNormalizer.normalize(criteria);
+                valid.add(criteria);
+            } catch (AiSearchException ignored) {
+                // rejected queries would never reach SpecificationBuilder
+            }
+        }
+        validated = valid.toArray(AISearchFilterCriteria[]::new);
+    }
+
+    @Benchmark
+    public AISearchFilterCriteria extract() {
+        return extractor.extract(queries[next(queries.length)]);
+    }
+
+    @Benchmark
+    public String strip() {
+        return extractor.strip(queries[next(queries.length)]);
+    }
+
+    @Benchmark
+    public PreFilterAnalysis analyze() {
+        return extractor.analyze(queries[next(queries.length)]);
+    }
+
+    @Benchmark
+    public AISearchFilterCriteria copyOnly() {
+        return extracted[next(extracted.length)].copy();
+    }
+
+    @Benchmark
+    public AISearchFilterCriteria normalize() {
+        AISearchFilterCriteria criteria = extracted[next(extracted.length)].copy();
+        FilterNormalizer.normalize(criteria);
+        return criteria;
+    }
+
+    @Benchmark
+    public AISearchFilterCriteria validate() {
+        AISearchFilterCriteria criteria = extracted[next(extracted.length)].copy();
+        try {
+            validator.validate(criteria);
+        } catch (AiSearchException ignored) {
+            // counted like a successful op: the rejection path is part of the workload
+        }
+        return criteria;
+    }
+
+    @Benchmark
+    public Specification<CatalogShoe> buildSpecification() {
+        return specificationBuilder.build(validated[next(validated.length)]);
+    }
+
+    @Benchmark
+    public FilterPipelineResult pipeline(PipelineState state) {
+        return state.pipeline.process(state.queries[state.next()]);
+    }
+
+    private int next(int length) {
+        int index = cursor;
+        cursor = index + 1 == length ? 0 : index + 1;
+        return index;
+    }
+
+    @State(Scope.Thread)
+    public static class PipelineState {
+
+        @Param({"hit", "miss"})
+        public String intentCache;
+
+        @Param({"true", "false"})
+        public boolean rulesFirst;
+
+        private FilterPipeline pipeline;
+        private String[] queries;
+        private int cursor;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            PreFilterExtractor extractor = new PreFilterExtractorImpl(BrandDictionary::defaults);
+            IntentCacheProperties cacheProperties = new IntentCacheProperties();
+            cacheProperties.setEnabled("hit".equals(intentCache));
+            IntentParsingProperties intentProperties = new IntentParsingProperties();
+            intentProperties.setRulesFirst(rulesFirst);
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            pipeline = new FilterPipeline(
+                    extractor,
+                    new IntentRouter(intentProperties),
+                    new StubIntentParser(),
+                    new KeywordIntentParser(),
+                    new FilterValidator(extractor),
+                    new IntentCache(cacheProperties, new ObjectMapper(), meterRegistry),
+                    Runnable::run,
+                    intentProperties,
+                    meterRegistry
+            );
+            // Keeps only queries the pipeline accepts; this pass also warms the intent cache when it is enabled.
+            queries = Arrays.stream(QueryCorpus.load())
+                    .filter(this::accepted)
+                    .toArray(String[]::new);
+        }
+
+        private boolean accepted(String query) {
+            try {
+                pipeline.process(query);
+                return true;
+            } catch (AiSearchException e) {
+                return false;
+            }
+        }
+
+        private int next() {
+            int index = cursor;
+            cursor = index + 1 == queries.length ? 0 : index + 1;
+            return index;
+        }
+    }
+
+    /**
+     * Deterministic stand-in for the LLM: the leftover becomes the model phrase and its words the title keywords.
+     */
+    static final class StubIntentParser implements OpenAiIntentParserService {
+        @Override
+        public AISearchFilterCriteria parseIntent(String leftover) {
+            AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+            String phrase = leftover.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9 ]", " ").trim();
+            if (!phrase.isEmpty()) {
+                criteria.setModel(phrase);
+                criteria.setTitleKeywords(new ArrayList<>(Arrays.asList(phrase.split("\\s+"))));
+            }
+            return criteria;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.nimbly.phshoesbackend.search.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the benchmarks and compares each score with a stored baseline from the same machine class.
+ * Exits with status 1 when any benchmark is worse than the baseline by more than the threshold:
+ * lower throughput for {@link Mode#Throughput}, higher time per op for the time-based modes.
+ * <p>
+ * Without a baseline file the run records one and passes. Usage:
+ * <pre>
+ *   java -cp target/benchmarks.jar \
+ *       -Dgate.baseline=benchmarks-baseline.json -Dgate.threshold=0.10 \
+ *       com.nimbly.phshoesbackend.search.benchmarks.RegressionGate [JMH options, e.g. QueryUnderstanding -f 1]
+ * </pre>
+ * {@code -Dgate.update=true} overwrites the baseline with the current run after comparing.
+ */
+public final class RegressionGate {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private RegressionGate() {}
+
+    public static void main(String[] args) throws IOException, RunnerException, CommandLineOptionException {
+        Path baselineFile = Path.of(System.getProperty("gate.baseline", "benchmarks-baseline.json"));
+        double threshold = Double.parseDouble(System.getProperty("gate.threshold", "0.10"));
+        boolean update = Boolean.parseBoolean(System.getProperty("gate.update", "false"));
+
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(RegressionGate.class.getPackageName() + ".*");
+        }
+        Options options = builder.build();
+        Map<String, Score> current = scores(new Runner(options).run());
+
+        if (!Files.exists(baselineFile)) {
+            write(baselineFile, current);
+            System.out.printf("No baseline at %s; recorded %d scores%n", baselineFile, current.size());
+            return;
+        }
+        Map<String, Score> baseline = JSON.readValue(baselineFile.toFile(), new TypeReference<TreeMap<String, Score>>() {});
+        List<String> regressions = compare(baseline, current, threshold);
+        if (update) {
+            write(baselineFile, current);
+        }
+        if (!regressions.isEmpty()) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%:%n", regressions.size(), threshold * 100);
+            regressions.forEach(line -> System.out.println("  " + line));
+            System.exit(1);
+        }
+        System.out.printf("All %d benchmark(s) within %.0f%% of %s%n", current.size(), threshold * 100, baselineFile);
+    }
+
+    /**
+     * One line per benchmark that got worse than {@code baseline} by more than {@code threshold};
+     * benchmarks missing from either side are ignored.
+     */
+    static List<String> compare(Map<String, Score> baseline, Map<String, Score> current, double threshold) {
+        List<String> regressions = new ArrayList<>();
+        current.forEach((key, now) -> {
+            Score before = baseline.get(key);
+            if (before == null || before.score() <= 0) {
+                return;
+            }
+            double change = (now.score() - before.score()) / before.score();
+            boolean worse = now.higherIsBetter() ? change < -threshold : change > threshold;
+            if (worse) {
+                regressions.add(String.format("%s: %.3f -> %.3f %s (%+.1f%%)",
+                        key, before.score(), now.score(), now.unit(), change * 100));
+            }
+        });
+        return regressions;
+    }
+
+    private static Map<String, Score> scores(Collection<RunResult> results) {
+        Map<String, Score> scores = new TreeMap<>();
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            StringBuilder key = new StringBuilder(params.getBenchmark());
+            for (String name : params.getParamsKeys()) {
+                key.append(';').append(name).append('=').append(params.getParam(name));
+            }
+            scores.put(key.toString(), new Score(
+                    result.getPrimaryResult().getScore(),
+                    result.getPrimaryResult().getScoreUnit(),
+                    params.getMode() == Mode.Throughput
+            ));
+        }
+        return scores;
+    }
+
+    private static void write(Path file, Map<String, Score> scores) throws IOException {
+        JSON.writeValue(file.toFile(), scores);
+    }
+
+    record Score(double score, String unit, boolean higherIsBetter) {
+    }
+}
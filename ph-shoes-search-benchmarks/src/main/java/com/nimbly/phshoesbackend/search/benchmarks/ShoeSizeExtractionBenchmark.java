@@ -0,0 +1,136 @@
+package com.nimbly.phshoesbackend.search.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbly.phshoesbackend.search.core.util.ShoeSizeExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming {@link ShoeSizeExtractor} against the previous {@code readTree} implementation, over a page's
+ * worth of {@code extra} blobs shaped like the scraper's output. {@code sizesPosition} moves the
+ * {@code sizes} field to the front or the back of the document, which bounds how much the streaming
+ * parser can skip. Run with {@code -prof gc} to compare allocation per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ShoeSizeExtractionBenchmark {
+
+    private static final String[] CATEGORIES = {"running", "basketball", "lifestyle", "trail", "training"};
+    private static final String[] COLORS = {"black", "white", "volt", "university red", "midnight navy", "sail"};
+
+    @Param({"first", "last"})
+    public String sizesPosition;
+
+    @Param({"15"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private ShoeSizeExtractor streaming;
+    private String[] payloads;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        streaming = new ShoeSizeExtractor(objectMapper, new SimpleMeterRegistry());
+        Random random = new Random(42);
+        payloads = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            payloads[i] = payload(random, "first".equals(sizesPosition));
+        }
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) {
+        for (String payload : payloads) {
+            blackhole.consume(streaming.extract(payload));
+        }
+    }
+
+    @Benchmark
+    public void tree(Blackhole blackhole) {
+        for (String payload : payloads) {
+            blackhole.consume(treeExtract(payload));
+        }
+    }
+
+    /**
+     * The implementation {@link ShoeSizeExtractor} replaced.
+     */
+    private List<String> treeExtract(String extra) {
+        try {
+            JsonNode sizesNode = objectMapper.readTree(extra).get("sizes");
+            if (sizesNode == null || !sizesNode.isArray()) {
+                return null;
+            }
+            List<String> sizes = new ArrayList<>();
+            for (JsonNode node : sizesNode) {
+                if (node.isTextual() || node.isNumber()) {
+                    String val = node.asText();
+                    if (!val.isBlank()) {
+                        sizes.add(val);
+                    }
+                }
+            }
+            return sizes.isEmpty() ? null : sizes;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String payload(Random random, boolean sizesFirst) {
+        StringBuilder sizes = new StringBuilder("\"sizes\":[");
+        int start = 10 + random.nextInt(6);
+        int count = 8 + random.nextInt(10);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sizes.append(',');
+            }
+            int half = start + i;
+            sizes.append('"').append(half / 2).append(half % 2 == 0 ? "" : ".5").append('"');
+        }
+        sizes.append(']');
+
+        StringBuilder rest = new StringBuilder();
+        rest.append("\"category\":\"").append(CATEGORIES[random.nextInt(CATEGORIES.length)]).append("\",");
+        rest.append("\"colorways\":[");
+        for (int i = 0; i < 3 + random.nextInt(4); i++) {
+            if (i > 0) {
+                rest.append(',');
+            }
+            rest.append("{\"name\":\"").append(COLORS[random.nextInt(COLORS.length)])
+                    .append("\",\"sku\":\"DV").append(1000 + random.nextInt(9000))
+                    .append("-").append(100 + random.nextInt(900))
+                    .append("\",\"available\":").append(random.nextBoolean()).append('}');
+        }
+        rest.append("],");
+        rest.append("\"description\":\"").append("Responsive cushioning and a breathable engineered mesh upper. ".repeat(4)).append("\",");
+        rest.append("\"widths\":[\"regular\",\"wide\"],");
+        rest.append("\"source\":{\"site\":\"ph\",\"scrapedAt\":\"2025-02-20T01:00:00Z\",\"page\":").append(random.nextInt(40)).append('}');
+
+        return sizesFirst
+                ? "{" + sizes + "," + rest + "}"
+                : "{" + rest + "," + sizes + "}";
+    }
+}
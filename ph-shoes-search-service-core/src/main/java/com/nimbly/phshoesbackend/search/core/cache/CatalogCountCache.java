@@ -0,0 +1,71 @@
+package com.nimbly.phshoesbackend.search.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbly.phshoesbackend.search.core.config.props.CountCacheProperties;
+import com.nimbly.phshoesbackend.search.core.event.CatalogSnapshotChangedEvent;
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.util.CountMode;
+import com.nimbly.phshoesbackend.search.core.util.CriteriaFingerprint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Total row counts keyed on the {@link CriteriaFingerprint#filterKey filter fingerprint} and catalog day,
+ * so pages 2..N of a search (and re-phrasings that resolve to the same filters) reuse the page-0 count.
+ */
+@Component
+public class CatalogCountCache {
+
+    static final String CACHE_NAME = "search.count";
+
+    private final CountCacheProperties properties;
+    private final Cache<Key, Long> cache;
+
+    public CatalogCountCache(CountCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public boolean isApproximate() {
+        return properties.getMode() == CountMode.APPROXIMATE;
+    }
+
+    /**
+     * Cached total, or {@code null} on a miss or when the day is unknown.
+     */
+    public Long getIfPresent(AISearchFilterCriteria criteria, Integer dateKey) {
+        if (!properties.isEnabled() || dateKey == null) {
+            return null;
+        }
+        return cache.getIfPresent(new Key(CriteriaFingerprint.filterKey(criteria), dateKey));
+    }
+
+    public void put(AISearchFilterCriteria criteria, Integer dateKey, long total) {
+        if (properties.isEnabled() && dateKey != null) {
+            cache.put(new Key(CriteriaFingerprint.filterKey(criteria), dateKey), total);
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Counts are per day, so a new day makes every entry unreachable; drop them instead of waiting for the TTL.
+     */
+    @EventListener
+    void onSnapshotChanged(CatalogSnapshotChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    record Key(String filterKey, int dateKey) {
+    }
+}
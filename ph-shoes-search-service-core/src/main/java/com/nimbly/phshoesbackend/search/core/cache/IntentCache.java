@@ -0,0 +1,147 @@
+package com.nimbly.phshoesbackend.search.core.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbly.phshoesbackend.search.core.config.props.IntentCacheProperties;
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.util.QueryCanonicalizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting cache of LLM intent parses keyed on the canonicalized leftover
+ * produced by {@code PreFilterExtractor.strip}.
+ * <p>
+ * A miss installs an incomplete future and the caller parses outside the cache, so a slow LLM call holds no
+ * lock; concurrent callers for the same key wait on that future instead of parsing again. Failed and
+ * {@code null} parses are not kept.
+ */
+@Slf4j
+@Component
+public class IntentCache {
+
+    static final String CACHE_NAME = "search.intent";
+
+    private final IntentCacheProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AsyncCache<String, AISearchFilterCriteria> cache;
+
+    public IntentCache(
+            IntentCacheProperties properties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        if (properties.isLoadSnapshotOnStartup()) {
+            loadSnapshot();
+        }
+    }
+
+    /**
+     * Cached parse for the leftover, or {@code parser} applied to the leftover as given, not its cache key.
+     */
+    public AISearchFilterCriteria get(String leftover, Function<String, AISearchFilterCriteria> parser) {
+        if (!properties.isEnabled()) {
+            return parser.apply(leftover);
+        }
+        CompletableFuture<AISearchFilterCriteria> parse = new CompletableFuture<>();
+        CompletableFuture<AISearchFilterCriteria> entry =
+                cache.get(QueryCanonicalizer.canonicalize(leftover), (key, executor) -> parse);
+        if (entry == parse) {
+            try {
+                parse.complete(parser.apply(leftover));
+            } catch (RuntimeException e) {
+                parse.completeExceptionally(e);
+                throw e;
+            }
+        }
+        AISearchFilterCriteria cached = entry.join();
+        return cached == null ? null : cached.copy();
+    }
+
+    /**
+     * Cached parse for the leftover, or {@code null} on a miss or while the parse is still running.
+     * Never calls the parser.
+     */
+    public AISearchFilterCriteria getIfPresent(String leftover) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        CompletableFuture<AISearchFilterCriteria> entry = cache.getIfPresent(QueryCanonicalizer.canonicalize(leftover));
+        if (entry == null || !entry.isDone() || entry.isCompletedExceptionally()) {
+            return null;
+        }
+        AISearchFilterCriteria cached = entry.join();
+        return cached == null ? null : cached.copy();
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    @PreDestroy
+    void writeSnapshot() {
+        if (!StringUtils.hasText(properties.getSnapshotPath()) || !properties.isEnabled()) {
+            return;
+        }
+        Path path = Path.of(properties.getSnapshotPath());
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Map<String, AISearchFilterCriteria> entries = Map.copyOf(cache.synchronous().asMap());
+            objectMapper.writeValue(path.toFile(), entries);
+            log.info("Wrote {} intent cache entries to {}", entries.size(), path);
+        } catch (IOException e) {
+            log.warn("Failed to write intent cache snapshot to {}", path, e);
+        }
+    }
+
+    private void loadSnapshot() {
+        if (!StringUtils.hasText(properties.getSnapshotPath())) {
+            return;
+        }
+        Path path = Path.of(properties.getSnapshotPath());
+        if (!Files.isReadable(path)) {
+            log.info("No intent cache snapshot found at {}", path);
+            return;
+        }
+        try {
+            Map<String, AISearchFilterCriteria> entries =
+                    objectMapper.readValue(path.toFile(), new TypeReference<Map<String, AISearchFilterCriteria>>() {});
+            entries.forEach((key, value) -> {
+                if (value != null) {
+                    cache.synchronous().put(QueryCanonicalizer.canonicalize(key), value);
+                }
+            });
+            log.info("Loaded {} intent cache entries from {}", entries.size(), path);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable intent cache snapshot at {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.nimbly.phshoesbackend.search.core.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbly.phshoesbackend.search.core.config.props.ResponseCacheProperties;
+import com.nimbly.phshoesbackend.search.core.util.QueryCanonicalizer;
+import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded cache of full search responses. Entries are keyed on the catalog snapshot date
+ * so that a new scrape day naturally stops serving responses computed against the previous one.
+ * Degraded responses (AI intent parse skipped) are never stored.
+ * <p>
+ * The loader runs outside the cache, so a slow search holds no cache lock; identical concurrent searches are
+ * coalesced upstream. Responses are mutable DTOs, so the cache stores and hands out deep copies.
+ */
+@Slf4j
+@Component
+public class SearchResponseCache {
+
+    static final String CACHE_NAME = "search.response";
+
+    private final ResponseCacheProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, TextSearchResponse> cache;
+
+    public SearchResponseCache(ResponseCacheProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public TextSearchResponse get(
+            String query,
+            Pageable pageable,
+            Integer snapshotDateKey,
+            Supplier<TextSearchResponse> loader
+    ) {
+        return get(query, pageable, snapshotDateKey, false, loader);
+    }
+
+    /**
+     * @param slice whether the response is a count-free slice; slices and pages of the same position are distinct entries
+     */
+    public TextSearchResponse get(
+            String query,
+            Pageable pageable,
+            Integer snapshotDateKey,
+            boolean slice,
+            Supplier<TextSearchResponse> loader
+    ) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        Key key = new Key(
+                QueryCanonicalizer.canonicalize(query),
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                pageable.getSort().toString(),
+                snapshotDateKey,
+                slice
+        );
+        TextSearchResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return copy(cached);
+        }
+        TextSearchResponse response = loader.get();
+        if (!Boolean.TRUE.equals(response.getDegraded())) {
+            cache.put(key, copy(response));
+        }
+        return response;
+    }
+
+    /**
+     * Deep copy of {@code response}, as the cache stores and hands it out.
+     */
+    public TextSearchResponse copy(TextSearchResponse response) {
+        return objectMapper.convertValue(response, TextSearchResponse.class);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public void invalidateAll() {
+        log.info("Purging {} cached search responses", cache.estimatedSize());
+        cache.invalidateAll();
+    }
+
+    record Key(String query, int page, int size, String sort, Integer snapshotDateKey, boolean slice) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.nimbly.phshoesbackend.search.core.config;
+
+import com.nimbly.phshoesbackend.search.core.config.props.SearchExecutorProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors for the search path's internal async stages: the speculative and count queries on the search executor,
+ * the remote AI intent parse on its own intent executor.
+ * Follows {@code spring.threads.virtual.enabled}: a bounded platform pool by default, one virtual thread per
+ * task when virtual threads are on. Tasks it runs are marked so nested stages can tell they are already on it
+ * (see {@link #onSearchThread()}).
+ */
+@Configuration
+public class SearchExecutorConfig {
+
+    public static final String SEARCH_TASK_EXECUTOR = "searchTaskExecutor";
+    public static final String INTENT_TASK_EXECUTOR = "intentTaskExecutor";
+
+    private static final ThreadLocal<Boolean> SEARCH_TASK = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Whether the calling thread is running a task of the search executor. A stage that would otherwise submit work
+     * to the same bounded executor and wait for it should run that work inline instead.
+     */
+    public static boolean onSearchThread() {
+        return SEARCH_TASK.get();
+    }
+
+    static Runnable marked(Runnable task) {
+        return () -> {
+            boolean outer = SEARCH_TASK.get();
+            SEARCH_TASK.set(true);
+            try {
+                task.run();
+            } finally {
+                SEARCH_TASK.set(outer);
+            }
+        };
+    }
+
+    @Bean(name = SEARCH_TASK_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor searchTaskExecutor(SearchExecutorProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("search-");
+        executor.setCorePoolSize(properties.getCorePoolSize());
+        executor.setMaxPoolSize(properties.getMaxPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.setTaskDecorator(SearchExecutorConfig::marked);
+        return executor;
+    }
+
+    @Bean(name = SEARCH_TASK_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualSearchTaskExecutor(SearchExecutorProperties properties) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("search-vt-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(properties.getVirtualConcurrencyLimit());
+        executor.setTaskDecorator(SearchExecutorConfig::marked);
+        return executor;
+    }
+
+    /**
+     * Runs every remote intent parse on a thread of its own up to {@code intentPoolSize}, and rejects beyond that
+     * instead of queueing: a parse waiting in a queue would only miss its deadline, whereas a rejection falls back
+     * to the pre-filters at once.
+     */
+    @Bean(name = INTENT_TASK_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor intentTaskExecutor(SearchExecutorProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("intent-");
+        executor.setCorePoolSize(properties.getIntentPoolSize());
+        executor.setMaxPoolSize(properties.getIntentPoolSize());
+        executor.setQueueCapacity(0);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    @Bean(name = INTENT_TASK_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualIntentTaskExecutor(SearchExecutorProperties properties) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("intent-vt-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(properties.getVirtualConcurrencyLimit());
+        return executor;
+    }
+}
@@ -0,0 +1,28 @@
+package com.nimbly.phshoesbackend.search.core.config.props;
+
+import com.nimbly.phshoesbackend.search.core.util.BrandDictionary;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "phshoes.search.brands")
+public class BrandVocabularyProperties {
+
+    /**
+     * Resource with the brand/alias seed ({@code brand: alias, alias} per line); re-read on every reload.
+     */
+    private String aliasesLocation = "classpath:" + BrandDictionary.DEFAULT_ALIASES;
+
+    /**
+     * Add the distinct brands of the latest collected day to the vocabulary on startup and snapshot change.
+     */
+    private boolean fromCatalog = true;
+
+    /**
+     * Catalog brands shorter than this (without whitespace) are left out, so names like {@code on} do not
+     * match ordinary words; list them with a longer alias in the seed instead.
+     */
+    private int minLength = 3;
+}
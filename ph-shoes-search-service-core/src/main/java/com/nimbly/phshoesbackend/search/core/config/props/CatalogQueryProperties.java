@@ -0,0 +1,54 @@
+package com.nimbly.phshoesbackend.search.core.config.props;
+
+import com.nimbly.phshoesbackend.search.core.util.DateKeyMode;
+import com.nimbly.phshoesbackend.search.core.util.SizeFilterMode;
+import com.nimbly.phshoesbackend.search.core.util.TextFilterMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "phshoes.search.query")
+public class CatalogQueryProperties {
+
+    private DateKeyMode dateKeyMode = DateKeyMode.COMPONENTS;
+
+    /**
+     * Entity attribute holding the precomputed {@code yyyymmdd} key; only read in {@link DateKeyMode#COLUMN} mode.
+     */
+    private String dateKeyAttribute = "dateKey";
+
+    /**
+     * {@link SizeFilterMode#ARRAY_CONTAINS} is only equivalent when every row stores {@code extra.sizes} as an array
+     * of strings; check with {@code docs/benchmarks/size-filter-parity.sql} before switching.
+     */
+    private SizeFilterMode sizeFilterMode = SizeFilterMode.REGEX;
+
+    private TextFilterMode textFilterMode = TextFilterMode.LOWER;
+
+    /**
+     * Entity attributes holding the lower-cased brand, title and subtitle; only read in {@link TextFilterMode#NORMALIZED} mode.
+     */
+    private String normalizedBrandAttribute = "brandNormalized";
+    private String normalizedTitleAttribute = "titleNormalized";
+    private String normalizedSubtitleAttribute = "subtitleNormalized";
+
+    /**
+     * Issue the page's {@code count(*)} concurrently with the content query instead of after it.
+     */
+    private boolean parallelCount = true;
+
+    /**
+     * Read the page's total as {@code COUNT(*) OVER ()} alongside its rows, so a page is one statement instead of a
+     * content and a count query. Takes precedence over {@link #parallelCount}; a count query still runs when the
+     * page is past the last row and carries no total.
+     */
+    private boolean windowCount = true;
+
+    /**
+     * Read search results as a column projection with {@code extra} reduced to its sizes array,
+     * instead of hydrating full entities.
+     */
+    private boolean projection = true;
+}
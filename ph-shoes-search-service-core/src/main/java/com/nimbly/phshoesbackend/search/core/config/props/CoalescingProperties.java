@@ -0,0 +1,23 @@
+package com.nimbly.phshoesbackend.search.core.config.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "phshoes.search.coalescing")
+public class CoalescingProperties {
+
+    /**
+     * Let concurrent identical searches share one in-flight computation.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a request waits on an identical in-flight search before computing its own response.
+     */
+    private Duration maxWait = Duration.ofSeconds(5);
+}
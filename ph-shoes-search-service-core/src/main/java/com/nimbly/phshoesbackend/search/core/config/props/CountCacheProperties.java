@@ -0,0 +1,19 @@
+package com.nimbly.phshoesbackend.search.core.config.props;
+
+import com.nimbly.phshoesbackend.search.core.util.CountMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "phshoes.search.count-cache")
+public class CountCacheProperties {
+
+    private boolean enabled = true;
+    private long maxSize = 10_000;
+    private Duration ttl = Duration.ofHours(6);
+    private CountMode mode = CountMode.EXACT;
+}
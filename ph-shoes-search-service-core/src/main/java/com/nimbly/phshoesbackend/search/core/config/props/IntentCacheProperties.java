@@ -0,0 +1,23 @@
+package com.nimbly.phshoesbackend.search.core.config.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "phshoes.search.intent-cache")
+public class IntentCacheProperties {
+
+    private boolean enabled = true;
+    private long maxSize = 10_000;
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Local JSON file the cache is written to on shutdown. Blank disables snapshots.
+     */
+    private String snapshotPath;
+    private boolean loadSnapshotOnStartup = false;
+}
@@ -0,0 +1,29 @@
+package com.nimbly.phshoesbackend.search.core.config.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "phshoes.search.intent")
+public class IntentParsingProperties {
+
+    /**
+     * Budget for the AI intent parse. Past it the search answers with the rule-based filters only.
+     */
+    private Duration timeout = Duration.ofMillis(2500);
+
+    /**
+     * Route leftovers the rules fully understand away from the LLM. When off, every leftover is parsed remotely.
+     */
+    private boolean rulesFirst = true;
+
+    /**
+     * Share of leftover words the rules must understand before the local parser is trusted with it;
+     * words it does not know are then ignored. The default only routes fully understood leftovers.
+     */
+    private double localMinConfidence = 1.0;
+}
@@ -0,0 +1,20 @@
+package com.nimbly.phshoesbackend.search.core.config.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "phshoes.search.latest-snapshot")
+public class LatestSnapshotProperties {
+
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Upper bound on the filter shapes whose latest date key is cached at once.
+     */
+    private long maxSize = 10_000;
+}
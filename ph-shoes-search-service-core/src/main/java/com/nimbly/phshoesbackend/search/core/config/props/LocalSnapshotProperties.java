@@ -0,0 +1,16 @@
+package com.nimbly.phshoesbackend.search.core.config.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "phshoes.search.local-snapshot")
+public class LocalSnapshotProperties {
+
+    /**
+     * Serve searches from an in-memory copy of the latest collected day instead of querying the warehouse.
+     */
+    private boolean enabled = false;
+}
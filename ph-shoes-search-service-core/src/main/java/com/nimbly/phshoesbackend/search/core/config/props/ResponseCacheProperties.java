@@ -0,0 +1,17 @@
+package com.nimbly.phshoesbackend.search.core.config.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "phshoes.search.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+    private long maxSize = 2_000;
+    private Duration ttl = Duration.ofHours(6);
+}
@@ -0,0 +1,25 @@
+package com.nimbly.phshoesbackend.search.core.config.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "phshoes.search.executor")
+public class SearchExecutorProperties {
+
+    private int corePoolSize = 16;
+    private int maxPoolSize = 64;
+    private int queueCapacity = 256;
+
+    /**
+     * Threads for remote AI intent parses; parses beyond this many in flight fall back to the pre-filters.
+     */
+    private int intentPoolSize = 64;
+
+    /**
+     * Cap on in-flight tasks when {@code spring.threads.virtual.enabled=true}; -1 means unbounded.
+     */
+    private int virtualConcurrencyLimit = -1;
+}
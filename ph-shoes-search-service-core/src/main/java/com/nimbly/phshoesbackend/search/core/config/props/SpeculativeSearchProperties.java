@@ -0,0 +1,16 @@
+package com.nimbly.phshoesbackend.search.core.config.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "phshoes.search.speculative")
+public class SpeculativeSearchProperties {
+
+    /**
+     * Start the catalog query on the rule-based pre-filters while the AI intent parse is in flight.
+     */
+    private boolean enabled = true;
+}
@@ -0,0 +1,8 @@
+package com.nimbly.phshoesbackend.search.core.event;
+
+/**
+ * Published when the newest collected date key of the catalog changes, i.e. a new scrape day
+ * has been ingested or an operator forced a refresh.
+ */
+public record CatalogSnapshotChangedEvent(Integer previousDateKey, Integer latestDateKey) {
+}
@@ -0,0 +1,82 @@
+package com.nimbly.phshoesbackend.search.core.jfr;
+
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.util.CriteriaFingerprint;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Criteria run against the catalog: which source answered, the day it read, rows and the latest-day and page
+ * query times.
+ */
+@Name(CatalogSearchEvent.NAME)
+@Label("Catalog Search")
+@Category({"PH Shoes", "Search"})
+@Description("Search criteria run against the in-memory snapshot or the warehouse")
+@StackTrace(false)
+public class CatalogSearchEvent extends Event {
+
+    public static final String NAME = "phshoes.search.CatalogSearch";
+
+    public static final String SNAPSHOT = "snapshot";
+    public static final String WAREHOUSE = "warehouse";
+
+    @Label("Criteria Shape")
+    String criteriaShape;
+
+    @Label("Source")
+    String source;
+
+    @Label("Slice")
+    boolean slice;
+
+    @Label("Date Key")
+    @Description("0 when not known")
+    int dateKey;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Total Elements")
+    @Description("-1 when the total is not known")
+    long totalElements;
+
+    @Label("Count Query")
+    @Description("The total needed a separate count query rather than a cache, the snapshot, the window count or the page's own rows")
+    boolean countQuery;
+
+    @Label("Latest Date")
+    @Timespan
+    long latestDate;
+
+    @Label("Page Query")
+    @Description("Content query, and the count query when one ran")
+    @Timespan
+    long pageQuery;
+
+    public void timings(long latestDateNanos, long pageQueryNanos) {
+        this.latestDate = latestDateNanos;
+        this.pageQuery = pageQueryNanos;
+    }
+
+    public void complete(AISearchFilterCriteria criteria, String source, boolean slice, Integer dateKey,
+                         int rows, Long totalElements, boolean countQuery) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.criteriaShape = CriteriaFingerprint.shape(criteria);
+        this.source = source;
+        this.slice = slice;
+        this.dateKey = dateKey == null ? 0 : dateKey;
+        this.rows = rows;
+        this.totalElements = totalElements == null ? -1 : totalElements;
+        this.countQuery = countQuery;
+        commit();
+    }
+}
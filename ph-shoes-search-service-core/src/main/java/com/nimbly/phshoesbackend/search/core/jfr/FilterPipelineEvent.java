@@ -0,0 +1,72 @@
+package com.nimbly.phshoesbackend.search.core.jfr;
+
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.util.CriteriaFingerprint;
+import com.nimbly.phshoesbackend.search.core.util.IntentRoute;
+import com.nimbly.phshoesbackend.search.core.util.QueryCanonicalizer;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Turning a query into criteria: pre-filter, intent and normalization/validation times plus the route taken.
+ */
+@Name(FilterPipelineEvent.NAME)
+@Label("Filter Pipeline")
+@Category({"PH Shoes", "Search"})
+@Description("Natural-language query turned into search criteria")
+@StackTrace(false)
+public class FilterPipelineEvent extends Event {
+
+    public static final String NAME = "phshoes.search.FilterPipeline";
+
+    @Label("Query Fingerprint")
+    String queryFingerprint;
+
+    @Label("Intent Route")
+    String route;
+
+    @Label("Criteria Shape")
+    String criteriaShape;
+
+    @Label("Degraded")
+    @Description("The model was asked but did not answer in time")
+    boolean degraded;
+
+    @Label("Rejected")
+    @Description("Validation rejected the criteria")
+    boolean rejected;
+
+    @Label("Pre-filter")
+    @Timespan
+    long preFilter;
+
+    @Label("Intent")
+    @Timespan
+    long intent;
+
+    @Label("Normalize and Validate")
+    @Timespan
+    long normalizeValidate;
+
+    public void complete(String query, IntentRoute route, AISearchFilterCriteria criteria, boolean degraded,
+                         boolean rejected, long preFilterNanos, long intentNanos, long normalizeValidateNanos) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.queryFingerprint = QueryCanonicalizer.fingerprint(query);
+        this.route = route == null ? null : route.name();
+        this.criteriaShape = CriteriaFingerprint.shape(criteria);
+        this.degraded = degraded;
+        this.rejected = rejected;
+        this.preFilter = preFilterNanos;
+        this.intent = intentNanos;
+        this.normalizeValidate = normalizeValidateNanos;
+        commit();
+    }
+}
@@ -0,0 +1,52 @@
+package com.nimbly.phshoesbackend.search.core.jfr;
+
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.util.CriteriaFingerprint;
+import com.nimbly.phshoesbackend.search.core.util.QueryCanonicalizer;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to the model, on the search executor thread that made it.
+ */
+@Name(IntentParseEvent.NAME)
+@Label("Intent Parse")
+@Category({"PH Shoes", "Search"})
+@Description("Structured intent parse by the language model")
+@StackTrace(false)
+public class IntentParseEvent extends Event {
+
+    public static final String NAME = "phshoes.search.IntentParse";
+
+    @Label("Query Fingerprint")
+    @Description("Fingerprint of the text sent to the model, the query without what the pre-filter consumed")
+    String queryFingerprint;
+
+    @Label("Model")
+    String model;
+
+    @Label("Criteria Shape")
+    String criteriaShape;
+
+    @Label("Failed")
+    boolean failed;
+
+    /**
+     * {@code parsed} is {@code null} when the call failed.
+     */
+    public void complete(String query, String model, AISearchFilterCriteria parsed) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.queryFingerprint = QueryCanonicalizer.fingerprint(query);
+        this.model = model;
+        this.failed = parsed == null;
+        this.criteriaShape = CriteriaFingerprint.shape(parsed);
+        commit();
+    }
+}
@@ -0,0 +1,98 @@
+package com.nimbly.phshoesbackend.search.core.jfr;
+
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.util.CriteriaFingerprint;
+import com.nimbly.phshoesbackend.search.core.util.QueryCanonicalizer;
+import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponse;
+import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponseResults;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One text search as the API serves it, from the coalescing and response cache checks to the mapped response.
+ * The pipeline and catalog events of an executed search are nested in it on the same thread.
+ */
+@Name(SearchRequestEvent.NAME)
+@Label("Search Request")
+@Category({"PH Shoes", "Search"})
+@Description("A text search served by the API")
+@StackTrace(false)
+public class SearchRequestEvent extends Event {
+
+    public static final String NAME = "phshoes.search.Request";
+
+    @Label("Query Fingerprint")
+    String queryFingerprint;
+
+    @Label("Criteria Shape")
+    @Description("Filters the criteria use, without values; empty when the search was not executed, including when "
+            + "it shared an identical in-flight search, whose own event carries the shape")
+    String criteriaShape;
+
+    @Label("Slice")
+    boolean slice;
+
+    @Label("Page")
+    int page;
+
+    @Label("Page Size")
+    int pageSize;
+
+    @Label("Executed")
+    @Description("False when the response cache or an identical in-flight search answered")
+    boolean executed;
+
+    @Label("Degraded")
+    boolean degraded;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Total Elements")
+    @Description("-1 when the total is not known")
+    long totalElements;
+
+    @Label("DTO Mapping")
+    @Timespan
+    long dtoMapping;
+
+    private transient AISearchFilterCriteria criteria;
+
+    /**
+     * Notes that this thread executed the search rather than reusing a response.
+     */
+    public void executed(AISearchFilterCriteria criteria, long dtoMappingNanos) {
+        this.executed = true;
+        this.criteria = criteria;
+        this.dtoMapping = dtoMappingNanos;
+    }
+
+    public void complete(String query, int page, int pageSize, boolean slice, TextSearchResponse response) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.queryFingerprint = QueryCanonicalizer.fingerprint(query);
+        this.page = page;
+        this.pageSize = pageSize;
+        this.slice = slice;
+        this.criteriaShape = executed ? CriteriaFingerprint.shape(criteria) : null;
+        this.totalElements = -1;
+        if (response != null) {
+            this.degraded = Boolean.TRUE.equals(response.getDegraded());
+            TextSearchResponseResults results = response.getResults();
+            if (results != null) {
+                this.rows = results.getContent() == null ? 0 : results.getContent().size();
+                if (results.getTotalElements() != null) {
+                    this.totalElements = results.getTotalElements();
+                }
+            }
+        }
+        commit();
+    }
+}
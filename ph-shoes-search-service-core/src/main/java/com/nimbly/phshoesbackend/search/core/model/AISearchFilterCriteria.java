@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -22,5 +23,29 @@ public class AISearchFilterCriteria {
     private List<String> subtitleKeywords;
     private String sortBy;
     private List<String> sizes;
+
+    /**
+     * Copy with its own (mutable) lists, so the pipeline can normalize it without touching the source.
+     */
+    public AISearchFilterCriteria copy() {
+        return new AISearchFilterCriteria(
+                copyOf(brands),
+                model,
+                priceSaleMin,
+                priceSaleMax,
+                priceOriginalMin,
+                priceOriginalMax,
+                gender,
+                onSale,
+                copyOf(titleKeywords),
+                copyOf(subtitleKeywords),
+                sortBy,
+                copyOf(sizes)
+        );
+    }
+
+    private static List<String> copyOf(List<String> values) {
+        return values == null ? null : new ArrayList<>(values);
+    }
 }
 
@@ -0,0 +1,11 @@
+package com.nimbly.phshoesbackend.search.core.model;
+
+import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import org.springframework.data.domain.Page;
+
+/**
+ * One page of search results plus whether its total had to be read with a separate count query, as opposed to the
+ * content query's {@code COUNT(*) OVER ()} or the page's own rows.
+ */
+public record CatalogPage(Page<CatalogShoe> page, boolean counted) {
+}
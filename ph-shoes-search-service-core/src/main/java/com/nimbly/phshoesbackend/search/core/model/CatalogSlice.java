@@ -0,0 +1,11 @@
+package com.nimbly.phshoesbackend.search.core.model;
+
+import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import org.springframework.data.domain.Slice;
+
+/**
+ * One slice of search results plus the catalog day it was read from ({@code null} when the table is empty),
+ * which the next {@link SearchCursor} pins. {@code totalElements} is set only when it was known without a count query.
+ */
+public record CatalogSlice(Slice<CatalogShoe> slice, Integer dateKey, Long totalElements) {
+}
@@ -0,0 +1,8 @@
+package com.nimbly.phshoesbackend.search.core.model;
+
+/**
+ * Criteria produced by {@code FilterPipeline}. {@code degraded} is set when the AI intent parse
+ * was skipped (deadline or failure) and only the rule-based pre-filters were applied.
+ */
+public record FilterPipelineResult(AISearchFilterCriteria criteria, boolean degraded) {
+}
@@ -0,0 +1,10 @@
+package com.nimbly.phshoesbackend.search.core.model;
+
+import com.nimbly.phshoesbackend.search.core.util.IntentRoute;
+
+/**
+ * Routing decision for a pre-filter leftover. {@code confidence} is the share of its words the rules
+ * understood (1 for an empty leftover); {@code residual} holds the words the local parser should read.
+ */
+public record IntentRouting(IntentRoute route, double confidence, String residual) {
+}
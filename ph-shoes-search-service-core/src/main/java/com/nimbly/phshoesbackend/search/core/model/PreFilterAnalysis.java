@@ -0,0 +1,8 @@
+package com.nimbly.phshoesbackend.search.core.model;
+
+/**
+ * Result of one pass of the rule-based pre-filter over a query: the criteria it recognised and the
+ * {@code leftover} text with brands and cue words removed, which is what the AI intent parse sees.
+ */
+public record PreFilterAnalysis(AISearchFilterCriteria criteria, String leftover) {
+}
@@ -0,0 +1,57 @@
+package com.nimbly.phshoesbackend.search.core.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for slice pagination. It carries the next page position and pins the
+ * catalog day the first page was served from, so a scroll session neither re-resolves the latest
+ * day on every page nor jumps days mid-scroll when a new scrape lands.
+ */
+public record SearchCursor(int page, int size, Integer dateKey) {
+
+    /**
+     * Largest page size a cursor may carry; the same bound the API puts on {@code size}.
+     */
+    public static final int MAX_SIZE = 100;
+
+    private static final String VERSION = "1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        String raw = VERSION + ':' + page + ':' + size + ':' + (dateKey == null ? "" : dateKey);
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the token was not produced by {@link #encode()}
+     */
+    public static SearchCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(DECODER.decode(token), StandardCharsets.US_ASCII);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        String[] parts = raw.split(":", -1);
+        if (parts.length != 4 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            int page = Integer.parseInt(parts[1]);
+            int size = Integer.parseInt(parts[2]);
+            Integer dateKey = parts[3].isEmpty() ? null : Integer.valueOf(parts[3]);
+            if (page < 0 || size < 1 || size > MAX_SIZE) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new SearchCursor(page, size, dateKey);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    public SearchCursor next() {
+        return new SearchCursor(page + 1, size, dateKey);
+    }
+}
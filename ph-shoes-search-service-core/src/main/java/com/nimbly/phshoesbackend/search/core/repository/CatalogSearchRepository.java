@@ -0,0 +1,333 @@
+package com.nimbly.phshoesbackend.search.core.repository;
+
+import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.config.SearchExecutorConfig;
+import com.nimbly.phshoesbackend.search.core.config.props.CatalogQueryProperties;
+import com.nimbly.phshoesbackend.search.core.model.CatalogPage;
+import com.nimbly.phshoesbackend.search.core.util.SearchMetrics;
+import com.nimbly.phshoesbackend.search.core.util.SearchMetrics.Stage;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Paged catalog reads for the search path. Unlike {@code JpaSpecificationExecutor.findAll(spec, pageable)},
+ * which runs the content and count queries back to back, the total is read with {@code COUNT(*) OVER ()} in the
+ * content query itself, or the count is issued concurrently on the search executor, so a page costs one
+ * warehouse round trip instead of two.
+ * <p>
+ * Content queries of pages and slices are recorded as the {@code page_query} search stage and counts as
+ * {@code count_query}.
+ */
+@Repository
+public class CatalogSearchRepository {
+
+    private static final List<String> PROJECTED_ATTRIBUTES = List.of(
+            "id", "dwid", "brand", "title", "subtitle", "url", "image", "priceSale", "priceOriginal",
+            "gender", "ageGroup", "year", "month", "day"
+    );
+    private static final String SIZES_ALIAS = "sizes";
+    private static final String SHOE_ALIAS = "shoe";
+    private static final String TOTAL_ALIAS = "total";
+
+    private final EntityManager entityManager;
+    private final Executor searchTaskExecutor;
+    private final CatalogQueryProperties queryProperties;
+    private final SearchMetrics metrics;
+
+    public CatalogSearchRepository(
+            EntityManager entityManager,
+            @Qualifier(SearchExecutorConfig.SEARCH_TASK_EXECUTOR) Executor searchTaskExecutor,
+            CatalogQueryProperties queryProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.entityManager = entityManager;
+        this.searchTaskExecutor = searchTaskExecutor;
+        this.queryProperties = queryProperties;
+        this.metrics = new SearchMetrics(meterRegistry);
+    }
+
+    /**
+     * The page and whether its total needed {@link #count}.
+     */
+    public CatalogPage findPage(Specification<CatalogShoe> spec, Pageable pageable) {
+        if (queryProperties.isWindowCount() && pageable.isPaged()) {
+            List<Tuple> rows = metrics.time(Stage.PAGE_QUERY, () -> findWindowed(spec, pageable),
+                    found -> found.isEmpty() ? SearchMetrics.ZERO_RESULTS : SearchMetrics.RESULTS);
+            return windowedPage(rows, pageable, queryProperties.isProjection(), () -> count(spec));
+        }
+        if (!queryProperties.isParallelCount()) {
+            List<CatalogShoe> content = pageContent(spec, pageable);
+            return page(content, pageable, () -> count(spec));
+        }
+        return concurrentPage(() -> pageContent(spec, pageable), pageable, searchTaskExecutor, () -> count(spec));
+    }
+
+    /**
+     * Page with a total that is already known (cached or counted elsewhere): only the content query runs.
+     */
+    public Page<CatalogShoe> findPage(Specification<CatalogShoe> spec, Pageable pageable, long knownTotal) {
+        return new PageImpl<>(pageContent(spec, pageable), pageable, knownTotal);
+    }
+
+    /**
+     * Fetches {@code pageSize + 1} rows and no count: the extra row only tells whether another slice exists.
+     */
+    public Slice<CatalogShoe> findSlice(Specification<CatalogShoe> spec, Pageable pageable) {
+        int lookahead = pageable.getPageSize() == Integer.MAX_VALUE ? Integer.MAX_VALUE : pageable.getPageSize() + 1;
+        List<CatalogShoe> rows = pageContent(spec, pageable, lookahead);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<CatalogShoe> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    public List<CatalogShoe> findContent(Specification<CatalogShoe> spec, Pageable pageable) {
+        return findContent(spec, pageable, pageable.isPaged() ? pageable.getPageSize() : -1);
+    }
+
+    /**
+     * Every matching row, unsorted and unpaged.
+     */
+    public List<CatalogShoe> findAll(Specification<CatalogShoe> spec) {
+        return findContent(spec, Pageable.unpaged());
+    }
+
+    /**
+     * Distinct non-null {@code brand} values of the matching rows.
+     */
+    public List<String> findDistinctBrands(Specification<CatalogShoe> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<CatalogShoe> root = query.from(CatalogShoe.class);
+        Path<String> brand = root.get("brand");
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        query.where(predicate == null ? cb.isNotNull(brand) : cb.and(predicate, cb.isNotNull(brand)));
+        query.select(brand).distinct(true);
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private List<CatalogShoe> pageContent(Specification<CatalogShoe> spec, Pageable pageable) {
+        return pageContent(spec, pageable, pageable.isPaged() ? pageable.getPageSize() : -1);
+    }
+
+    private List<CatalogShoe> pageContent(Specification<CatalogShoe> spec, Pageable pageable, int maxResults) {
+        return metrics.time(Stage.PAGE_QUERY, () -> findContent(spec, pageable, maxResults),
+                rows -> rows.isEmpty() ? SearchMetrics.ZERO_RESULTS : SearchMetrics.RESULTS);
+    }
+
+    private List<CatalogShoe> findContent(Specification<CatalogShoe> spec, Pageable pageable, int maxResults) {
+        return queryProperties.isProjection()
+                ? findProjected(spec, pageable, maxResults)
+                : findEntities(spec, pageable, maxResults);
+    }
+
+    private List<CatalogShoe> findEntities(Specification<CatalogShoe> spec, Pageable pageable, int maxResults) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CatalogShoe> query = cb.createQuery(CatalogShoe.class);
+        Root<CatalogShoe> root = query.from(CatalogShoe.class);
+        applyWhere(spec, root, query, cb);
+        applyOrder(pageable, root, query, cb);
+        TypedQuery<CatalogShoe> typedQuery = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        return limit(typedQuery, pageable, maxResults).getResultList();
+    }
+
+    /**
+     * Selects only the columns a search result shows, plus {@code GET(extra, 'sizes')} evaluated in the warehouse
+     * instead of the whole {@code extra} VARIANT. Rows come back as scalars, so nothing enters the persistence context.
+     */
+    private List<CatalogShoe> findProjected(Specification<CatalogShoe> spec, Pageable pageable, int maxResults) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<CatalogShoe> root = query.from(CatalogShoe.class);
+        query.multiselect(projectedSelections(root, cb));
+        applyWhere(spec, root, query, cb);
+        applyOrder(pageable, root, query, cb);
+        return limit(entityManager.createQuery(query), pageable, maxResults)
+                .getResultList()
+                .stream()
+                .map(CatalogSearchRepository::toShoe)
+                .toList();
+    }
+
+    /**
+     * The page's rows, projected or as read-only entities, each carrying the total match count as
+     * {@code COUNT(*) OVER ()}. The window is evaluated before {@code LIMIT}/{@code OFFSET}, so every row holds the
+     * count of the whole result.
+     */
+    private List<Tuple> findWindowed(Specification<CatalogShoe> spec, Pageable pageable) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<CatalogShoe> root = query.from(CatalogShoe.class);
+        List<Selection<?>> selections = queryProperties.isProjection()
+                ? projectedSelections(root, cb)
+                : new ArrayList<>(List.of(root.alias(SHOE_ALIAS)));
+        selections.add(cb.count(root, cb.createWindow()).alias(TOTAL_ALIAS));
+        query.multiselect(selections);
+        applyWhere(spec, root, query, cb);
+        applyOrder(pageable, root, query, cb);
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        return limit(typedQuery, pageable, pageable.getPageSize()).getResultList();
+    }
+
+    /**
+     * Builds the page from {@link #findWindowed} rows. Without rows there is no total to read: the first page is
+     * empty, and a page past the end falls back to {@code count}.
+     */
+    static CatalogPage windowedPage(List<Tuple> rows, Pageable pageable, boolean projected, LongSupplier count) {
+        List<CatalogShoe> content = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            content.add(projected ? toShoe(row) : row.get(SHOE_ALIAS, CatalogShoe.class));
+        }
+        if (rows.isEmpty()) {
+            return page(content, pageable, count);
+        }
+        Long total = rows.get(0).get(TOTAL_ALIAS, Long.class);
+        return total == null
+                ? new CatalogPage(new PageImpl<>(content, pageable, count.getAsLong()), true)
+                : new CatalogPage(new PageImpl<>(content, pageable, total), false);
+    }
+
+    /**
+     * Starts {@code count} on {@code executor} and reads {@code content} meanwhile. The count runs inline when the
+     * caller is already on the search executor or the executor rejects it, and is cancelled when the content alone
+     * determines the total (a short page), so a count still queued never reaches the warehouse. A count still queued
+     * when the content needs it is claimed and run inline rather than waited for, so a saturated executor cannot
+     * starve the caller.
+     */
+    static CatalogPage concurrentPage(Supplier<List<CatalogShoe>> content, Pageable pageable, Executor executor,
+                                      LongSupplier count) {
+        if (SearchExecutorConfig.onSearchThread()) {
+            return page(content.get(), pageable, count);
+        }
+        AtomicBoolean claimed = new AtomicBoolean();
+        CompletableFuture<Long> total;
+        try {
+            total = CompletableFuture.supplyAsync(
+                    () -> claimed.compareAndSet(false, true) ? count.getAsLong() : null, executor);
+        } catch (RejectedExecutionException e) {
+            return page(content.get(), pageable, count);
+        }
+        try {
+            return page(content.get(), pageable,
+                    () -> claimed.compareAndSet(false, true) ? count.getAsLong() : total.join());
+        } finally {
+            claimed.set(true);
+            total.cancel(false);
+        }
+    }
+
+    /**
+     * {@link PageableExecutionUtils#getPage}, noting whether it needed {@code total} or could tell it from the content.
+     */
+    private static CatalogPage page(List<CatalogShoe> content, Pageable pageable, LongSupplier total) {
+        boolean[] counted = {false};
+        Page<CatalogShoe> page = PageableExecutionUtils.getPage(content, pageable, () -> {
+            counted[0] = true;
+            return total.getAsLong();
+        });
+        return new CatalogPage(page, counted[0]);
+    }
+
+    private static List<Selection<?>> projectedSelections(Root<CatalogShoe> root, CriteriaBuilder cb) {
+        List<Selection<?>> selections = new ArrayList<>(PROJECTED_ATTRIBUTES.size() + 2);
+        for (String attribute : PROJECTED_ATTRIBUTES) {
+            selections.add(root.get(attribute).alias(attribute));
+        }
+        selections.add(cb.function("GET", String.class, root.get("extra"), cb.literal("sizes")).alias(SIZES_ALIAS));
+        return selections;
+    }
+
+    /**
+     * Builds a detached {@link CatalogShoe} from a projected row. {@code extra} carries only the sizes array,
+     * in the {@code {"sizes": [...]}} shape {@code ShoeSizeExtractor} reads.
+     */
+    static CatalogShoe toShoe(Tuple row) {
+        CatalogShoe shoe = new CatalogShoe();
+        shoe.setId(row.get("id", String.class));
+        shoe.setDwid(row.get("dwid", String.class));
+        shoe.setBrand(row.get("brand", String.class));
+        shoe.setTitle(row.get("title", String.class));
+        shoe.setSubtitle(row.get("subtitle", String.class));
+        shoe.setUrl(row.get("url", String.class));
+        shoe.setImage(row.get("image", String.class));
+        shoe.setPriceSale(row.get("priceSale", Double.class));
+        shoe.setPriceOriginal(row.get("priceOriginal", Double.class));
+        shoe.setGender(row.get("gender", String.class));
+        shoe.setAgeGroup(row.get("ageGroup", String.class));
+        shoe.setYear(row.get("year", Integer.class));
+        shoe.setMonth(row.get("month", Integer.class));
+        shoe.setDay(row.get("day", Integer.class));
+        String sizes = row.get(SIZES_ALIAS, String.class);
+        shoe.setExtra(sizes == null || sizes.isBlank() ? null : "{\"sizes\":" + sizes + "}");
+        return shoe;
+    }
+
+    private static void applyOrder(Pageable pageable, Root<CatalogShoe> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+    }
+
+    private static <T> TypedQuery<T> limit(TypedQuery<T> query, Pageable pageable, int maxResults) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(maxResults);
+        }
+        return query;
+    }
+
+    public long count(Specification<CatalogShoe> spec) {
+        return metrics.time(Stage.COUNT_QUERY, () -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Long> query = cb.createQuery(Long.class);
+            Root<CatalogShoe> root = query.from(CatalogShoe.class);
+            applyWhere(spec, root, query, cb);
+            query.select(cb.count(root));
+            Long total = entityManager.createQuery(query).getSingleResult();
+            return total == null ? 0L : total;
+        }, total -> total == 0 ? SearchMetrics.ZERO_RESULTS : SearchMetrics.RESULTS);
+    }
+
+    private static void applyWhere(
+            Specification<CatalogShoe> spec,
+            Root<CatalogShoe> root,
+            CriteriaQuery<?> query,
+            CriteriaBuilder cb
+    ) {
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.nimbly.phshoesbackend.search.core.service;
+
+import com.nimbly.phshoesbackend.search.core.util.BrandDictionary;
+
+public interface BrandVocabulary {
+    BrandDictionary current();
+}
@@ -1,45 +1,133 @@
 package com.nimbly.phshoesbackend.search.core.service;
 
+import com.nimbly.phshoesbackend.search.core.cache.IntentCache;
+import com.nimbly.phshoesbackend.search.core.config.SearchExecutorConfig;
+import com.nimbly.phshoesbackend.search.core.config.props.IntentParsingProperties;
+import com.nimbly.phshoesbackend.search.core.exception.AiSearchException;
+import com.nimbly.phshoesbackend.search.core.jfr.FilterPipelineEvent;
 import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.model.FilterPipelineResult;
+import com.nimbly.phshoesbackend.search.core.model.IntentRouting;
+import com.nimbly.phshoesbackend.search.core.model.PreFilterAnalysis;
 import com.nimbly.phshoesbackend.search.core.util.FilterNormalizer;
+import com.nimbly.phshoesbackend.search.core.util.IntentRoute;
+import com.nimbly.phshoesbackend.search.core.util.SearchMetrics;
+import com.nimbly.phshoesbackend.search.core.util.SearchMetrics.Stage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 @Slf4j
 @Component
 public class FilterPipeline {
     private final PreFilterExtractor pre;
+    private final IntentRouter router;
     private final OpenAiIntentParserService intent;
+    private final OpenAiIntentParserService localIntent;
     private final FilterValidator validator;
+    private final IntentCache intentCache;
+    private final Executor intentTaskExecutor;
+    private final IntentParsingProperties intentProperties;
+    private final Counter intentTimeouts;
+    private final MeterRegistry meterRegistry;
+    private final SearchMetrics metrics;
 
     public FilterPipeline(
             PreFilterExtractor pre,
+            IntentRouter router,
             OpenAiIntentParserService intent,
-            FilterValidator validator
+            @Qualifier(IntentRouter.LOCAL_INTENT_PARSER) OpenAiIntentParserService localIntent,
+            FilterValidator validator,
+            IntentCache intentCache,
+            @Qualifier(SearchExecutorConfig.INTENT_TASK_EXECUTOR) Executor intentTaskExecutor,
+            IntentParsingProperties intentProperties,
+            MeterRegistry meterRegistry
     ) {
         this.pre = pre;
+        this.router = router;
         this.intent = intent;
+        this.localIntent = localIntent;
         this.validator = validator;
+        this.intentCache = intentCache;
+        this.intentTaskExecutor = intentTaskExecutor;
+        this.intentProperties = intentProperties;
+        this.meterRegistry = meterRegistry;
+        this.metrics = new SearchMetrics(meterRegistry);
+        this.intentTimeouts = Counter.builder("search.intent.timeouts")
+                .description("AI intent parses that missed the configured deadline")
+                .register(meterRegistry);
     }
 
-    public AISearchFilterCriteria process(String nlQuery) {
-        AISearchFilterCriteria baseCriteria = pre.extract(nlQuery);
+    public FilterPipelineResult process(String nlQuery) {
+        return process(nlQuery, null);
+    }
 
-        String leftover = pre.strip(nlQuery);
-        AISearchFilterCriteria aiCriteria = intent.parseIntent(leftover);
+    /**
+     * Same as {@link #process(String)}; when the {@link IntentRouter} sends the leftover to the model and the
+     * parse is not cached, {@code preFilterListener} first receives the criteria the pipeline would return if
+     * that parse were skipped, so callers can start work on them while the model answers.
+     * <p>
+     * Pre-filter analysis, intent resolution (tagged with its route or cache/fallback outcome), the LLM call
+     * and normalization/validation are each recorded as a {@link SearchMetrics} stage, and together as a
+     * {@link FilterPipelineEvent} for flight recordings.
+     */
+    public FilterPipelineResult process(String nlQuery, Consumer<AISearchFilterCriteria> preFilterListener) {
+        FilterPipelineEvent event = new FilterPipelineEvent();
+        event.begin();
+        long analyzing = System.nanoTime();
+        PreFilterAnalysis preFilters = metrics.time(Stage.PRE_FILTER, () -> pre.analyze(nlQuery));
+        AISearchFilterCriteria baseCriteria = preFilters.criteria();
+        long started = System.nanoTime();
+        IntentRouting routing = router.route(preFilters);
+        AISearchFilterCriteria aiCriteria = switch (routing.route()) {
+            case RULES -> {
+                metrics.record(Stage.INTENT, "rules", started);
+                yield null;
+            }
+            case LOCAL -> {
+                AISearchFilterCriteria parsed = localIntent.parseIntent(routing.residual());
+                metrics.record(Stage.INTENT, "local", started);
+                yield parsed;
+            }
+            case REMOTE -> remoteIntent(nlQuery, preFilters, preFilterListener, started);
+        };
+        boolean degraded = routing.route() == IntentRoute.REMOTE && aiCriteria == null;
 
-        merge(baseCriteria, aiCriteria);
+        if (aiCriteria != null) {
+            merge(baseCriteria, aiCriteria);
+        }
 
-        FilterNormalizer.normalize(baseCriteria);
-        validator.validate(baseCriteria);
-        FilterNormalizer.normalize(baseCriteria);
+        long normalizing = System.nanoTime();
+        try {
+            FilterNormalizer.normalize(baseCriteria);
+            validator.validate(baseCriteria);
+            // only re-canonicalizes what validate appended; everything else is already canonical and read-only
+            FilterNormalizer.normalize(baseCriteria);
+        } catch (AiSearchException e) {
+            metrics.record(Stage.NORMALIZE_VALIDATE, "rejected", normalizing);
+            event.complete(nlQuery, routing.route(), baseCriteria, degraded, true,
+                    started - analyzing, normalizing - started, System.nanoTime() - normalizing);
+            throw e;
+        }
+        metrics.record(Stage.NORMALIZE_VALIDATE, SearchMetrics.OK, normalizing);
+        event.complete(nlQuery, routing.route(), baseCriteria, degraded, false,
+                started - analyzing, normalizing - started, System.nanoTime() - normalizing);
 
-        log.info("AI filter pipeline for query='{}' → brands={}, model={}, titleKeywords={}, sizes={}, priceSaleMin={}, priceSaleMax={}, sortBy={}",
+        log.info("AI filter pipeline for query='{}' → brands={}, model={}, titleKeywords={}, sizes={}, priceSaleMin={}, priceSaleMax={}, sortBy={}, degraded={}",
                 nlQuery,
                 baseCriteria.getBrands(),
                 baseCriteria.getModel(),
@@ -47,9 +135,82 @@ public class FilterPipeline {
                 baseCriteria.getSizes(),
                 baseCriteria.getPriceSaleMin(),
                 baseCriteria.getPriceSaleMax(),
-                baseCriteria.getSortBy());
+                baseCriteria.getSortBy(),
+                degraded);
+
+        return new FilterPipelineResult(baseCriteria, degraded);
+    }
+
+    /**
+     * The LLM parse of the leftover: from the intent cache, or scheduled and awaited under the deadline.
+     * Returns {@code null} when it could not be had in time.
+     */
+    private AISearchFilterCriteria remoteIntent(String nlQuery, PreFilterAnalysis preFilters,
+                                                Consumer<AISearchFilterCriteria> preFilterListener, long started) {
+        String leftover = preFilters.leftover();
+        AISearchFilterCriteria cachedIntent = intentCache.getIfPresent(leftover);
+        if (cachedIntent != null) {
+            metrics.record(Stage.INTENT, SearchMetrics.CACHE_HIT, started);
+            return cachedIntent;
+        }
+        CompletableFuture<AISearchFilterCriteria> pendingIntent = startIntentParse(nlQuery, leftover);
+        if (pendingIntent != null && preFilterListener != null) {
+            publishPreFilters(preFilters.criteria(), preFilterListener);
+        }
+        AISearchFilterCriteria parsed = pendingIntent == null ? null : awaitIntent(nlQuery, pendingIntent);
+        metrics.record(Stage.INTENT, parsed == null ? SearchMetrics.FALLBACK : "parsed", started);
+        return parsed;
+    }
+
+    private void publishPreFilters(AISearchFilterCriteria baseCriteria, Consumer<AISearchFilterCriteria> listener) {
+        AISearchFilterCriteria preFilters = baseCriteria.copy();
+        try {
+            FilterNormalizer.normalize(preFilters);
+            validator.validate(preFilters);
+            FilterNormalizer.normalize(preFilters);
+        } catch (AiSearchException e) {
+            return;
+        }
+        listener.accept(preFilters);
+    }
+
+    /**
+     * Schedules the AI parse, or returns {@code null} (counted as a fallback) when the pool rejects it.
+     */
+    private CompletableFuture<AISearchFilterCriteria> startIntentParse(String nlQuery, String leftover) {
+        try {
+            return CompletableFuture.supplyAsync(() -> intentCache.get(leftover,
+                    text -> metrics.time(Stage.LLM_CALL, () -> intent.parseIntent(text))), intentTaskExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("AI intent parse rejected for query='{}'; using pre-filters only", nlQuery);
+            return fallback("rejected");
+        }
+    }
+
+    /**
+     * Returns the AI criteria, or {@code null} when the parse timed out or failed.
+     * A timed-out parse keeps running and still fills the intent cache for the next identical query.
+     */
+    private AISearchFilterCriteria awaitIntent(String nlQuery, CompletableFuture<AISearchFilterCriteria> pendingIntent) {
+        long timeoutMillis = intentProperties.getTimeout().toMillis();
+        try {
+            return pendingIntent.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            intentTimeouts.increment();
+            log.warn("AI intent parse exceeded {} ms for query='{}'; using pre-filters only", timeoutMillis, nlQuery);
+            return fallback("timeout");
+        } catch (ExecutionException e) {
+            log.warn("AI intent parse failed for query='{}'; using pre-filters only", nlQuery, e.getCause());
+            return fallback("error");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback("interrupted");
+        }
+    }
 
-        return baseCriteria;
+    private <T> T fallback(String reason) {
+        meterRegistry.counter("search.intent.fallbacks", "reason", reason).increment();
+        return null;
     }
 
     private void merge(AISearchFilterCriteria baseCriteria, AISearchFilterCriteria aiCriteria) {
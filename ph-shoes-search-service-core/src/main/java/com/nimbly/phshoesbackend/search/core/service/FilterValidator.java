@@ -67,9 +67,9 @@ public class FilterValidator {
             if (!StringUtils.hasText(normalized)) {
                 continue;
             }
-            String compact = normalized.toLowerCase().replaceAll("\\s+", "");
-            if (preExtractor.isKnownBrand(compact)) {
-                valid.add(compact);
+            String canonical = preExtractor.canonicalBrand(normalized);
+            if (canonical != null) {
+                if (!valid.contains(canonical)) valid.add(canonical);
             } else {
                 demoted.add(normalized);
             }
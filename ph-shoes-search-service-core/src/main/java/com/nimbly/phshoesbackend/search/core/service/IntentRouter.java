@@ -0,0 +1,82 @@
+package com.nimbly.phshoesbackend.search.core.service;
+
+import com.nimbly.phshoesbackend.search.core.config.props.IntentParsingProperties;
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.model.IntentRouting;
+import com.nimbly.phshoesbackend.search.core.model.PreFilterAnalysis;
+import com.nimbly.phshoesbackend.search.core.util.IntentRoute;
+import com.nimbly.phshoesbackend.search.core.util.IntentVocabulary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides, from the pre-filter analysis alone, whether the leftover needs the LLM.
+ * <p>
+ * Every leftover word is scored as understood when it is a stop word, a number the pre-filter already
+ * turned into a price or size, or a gender/category word of {@link IntentVocabulary}. A leftover with
+ * nothing but the first two needs no parse at all; one understood well enough
+ * ({@link IntentParsingProperties#getLocalMinConfidence()}) goes to the local parser with its gender and
+ * category words; the rest, including any other number, goes to the LLM.
+ */
+@Component
+public class IntentRouter {
+
+    /**
+     * Bean name of the in-process {@link OpenAiIntentParserService} used for {@link IntentRoute#LOCAL}.
+     */
+    public static final String LOCAL_INTENT_PARSER = "localIntentParser";
+
+    private final IntentParsingProperties properties;
+
+    public IntentRouter(IntentParsingProperties properties) {
+        this.properties = properties;
+    }
+
+    public IntentRouting route(PreFilterAnalysis analysis) {
+        if (!properties.isRulesFirst()) {
+            return new IntentRouting(IntentRoute.REMOTE, 0, analysis.leftover());
+        }
+        List<String> words = IntentVocabulary.words(analysis.leftover());
+        List<String> keywords = new ArrayList<>();
+        int understood = 0;
+        for (String word : words) {
+            if (IntentVocabulary.genderOf(word) != null || IntentVocabulary.isCategory(word)) {
+                keywords.add(word);
+                understood++;
+            } else if (IntentVocabulary.isStopWord(word) || isConsumedNumber(word, analysis.criteria())) {
+                understood++;
+            }
+        }
+        double confidence = words.isEmpty() ? 1 : (double) understood / words.size();
+        if (confidence < properties.getLocalMinConfidence()) {
+            return new IntentRouting(IntentRoute.REMOTE, confidence, analysis.leftover());
+        }
+        IntentRoute route = keywords.isEmpty() ? IntentRoute.RULES : IntentRoute.LOCAL;
+        return new IntentRouting(route, confidence, String.join(" ", keywords));
+    }
+
+    /**
+     * The leftover keeps numbers; one is already interpreted when it equals an extracted price or size.
+     */
+    private static boolean isConsumedNumber(String word, AISearchFilterCriteria criteria) {
+        if (word.isEmpty() || !Character.isDigit(word.charAt(0))) return false;
+        double value;
+        try {
+            value = Double.parseDouble(word);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (equals(criteria.getPriceSaleMax(), value) || equals(criteria.getPriceSaleMin(), value)) return true;
+        if (criteria.getSizes() == null) return false;
+        for (String size : criteria.getSizes()) {
+            if (Double.parseDouble(size) == value) return true;
+        }
+        return false;
+    }
+
+    private static boolean equals(Double price, double value) {
+        return price != null && price == value;
+    }
+}
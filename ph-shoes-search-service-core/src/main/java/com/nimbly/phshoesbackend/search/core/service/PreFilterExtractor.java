@@ -1,10 +1,12 @@
 package com.nimbly.phshoesbackend.search.core.service;
 
 import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.model.PreFilterAnalysis;
 
 public interface PreFilterExtractor {
     AISearchFilterCriteria extract(String nlQuery);
     String strip(String nlQuery);
+    PreFilterAnalysis analyze(String nlQuery);
+    String canonicalBrand(String brand);
     boolean isKnownBrand(String brand);
 }
-
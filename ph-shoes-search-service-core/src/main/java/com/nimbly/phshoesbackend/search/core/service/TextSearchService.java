@@ -1,9 +1,16 @@
 package com.nimbly.phshoesbackend.search.core.service;
 
+import com.nimbly.phshoesbackend.search.core.model.SearchCursor;
 import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponse;
 import org.springframework.data.domain.Pageable;
 
 public interface TextSearchService {
 
     TextSearchResponse search(String nlQuery, Pageable pageable);
+
+    /**
+     * Count-free variant of {@link #search}: totals are left empty and the results carry a cursor for the next slice.
+     * A non-null {@code cursor} overrides the page and size of {@code pageable}.
+     */
+    TextSearchResponse searchSlice(String nlQuery, Pageable pageable, SearchCursor cursor);
 }
@@ -0,0 +1,176 @@
+package com.nimbly.phshoesbackend.search.core.service.impl;
+
+import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.config.SearchExecutorConfig;
+import com.nimbly.phshoesbackend.search.core.config.props.BrandVocabularyProperties;
+import com.nimbly.phshoesbackend.search.core.config.props.CatalogQueryProperties;
+import com.nimbly.phshoesbackend.search.core.event.CatalogSnapshotChangedEvent;
+import com.nimbly.phshoesbackend.search.core.repository.CatalogSearchRepository;
+import com.nimbly.phshoesbackend.search.core.service.BrandVocabulary;
+import com.nimbly.phshoesbackend.search.core.util.BrandDictionary;
+import com.nimbly.phshoesbackend.search.core.util.ProductSpecs;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Brand vocabulary built from the alias seed plus the distinct brands of the latest collected day.
+ * <p>
+ * Starts with the seed alone and reloads in the background on startup and on every
+ * {@link CatalogSnapshotChangedEvent}, so brands that appear in the catalog become filters instead of
+ * being demoted to title keywords. A failed reload keeps the previous dictionary. Events that arrive while a
+ * reload runs are folded into one more reload of the newest date key once it finishes.
+ */
+@Slf4j
+@Component
+public class CatalogBrandVocabulary implements BrandVocabulary {
+
+    private final CatalogSearchRepository catalogSearchRepository;
+    private final LatestSnapshotResolver latestSnapshotResolver;
+    private final CatalogQueryProperties queryProperties;
+    private final BrandVocabularyProperties properties;
+    private final ResourceLoader resourceLoader;
+    private final Executor searchTaskExecutor;
+    private final AtomicBoolean reloadRunning = new AtomicBoolean();
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+
+    private volatile Integer requestedDateKey;
+
+    private volatile BrandDictionary dictionary;
+
+    public CatalogBrandVocabulary(
+            CatalogSearchRepository catalogSearchRepository,
+            LatestSnapshotResolver latestSnapshotResolver,
+            CatalogQueryProperties queryProperties,
+            BrandVocabularyProperties properties,
+            ResourceLoader resourceLoader,
+            @Qualifier(SearchExecutorConfig.SEARCH_TASK_EXECUTOR) Executor searchTaskExecutor,
+            MeterRegistry meterRegistry
+    ) {
+        this.catalogSearchRepository = catalogSearchRepository;
+        this.latestSnapshotResolver = latestSnapshotResolver;
+        this.queryProperties = queryProperties;
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+        this.searchTaskExecutor = searchTaskExecutor;
+        this.dictionary = seed().build();
+        Gauge.builder("search.brands.vocabulary", this, vocabulary -> vocabulary.current().brands().size())
+                .description("Brands the pre-filter recognises")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public BrandDictionary current() {
+        return dictionary;
+    }
+
+    /**
+     * Rebuilds the dictionary from the seed and, when enabled, the brands collected on {@code dateKey}.
+     */
+    public void reload(Integer dateKey) {
+        try {
+            long started = System.nanoTime();
+            BrandDictionary.Builder builder = seed();
+            int catalogBrands = 0;
+            if (properties.isFromCatalog() && dateKey != null) {
+                for (String brand : catalogSearchRepository.findDistinctBrands(collectedOn(dateKey))) {
+                    if (BrandDictionary.compact(brand).length() >= properties.getMinLength()) {
+                        builder.brand(brand);
+                        catalogBrands++;
+                    }
+                }
+            }
+            BrandDictionary loaded = builder.build();
+            dictionary = loaded;
+            log.info("Loaded brand vocabulary for {} ({} catalog brands, {} brands, {} phrases) in {} ms",
+                    dateKey, catalogBrands, loaded.brands().size(), loaded.phrases().size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Brand vocabulary reload failed; keeping {} brands", dictionary.brands().size(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void loadOnStartup() {
+        scheduleReload(null);
+    }
+
+    @EventListener
+    void onSnapshotChanged(CatalogSnapshotChangedEvent event) {
+        scheduleReload(event.latestDateKey());
+    }
+
+    private void scheduleReload(Integer dateKey) {
+        requestedDateKey = dateKey;
+        reloadRequested.set(true);
+        startReloading();
+    }
+
+    private void startReloading() {
+        if (!reloadRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            searchTaskExecutor.execute(this::reloadRequested);
+        } catch (RejectedExecutionException e) {
+            reloadRunning.set(false);
+            log.warn("Brand vocabulary reload rejected; retrying on the next snapshot change", e);
+        }
+    }
+
+    /**
+     * Reloads until no request is outstanding, then re-checks once the running flag is cleared so a request
+     * that raced the last iteration is not lost.
+     */
+    private void reloadRequested() {
+        try {
+            while (reloadRequested.getAndSet(false)) {
+                Integer dateKey = requestedDateKey;
+                reload(dateKey != null ? dateKey : latestSnapshotResolver.resolveGlobal());
+            }
+        } finally {
+            reloadRunning.set(false);
+        }
+        if (reloadRequested.get()) {
+            startReloading();
+        }
+    }
+
+    private Specification<CatalogShoe> collectedOn(Integer dateKey) {
+        return ProductSpecs.collectedOnDateKey(
+                dateKey,
+                queryProperties.getDateKeyMode(),
+                queryProperties.getDateKeyAttribute()
+        );
+    }
+
+    /**
+     * The configured seed, or the bundled one when it cannot be read.
+     */
+    private BrandDictionary.Builder seed() {
+        Resource resource = resourceLoader.getResource(properties.getAliasesLocation());
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            return BrandDictionary.builder().aliases(reader);
+        } catch (IOException e) {
+            log.warn("Brand aliases {} unreadable; using the bundled seed", properties.getAliasesLocation(), e);
+            BrandDictionary.Builder builder = BrandDictionary.builder();
+            BrandDictionary.defaults().phrases().forEach((phrase, brand) -> builder.alias(brand, phrase));
+            return builder;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.nimbly.phshoesbackend.search.core.service.impl;
+
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.service.IntentRouter;
+import com.nimbly.phshoesbackend.search.core.service.OpenAiIntentParserService;
+import com.nimbly.phshoesbackend.search.core.util.IntentVocabulary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-process intent parser for leftovers made of known keywords, answering the way the intent prompt asks
+ * the LLM to: category words, {@code kids} among them, become subtitle keywords. The prompt has no gender
+ * field, so the other gender words set nothing; remaining words are ignored.
+ */
+@Component(IntentRouter.LOCAL_INTENT_PARSER)
+public class KeywordIntentParser implements OpenAiIntentParserService {
+
+    private static final String KIDS = "kids";
+
+    @Override
+    public AISearchFilterCriteria parseIntent(String nlQuery) {
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        List<String> categories = new ArrayList<>();
+        for (String word : IntentVocabulary.words(nlQuery)) {
+            String category = KIDS.equals(IntentVocabulary.genderOf(word)) ? KIDS
+                    : IntentVocabulary.isCategory(word) ? word : null;
+            if (category != null && !categories.contains(category)) {
+                categories.add(category);
+            }
+        }
+        criteria.setSubtitleKeywords(categories.isEmpty() ? null : categories);
+        return criteria;
+    }
+}
@@ -0,0 +1,126 @@
+package com.nimbly.phshoesbackend.search.core.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.config.props.CatalogQueryProperties;
+import com.nimbly.phshoesbackend.search.core.config.props.LatestSnapshotProperties;
+import com.nimbly.phshoesbackend.search.core.event.CatalogSnapshotChangedEvent;
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.util.CriteriaFingerprint;
+import com.nimbly.phshoesbackend.search.core.util.ProductSpecs;
+import com.nimbly.phshoesbackend.search.core.util.SearchMetrics;
+import com.nimbly.phshoesbackend.search.core.util.SearchMetrics.Stage;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Resolves the newest collected date key ({@code year*10000 + month*100 + day}) with a single
+ * {@code max()} aggregate per filter shape, cached for a short TTL in a size-bounded cache. When the
+ * catalog-wide key moves forward every cached shape is dropped and a {@link CatalogSnapshotChangedEvent} is
+ * published.
+ * Each resolution is recorded as the {@code latest_date} search stage, a {@code query} when it had to ask
+ * the warehouse and a {@code cache_hit} otherwise.
+ */
+@Slf4j
+@Component
+public class LatestSnapshotResolver {
+
+    private static final String GLOBAL_KEY = "*";
+
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogQueryProperties queryProperties;
+    private final Cache<String, Optional<Integer>> latestDateKeys;
+    private final AtomicReference<Integer> lastGlobalDateKey = new AtomicReference<>();
+    private final SearchMetrics metrics;
+
+    public LatestSnapshotResolver(
+            EntityManager entityManager,
+            LatestSnapshotProperties properties,
+            CatalogQueryProperties queryProperties,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry
+    ) {
+        this.entityManager = entityManager;
+        this.metrics = new SearchMetrics(meterRegistry);
+        this.eventPublisher = eventPublisher;
+        this.queryProperties = queryProperties;
+        this.latestDateKeys = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    public Integer resolveGlobal() {
+        long started = System.nanoTime();
+        AtomicBoolean queried = new AtomicBoolean();
+        Integer latest = global(queried);
+        metrics.record(Stage.LATEST_DATE, outcome(queried), started);
+        return latest;
+    }
+
+    public Integer resolve(AISearchFilterCriteria criteria, Specification<CatalogShoe> baseSpec) {
+        long started = System.nanoTime();
+        AtomicBoolean queried = new AtomicBoolean();
+        Integer latest = global(queried);
+        String shape = CriteriaFingerprint.filterKey(criteria);
+        if (!shape.isEmpty()) {
+            latest = latestDateKeys.get(shape, key -> queryMaxDateKey(baseSpec, queried)).orElse(null);
+        }
+        metrics.record(Stage.LATEST_DATE, outcome(queried), started);
+        return latest;
+    }
+
+    /**
+     * Refresh-on-ingest hook: drops every cached date key and re-resolves the catalog-wide one.
+     */
+    public Integer refresh() {
+        latestDateKeys.invalidateAll();
+        return resolveGlobal();
+    }
+
+    private Integer global(AtomicBoolean queried) {
+        Integer latest = latestDateKeys.get(GLOBAL_KEY, key -> queryMaxDateKey(null, queried)).orElse(null);
+        Integer previous = lastGlobalDateKey.getAndSet(latest);
+        if (previous != null && !Objects.equals(previous, latest)) {
+            log.info("Catalog snapshot moved from {} to {}", previous, latest);
+            latestDateKeys.asMap().keySet().removeIf(key -> !GLOBAL_KEY.equals(key));
+            eventPublisher.publishEvent(new CatalogSnapshotChangedEvent(previous, latest));
+        }
+        return latest;
+    }
+
+    private static String outcome(AtomicBoolean queried) {
+        return queried.get() ? SearchMetrics.QUERY : SearchMetrics.CACHE_HIT;
+    }
+
+    private Optional<Integer> queryMaxDateKey(Specification<CatalogShoe> spec, AtomicBoolean queried) {
+        queried.set(true);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+        Root<CatalogShoe> root = query.from(CatalogShoe.class);
+        query.select(cb.max(ProductSpecs.dateKeyExpression(
+                root, cb, queryProperties.getDateKeyMode(), queryProperties.getDateKeyAttribute())));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        return Optional.ofNullable(entityManager.createQuery(query).getSingleResult());
+    }
+}
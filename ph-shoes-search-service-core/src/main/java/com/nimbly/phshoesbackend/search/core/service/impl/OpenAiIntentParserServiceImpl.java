@@ -1,20 +1,25 @@
 package com.nimbly.phshoesbackend.search.core.service.impl;
 
 import com.nimbly.phshoesbackend.search.core.config.OpenAiPromptConfig;
+import com.nimbly.phshoesbackend.search.core.jfr.IntentParseEvent;
 import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
 import com.nimbly.phshoesbackend.search.core.service.OpenAiIntentParserService;
 import com.openai.client.OpenAIClient;
 import com.openai.client.okhttp.OpenAIOkHttpClient;
 import com.openai.models.ChatModel;
 import com.openai.models.chat.completions.StructuredChatCompletionCreateParams;
+import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Objects;
 
+@Primary
 @Service
 public class OpenAiIntentParserServiceImpl implements OpenAiIntentParserService {
 
+    private static final ChatModel MODEL = ChatModel.GPT_4_1_MINI;
+
     private final OpenAIClient client;
     private final OpenAiPromptConfig promptConfig;
 
@@ -23,13 +28,28 @@ public class OpenAiIntentParserServiceImpl implements OpenAiIntentParserService
         this.promptConfig = promptConfig;
     }
 
+    /**
+     * Each call is also emitted as an {@link IntentParseEvent} for flight recordings.
+     */
     @Override
     public AISearchFilterCriteria parseIntent(String nlQuery) {
+        IntentParseEvent event = new IntentParseEvent();
+        event.begin();
+        AISearchFilterCriteria parsed = null;
+        try {
+            parsed = parse(nlQuery);
+            return parsed;
+        } finally {
+            event.complete(nlQuery, MODEL.asString(), parsed);
+        }
+    }
+
+    private AISearchFilterCriteria parse(String nlQuery) {
         String fullPrompt = promptConfig.getPromptFor(nlQuery);
 
         StructuredChatCompletionCreateParams<AISearchFilterCriteria> createParams =
                 StructuredChatCompletionCreateParams.<AISearchFilterCriteria>builder()
-                        .model(ChatModel.GPT_4_1_MINI)
+                        .model(MODEL)
                         .maxCompletionTokens(512)
                         .temperature(0.0)
                         .responseFormat(AISearchFilterCriteria.class)
@@ -1,115 +1,288 @@
 package com.nimbly.phshoesbackend.search.core.service.impl;
 
 import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.model.PreFilterAnalysis;
+import com.nimbly.phshoesbackend.search.core.service.BrandVocabulary;
 import com.nimbly.phshoesbackend.search.core.service.PreFilterExtractor;
+import com.nimbly.phshoesbackend.search.core.util.BrandDictionary;
+import com.nimbly.phshoesbackend.search.core.util.QueryLexer;
+import com.nimbly.phshoesbackend.search.core.util.QueryLexer.Kind;
+import com.nimbly.phshoesbackend.search.core.util.QueryLexer.Token;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
+/**
+ * Rule-based pre-filter. {@link #analyze} walks the {@link QueryLexer} tokens of the query once and
+ * produces both the criteria and the stripped leftover:
+ * <ul>
+ *   <li>brands and their aliases from the {@link BrandVocabulary}, as whole words;</li>
+ *   <li>{@code under}/{@code below} and {@code over}/{@code above} followed by an amount;</li>
+ *   <li>{@code on sale}, {@code cheapest}/{@code lowest}, {@code most expensive}/{@code highest price};</li>
+ *   <li>sizes, only when the query has a size cue ({@code size}, {@code us}, ...): lists after
+ *       {@code size}/{@code sizes} plus standalone numbers up to 100.</li>
+ * </ul>
+ * The leftover drops brands and whole-word cue words but keeps numbers. The lexer is recompiled whenever
+ * the vocabulary hands out a new dictionary; matching cost does not depend on how many brands it holds.
+ */
 @Slf4j
 @Component
 public class PreFilterExtractorImpl implements PreFilterExtractor {
 
-    private static final Set<String> BRANDS = Set.of(
-            "nike", "adidas", "new balance", "newbalance", "asics", "world balance", "worldbalance", "hoka"
-    );
+    private static final double MAX_SIZE = 100;
 
-    private static final Pattern UNDER = Pattern.compile("\\b(?:under|below)\\s*(\\d+)", Pattern.CASE_INSENSITIVE);
-    private static final Pattern OVER = Pattern.compile("\\b(?:over|above)\\s*(\\d+)", Pattern.CASE_INSENSITIVE);
+    private final BrandVocabulary brandVocabulary;
 
-    private static final Pattern SIZES = Pattern.compile(
-            "(?:\\bsize(?:s)?\\b\\s*([0-9]+(?:\\.[05])?(?:\\s*(?:,|and)\\s*[0-9]+(?:\\.[05])?)*))" +
-                    "|\\b(?:us|eu|uk)?\\s*([0-9]+(?:\\.[05])?)\\b",
-            Pattern.CASE_INSENSITIVE
-    );
-    private static final Pattern ON_SALE = Pattern.compile("\\bon sales?\\b", Pattern.CASE_INSENSITIVE);
+    private volatile CompiledVocabulary compiled;
+
+    public PreFilterExtractorImpl(BrandVocabulary brandVocabulary) {
+        this.brandVocabulary = brandVocabulary;
+    }
 
     @Override
     public AISearchFilterCriteria extract(String q) {
-        String lower = q == null ? "" : q.toLowerCase();
-        AISearchFilterCriteria c = new AISearchFilterCriteria();
+        return analyze(q).criteria();
+    }
 
-        List<String> found = BRANDS.stream()
-                .filter(brandToken -> lower.contains(brandToken))
-                .map(brandToken -> brandToken.replaceAll("\\s+", ""))
-                .collect(Collectors.toList());
-        if (!found.isEmpty()) c.setBrands(found);
+    @Override
+    public String strip(String q) {
+        return analyze(q).leftover();
+    }
 
-        c.setOnSale(ON_SALE.matcher(lower).find());
+    @Override
+    public PreFilterAnalysis analyze(String q) {
+        String query = q == null ? "" : q;
+        AISearchFilterCriteria c = new AISearchFilterCriteria();
+        Set<String> brands = new LinkedHashSet<>();
+        List<String> sizes = new ArrayList<>();
+        RemovedSpans removed = new RemovedSpans();
+        boolean onSale = false;
+        boolean cheapest = false;
+        boolean priciest = false;
+        boolean hasSizeCue = false;
+        int sizedUpTo = 0;
+        int unitEnd = -1;
 
-        Matcher underMatcher = UNDER.matcher(lower);
-        if (underMatcher.find()) c.setPriceSaleMax(Double.valueOf(underMatcher.group(1)));
-        Matcher overMatcher = OVER.matcher(lower);
-        if (overMatcher.find()) c.setPriceSaleMin(Double.valueOf(overMatcher.group(1)));
+        for (Token token : lexer().scan(query)) {
+            switch (token.kind()) {
+                case BRAND -> {
+                    if (token.isWholeWord()) brands.add(token.value());
+                }
+                case ON_SALE -> onSale |= token.isWholeWord();
+                case PRICE_MAX -> {
+                    if (c.getPriceSaleMax() == null && token.wordStart()) c.setPriceSaleMax(amountAfter(query, token.end()));
+                }
+                case PRICE_MIN -> {
+                    if (c.getPriceSaleMin() == null && token.wordStart()) c.setPriceSaleMin(amountAfter(query, token.end()));
+                }
+                case SORT_ASC -> cheapest |= token.isWholeWord();
+                case SORT_DESC -> priciest |= token.isWholeWord();
+                case SIZE -> {
+                    if (token.isWholeWord()) {
+                        hasSizeCue = true;
+                        sizedUpTo = Math.max(sizedUpTo, sizeList(query, token.end(), sizes));
+                    }
+                }
+                case UNIT -> {
+                    if (token.wordStart()) unitEnd = token.end();
+                    hasSizeCue |= token.isWholeWord();
+                }
+                case NUMBER -> sizedUpTo = standaloneSize(query, token, token.start() == unitEnd, sizedUpTo, sizes);
+            }
+            if (token.kind() != Kind.NUMBER && token.isWholeWord()) {
+                removed.add(token.start(), token.end());
+            }
+        }
 
-        if (lower.matches(".*\\b(cheapest|lowest)\\b.*")) {
+        if (!brands.isEmpty()) c.setBrands(new ArrayList<>(brands));
+        c.setOnSale(onSale);
+        if (cheapest) {
             c.setSortBy("price_asc");
-        } else if (lower.matches(".*\\b(most expensive|highest price)\\b.*")) {
+        } else if (priciest) {
             c.setSortBy("price_desc");
         }
+        if (hasSizeCue && !sizes.isEmpty()) {
+            c.setSizes(sizes);
+            log.info("Extracted explicit sizes {} from query='{}'", sizes, q);
+        }
+        return new PreFilterAnalysis(c, tidy(removed.remainderOf(query)));
+    }
+
+    @Override
+    public String canonicalBrand(String brand) {
+        return brandVocabulary.current().canonicalOf(brand);
+    }
+
+    @Override
+    public boolean isKnownBrand(String brand) {
+        return canonicalBrand(brand) != null;
+    }
+
+    private QueryLexer lexer() {
+        BrandDictionary dictionary = brandVocabulary.current();
+        CompiledVocabulary current = compiled;
+        if (current == null || current.dictionary() != dictionary) {
+            current = new CompiledVocabulary(dictionary, compile(dictionary));
+            compiled = current;
+        }
+        return current.lexer();
+    }
 
-        boolean hasSizeCue = lower.matches(".*\\b(size|sizes|us|eu|uk)\\b.*");
-        if (hasSizeCue) {
-            List<String> sizes = extractExplicitSizes(q);
-            if (!sizes.isEmpty()) {
-                c.setSizes(sizes);
-                log.info("Extracted explicit sizes {} from query='{}'", sizes, q);
+    private static QueryLexer compile(BrandDictionary dictionary) {
+        QueryLexer.Builder builder = QueryLexer.builder()
+                .phrases(Kind.ON_SALE, "on sale", "on sales")
+                .phrases(Kind.PRICE_MAX, "under", "below")
+                .phrases(Kind.PRICE_MIN, "over", "above")
+                .phrases(Kind.SORT_ASC, "cheapest", "lowest")
+                .phrases(Kind.SORT_DESC, "most expensive", "highest price")
+                .phrases(Kind.SIZE, "size", "sizes")
+                .phrases(Kind.UNIT, "us", "eu", "uk");
+        dictionary.phrases().forEach((phrase, brand) -> builder.phrase(Kind.BRAND, phrase, brand));
+        return builder.build();
+    }
+
+    /**
+     * The whole-number amount after a price cue ({@code under 5000}, {@code below5000}), or {@code null}.
+     */
+    private static Double amountAfter(String query, int from) {
+        int start = skipSpaces(query, from);
+        int end = start;
+        while (end < query.length() && isDigit(query.charAt(end))) end++;
+        return end == start ? null : Double.valueOf(query.substring(start, end));
+    }
+
+    /**
+     * {@code size 10}, {@code sizes 7, 8 and 8.5}: the list following a size cue. Returns where the list
+     * ends, or {@code -1} when no number follows the cue.
+     */
+    private static int sizeList(String query, int from, List<String> sizes) {
+        int start = skipSpaces(query, from);
+        int end = sizeEnd(query, start);
+        if (end == start) return -1;
+        addSize(query.substring(start, end), sizes);
+        while (true) {
+            int separator = skipSpaces(query, end);
+            if (separator < query.length() && query.charAt(separator) == ',') {
+                separator++;
+            } else if (query.regionMatches(true, separator, "and", 0, 3)) {
+                separator += 3;
+            } else {
+                return end;
             }
+            int next = skipSpaces(query, separator);
+            int nextEnd = sizeEnd(query, next);
+            if (nextEnd == next) return end;
+            addSize(query.substring(next, nextEnd), sizes);
+            end = nextEnd;
         }
+    }
 
-        return c;
+    /**
+     * A number standing on its own ({@code 9}, {@code 9.5}, {@code us9}) that no size list has consumed.
+     * Returns how far the query has been read for sizes.
+     */
+    private static int standaloneSize(String query, Token number, boolean afterUnit, int sizedUpTo, List<String> sizes) {
+        if (number.start() < sizedUpTo || !(number.wordStart() || afterUnit)) return sizedUpTo;
+        int end = sizeEnd(query, number.start());
+        if (end > number.end() && !QueryLexer.isBoundary(query, end)) end = number.end();
+        if (end == number.end() && !number.wordEnd()) return sizedUpTo;
+        addSize(query.substring(number.start(), end), sizes);
+        return end;
     }
 
-    private List<String> extractExplicitSizes(String query) {
-        List<String> sizes = new ArrayList<>();
-        Matcher sizeMatcher = SIZES.matcher(query == null ? "" : query);
-        while (sizeMatcher.find()) {
-            String group = sizeMatcher.group(1) != null ? sizeMatcher.group(1) : sizeMatcher.group(2);
-            if (group == null) {
+    /**
+     * End of the digits at {@code from} plus a {@code .0}/{@code .5} half size; {@code from} when there are no digits.
+     */
+    private static int sizeEnd(String query, int from) {
+        int end = from;
+        while (end < query.length() && isDigit(query.charAt(end))) end++;
+        if (end > from && end + 1 < query.length() && query.charAt(end) == '.'
+                && (query.charAt(end + 1) == '0' || query.charAt(end + 1) == '5')) {
+            end += 2;
+        }
+        return end;
+    }
+
+    private static void addSize(String size, List<String> sizes) {
+        if (Double.parseDouble(size) <= MAX_SIZE) sizes.add(size);
+    }
+
+    private static int skipSpaces(String query, int from) {
+        int i = from;
+        while (i < query.length() && QueryLexer.isSpace(query.charAt(i))) i++;
+        return i;
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    /**
+     * Trims and collapses whitespace runs left behind by removed tokens.
+     */
+    private static String tidy(CharSequence text) {
+        int from = 0;
+        int to = text.length();
+        while (from < to && text.charAt(from) <= ' ') from++;
+        while (to > from && text.charAt(to - 1) <= ' ') to--;
+        StringBuilder out = new StringBuilder(to - from);
+        int i = from;
+        while (i < to) {
+            char ch = text.charAt(i);
+            if (!QueryLexer.isSpace(ch)) {
+                out.append(ch);
+                i++;
                 continue;
             }
-            for (String token : group.split("\\s*(?:,|and)\\s*")) {
-                String normalizedToken = token.trim().toLowerCase().replaceAll("^(us|eu|uk)\\s*", "")
-                        .replaceAll("[^0-9\\.]", "");
-                if (normalizedToken.isBlank()) {
-                    continue;
-                }
-                try {
-                    double numericSize = Double.parseDouble(normalizedToken);
-                    if (numericSize > 100) {
-                        continue;
-                    }
-                } catch (NumberFormatException ignored) {
-                    continue;
-                }
-                sizes.add(normalizedToken);
-            }
+            int run = i;
+            while (run < to && QueryLexer.isSpace(text.charAt(run))) run++;
+            out.append(run - i > 1 ? ' ' : ch);
+            i = run;
         }
-        return sizes;
+        return out.toString();
     }
 
-    @Override
-    public String strip(String q) {
-        if (q == null) return "";
-        String out = q;
-        for (String b : BRANDS) {
-            out = out.replaceAll("(?i)\\b" + Pattern.quote(b) + "\\b", "");
-        }
-        out = out.replaceAll(
-                "(?i)\\b(on sales?|under|below|over|above|cheapest|lowest|most expensive|highest price|size|sizes|us|eu|uk)\\b",
-                ""
-        );
-        return out.trim().replaceAll("\\s{2,}", " ");
+    private record CompiledVocabulary(BrandDictionary dictionary, QueryLexer lexer) {
     }
 
-    @Override
-    public boolean isKnownBrand(String brand) {
-        return brand != null && BRANDS.contains(brand.toLowerCase().replaceAll("\\s+", ""));
+    /**
+     * Spans to cut from the query, added in order of their end offset. A span that overlaps or encloses
+     * earlier ones ({@code under} inside {@code under armour}) is merged with them.
+     */
+    private static final class RemovedSpans {
+
+        private int[] starts = new int[8];
+        private int[] ends = new int[8];
+        private int count;
+
+        void add(int start, int end) {
+            while (count > 0 && starts[count - 1] >= start) count--;
+            if (count > 0 && ends[count - 1] > start) {
+                ends[count - 1] = Math.max(ends[count - 1], end);
+                return;
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            count++;
+        }
+
+        StringBuilder remainderOf(String query) {
+            StringBuilder out = new StringBuilder(query.length());
+            int copied = 0;
+            for (int i = 0; i < count; i++) {
+                out.append(query, copied, starts[i]);
+                copied = ends[i];
+            }
+            return out.append(query, copied, query.length());
+        }
     }
 }
@@ -1,35 +1,63 @@
 package com.nimbly.phshoesbackend.search.core.service.impl;
 
 import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
-import com.nimbly.phshoesbackend.catalog.core.repository.jpa.CatalogShoeRepository;
+import com.nimbly.phshoesbackend.search.core.cache.CatalogCountCache;
+import com.nimbly.phshoesbackend.search.core.config.props.CatalogQueryProperties;
+import com.nimbly.phshoesbackend.search.core.jfr.CatalogSearchEvent;
 import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.model.CatalogPage;
+import com.nimbly.phshoesbackend.search.core.model.CatalogSlice;
+import com.nimbly.phshoesbackend.search.core.repository.CatalogSearchRepository;
+import com.nimbly.phshoesbackend.search.core.snapshot.CatalogSnapshot;
+import com.nimbly.phshoesbackend.search.core.snapshot.LocalCatalogSnapshot;
 import com.nimbly.phshoesbackend.search.core.util.ProductSpecs;
+import com.nimbly.phshoesbackend.search.core.util.SearchMetrics;
+import com.nimbly.phshoesbackend.search.core.util.SearchMetrics.Stage;
 import com.nimbly.phshoesbackend.search.core.util.SpecificationBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
-import java.util.List;
-import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
 
 @Slf4j
 @Component
 public class SearchOrchestrator {
 
-    private final CatalogShoeRepository catalogShoeRepository;
+    private final CatalogSearchRepository catalogSearchRepository;
     private final SpecificationBuilder specBuilder;
+    private final LatestSnapshotResolver latestSnapshotResolver;
+    private final CatalogQueryProperties queryProperties;
+    private final LocalCatalogSnapshot localSnapshot;
+    private final CatalogCountCache countCache;
+    private final SearchMetrics metrics;
 
     public SearchOrchestrator(
-            CatalogShoeRepository catalogShoeRepository,
-            SpecificationBuilder specBuilder
+            CatalogSearchRepository catalogSearchRepository,
+            SpecificationBuilder specBuilder,
+            LatestSnapshotResolver latestSnapshotResolver,
+            CatalogQueryProperties queryProperties,
+            LocalCatalogSnapshot localSnapshot,
+            CatalogCountCache countCache,
+            MeterRegistry meterRegistry
     ) {
-        this.catalogShoeRepository = catalogShoeRepository;
+        this.catalogSearchRepository = catalogSearchRepository;
         this.specBuilder = specBuilder;
+        this.latestSnapshotResolver = latestSnapshotResolver;
+        this.queryProperties = queryProperties;
+        this.localSnapshot = localSnapshot;
+        this.countCache = countCache;
+        this.metrics = new SearchMetrics(meterRegistry);
     }
 
     public Page<CatalogShoe> search(
@@ -37,27 +65,51 @@ public class SearchOrchestrator {
             AISearchFilterCriteria criteria,
             Pageable pageable
     ) {
-        Specification<CatalogShoe> baseSpec = specBuilder.build(criteria);
-        Integer latestDateKey = resolveLatestCollectedDateKey(baseSpec);
-        if (latestDateKey != null) {
-            baseSpec = baseSpec.and(ProductSpecs.collectedOnDateKey(latestDateKey));
-        }
-
-        Page<CatalogShoe> page;
+        return search(naturalLanguageQuery, criteria, pageable, () -> false);
+    }
 
-        if (StringUtils.hasText(criteria.getSortBy())) {
-            Sort priceSort = "price_asc".equals(criteria.getSortBy())
-                    ? Sort.by("priceSale").ascending()
-                    : Sort.by("priceSale").descending();
+    /**
+     * Same as {@link #search(String, AISearchFilterCriteria, Pageable)}, but gives up with a
+     * {@link CancellationException} when {@code cancelled} is true before a warehouse query would start.
+     */
+    public Page<CatalogShoe> search(
+            String naturalLanguageQuery,
+            AISearchFilterCriteria criteria,
+            Pageable pageable,
+            BooleanSupplier cancelled
+    ) {
+        CatalogSearchEvent event = new CatalogSearchEvent();
+        event.begin();
+        Pageable effectivePageable = pageableFor(criteria, pageable);
 
-            Pageable pricePageable = PageRequest.of(
-                    pageable.getPageNumber(),
-                    pageable.getPageSize(),
-                    priceSort
-            );
-            page = catalogShoeRepository.findAll(baseSpec, pricePageable);
+        Page<CatalogShoe> page = null;
+        if (localSnapshot.isEnabled()) {
+            page = snapshotSearch(criteria, effectivePageable).orElse(null);
+        }
+        if (page != null) {
+            event.complete(criteria, CatalogSearchEvent.SNAPSHOT, false, null,
+                    page.getNumberOfElements(), page.getTotalElements(), false);
         } else {
-            page = catalogShoeRepository.findAll(baseSpec, pageable);
+            checkCancelled(cancelled);
+            long resolving = System.nanoTime();
+            Specification<CatalogShoe> baseSpec = specBuilder.build(criteria);
+            Integer latestDateKey = latestSnapshotResolver.resolve(criteria, baseSpec);
+            checkCancelled(cancelled);
+            long querying = System.nanoTime();
+            Specification<CatalogShoe> spec = onDateKey(baseSpec, latestDateKey);
+            Long knownTotal = knownTotal(criteria, latestDateKey);
+            boolean counted = false;
+            if (knownTotal != null) {
+                page = catalogSearchRepository.findPage(spec, effectivePageable, knownTotal);
+            } else {
+                CatalogPage found = catalogSearchRepository.findPage(spec, effectivePageable);
+                page = found.page();
+                counted = found.counted();
+                countCache.put(criteria, latestDateKey, page.getTotalElements());
+            }
+            event.timings(querying - resolving, System.nanoTime() - querying);
+            event.complete(criteria, CatalogSearchEvent.WAREHOUSE, false, latestDateKey,
+                    page.getNumberOfElements(), page.getTotalElements(), counted);
         }
 
         if (page.isEmpty()) {
@@ -82,18 +134,134 @@ public class SearchOrchestrator {
         return page;
     }
 
-    private Integer resolveLatestCollectedDateKey(Specification<CatalogShoe> baseSpec) {
-        Page<CatalogShoe> latestPage = catalogShoeRepository.findAll(
-                baseSpec,
-                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "year", "month", "day"))
-        );
-        if (latestPage == null || latestPage.isEmpty()) {
-            return null;
+    /**
+     * Slice variant of {@link #search}: no count query. A {@code pinnedDateKey} (from a cursor) replaces
+     * the latest-day lookup so every slice of a scroll session reads the same day.
+     */
+    public CatalogSlice searchSlice(
+            String naturalLanguageQuery,
+            AISearchFilterCriteria criteria,
+            Pageable pageable,
+            Integer pinnedDateKey
+    ) {
+        CatalogSearchEvent event = new CatalogSearchEvent();
+        event.begin();
+        Pageable effectivePageable = pageableFor(criteria, pageable);
+
+        if (localSnapshot.isEnabled()) {
+            Integer snapshotDateKey = localSnapshot.current().map(CatalogSnapshot::dateKey).orElse(null);
+            if (pinnedDateKey == null || pinnedDateKey.equals(snapshotDateKey)) {
+                Optional<Page<CatalogShoe>> page = snapshotSearch(criteria, effectivePageable);
+                if (page.isPresent()) {
+                    event.complete(criteria, CatalogSearchEvent.SNAPSHOT, true, snapshotDateKey,
+                            page.get().getNumberOfElements(), page.get().getTotalElements(), false);
+                    return logSlice(naturalLanguageQuery, criteria,
+                            new CatalogSlice(page.get(), snapshotDateKey, page.get().getTotalElements()));
+                }
+            }
+        }
+
+        long resolving = System.nanoTime();
+        Specification<CatalogShoe> baseSpec = specBuilder.build(criteria);
+        Integer dateKey = pinnedDateKey != null
+                ? pinnedDateKey
+                : latestSnapshotResolver.resolve(criteria, baseSpec);
+        long querying = System.nanoTime();
+        Slice<CatalogShoe> slice = catalogSearchRepository.findSlice(onDateKey(baseSpec, dateKey), effectivePageable);
+        event.timings(querying - resolving, System.nanoTime() - querying);
+
+        Long total = knownTotal(criteria, dateKey);
+        if (total == null && !slice.hasNext() && (slice.hasContent() || slice.isFirst())) {
+            total = effectivePageable.getOffset() + slice.getNumberOfElements();
+            countCache.put(criteria, dateKey, total);
         }
-        CatalogShoe latest = latestPage.getContent().get(0);
-        if (latest.getYear() == null || latest.getMonth() == null || latest.getDay() == null) {
-            return null;
+        event.complete(criteria, CatalogSearchEvent.WAREHOUSE, true, dateKey, slice.getNumberOfElements(), total, false);
+        return logSlice(naturalLanguageQuery, criteria, new CatalogSlice(slice, dateKey, total));
+    }
+
+    /**
+     * Stops a search its caller has abandoned before it issues the next warehouse query.
+     */
+    private static void checkCancelled(BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Search cancelled");
+        }
+    }
+
+    /**
+     * The in-memory snapshot's page, recorded as the {@code snapshot_query} stage; {@code miss} when it
+     * cannot answer and the warehouse is queried instead.
+     */
+    private Optional<Page<CatalogShoe>> snapshotSearch(AISearchFilterCriteria criteria, Pageable pageable) {
+        return metrics.time(Stage.SNAPSHOT_QUERY, () -> localSnapshot.search(criteria, pageable), page -> page
+                .map(found -> found.isEmpty() ? SearchMetrics.ZERO_RESULTS : SearchMetrics.RESULTS)
+                .orElse("miss"));
+    }
+
+    /**
+     * Total for the criteria on {@code dateKey} when it is available without a count query: a cached count,
+     * otherwise the in-memory snapshot (same day only, unless the count mode is approximate).
+     */
+    private Long knownTotal(AISearchFilterCriteria criteria, Integer dateKey) {
+        Long cached = countCache.getIfPresent(criteria, dateKey);
+        if (cached != null || !localSnapshot.isEnabled()) {
+            return cached;
+        }
+        OptionalLong exact = localSnapshot.count(criteria, dateKey, false);
+        if (exact.isPresent()) {
+            countCache.put(criteria, dateKey, exact.getAsLong());
+            return exact.getAsLong();
         }
-        return latest.getYear() * 10000 + latest.getMonth() * 100 + latest.getDay();
+        if (countCache.isApproximate()) {
+            OptionalLong estimate = localSnapshot.count(criteria, dateKey, true);
+            // Zero on another day usually means the filters resolved to an older day, not an empty result.
+            if (estimate.isPresent() && estimate.getAsLong() > 0) {
+                return estimate.getAsLong();
+            }
+        }
+        return null;
+    }
+
+    private Specification<CatalogShoe> onDateKey(Specification<CatalogShoe> spec, Integer dateKey) {
+        if (dateKey == null) {
+            return spec;
+        }
+        return spec.and(ProductSpecs.collectedOnDateKey(
+                dateKey,
+                queryProperties.getDateKeyMode(),
+                queryProperties.getDateKeyAttribute()
+        ));
+    }
+
+    private CatalogSlice logSlice(String naturalLanguageQuery, AISearchFilterCriteria criteria, CatalogSlice result) {
+        Slice<CatalogShoe> slice = result.slice();
+        log.info("Search query='{}' slice {} returned {} results (hasNext={}, dateKey={}, filters: brands={}, sizes={}, sortBy={})",
+                naturalLanguageQuery,
+                slice.getNumber(),
+                slice.getNumberOfElements(),
+                slice.hasNext(),
+                result.dateKey(),
+                criteria.getBrands(),
+                criteria.getSizes(),
+                criteria.getSortBy());
+        return result;
+    }
+
+    /**
+     * The pageable a search actually runs with: an AI {@code sortBy} replaces the requested sort with a price sort.
+     */
+    public Pageable pageableFor(AISearchFilterCriteria criteria, Pageable pageable) {
+        if (!StringUtils.hasText(criteria.getSortBy())) {
+            return pageable;
+        }
+        Sort priceSort = "price_asc".equals(criteria.getSortBy())
+                ? Sort.by("priceSale").ascending()
+                : Sort.by("priceSale").descending();
+
+        return PageRequest.of(
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                priceSort
+        );
     }
 }
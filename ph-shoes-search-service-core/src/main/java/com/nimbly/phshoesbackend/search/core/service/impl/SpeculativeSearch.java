@@ -0,0 +1,194 @@
+package com.nimbly.phshoesbackend.search.core.service.impl;
+
+import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.config.SearchExecutorConfig;
+import com.nimbly.phshoesbackend.search.core.config.props.SpeculativeSearchProperties;
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.snapshot.CatalogSnapshot;
+import com.nimbly.phshoesbackend.search.core.util.CriteriaFingerprint;
+import com.nimbly.phshoesbackend.search.core.util.ShoeSizeExtractor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the catalog query on the rule-based pre-filters while the AI intent parse is still in flight.
+ * <p>
+ * Once the final criteria are known the speculative page is used as-is when the filters and sort
+ * are unchanged, post-filtered in memory when the final criteria only narrow a complete page 0,
+ * and discarded otherwise. A discarded speculation is cancelled: it never starts if it is still queued,
+ * and a running one stops before its next warehouse query.
+ */
+@Slf4j
+@Component
+public class SpeculativeSearch {
+
+    private final SearchOrchestrator orchestrator;
+    private final Executor searchTaskExecutor;
+    private final ShoeSizeExtractor sizeExtractor;
+    private final SpeculativeSearchProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SpeculativeSearch(
+            SearchOrchestrator orchestrator,
+            @Qualifier(SearchExecutorConfig.SEARCH_TASK_EXECUTOR) Executor searchTaskExecutor,
+            ShoeSizeExtractor sizeExtractor,
+            SpeculativeSearchProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.orchestrator = orchestrator;
+        this.searchTaskExecutor = searchTaskExecutor;
+        this.sizeExtractor = sizeExtractor;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Starts the speculative query, or returns {@code null} when the pre-filters restrict nothing
+     * or the pool is saturated.
+     */
+    public Speculation start(String query, AISearchFilterCriteria preFilters, Pageable pageable) {
+        if (CriteriaFingerprint.filterKey(preFilters).isEmpty()) {
+            return null;
+        }
+        CompletableFuture<Page<CatalogShoe>> page = new CompletableFuture<>();
+        try {
+            searchTaskExecutor.execute(() -> {
+                if (page.isCancelled()) {
+                    return;
+                }
+                try {
+                    page.complete(orchestrator.search(query, preFilters, pageable, page::isCancelled));
+                } catch (RuntimeException e) {
+                    page.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+        return new Speculation(preFilters, page);
+    }
+
+    public Optional<Page<CatalogShoe>> reuse(Speculation speculation, AISearchFilterCriteria criteria, Pageable pageable) {
+        if (speculation == null) {
+            return Optional.empty();
+        }
+        AISearchFilterCriteria preFilters = speculation.criteria();
+        boolean sameFilters = CriteriaFingerprint.filterKey(preFilters).equals(CriteriaFingerprint.filterKey(criteria));
+        boolean sameSort = Objects.equals(sortOf(preFilters), sortOf(criteria));
+
+        if (sameFilters && sameSort) {
+            Optional<Page<CatalogShoe>> page = await(speculation);
+            return record(page.isPresent() ? "reused" : "failed", page);
+        }
+        if (pageable.getPageNumber() == 0 && narrows(criteria, preFilters)) {
+            Optional<Page<CatalogShoe>> page = await(speculation).flatMap(complete -> narrow(complete, criteria, pageable));
+            return record(page.isPresent() ? "narrowed" : "discarded", page);
+        }
+        if (speculation.page().cancel(false)) {
+            meterRegistry.counter("search.speculative.cancelled").increment();
+        }
+        return record("discarded", Optional.empty());
+    }
+
+    /**
+     * Post-filters a speculative page that holds every matching row. Empty when the page is partial,
+     * nothing survives (the final criteria may then resolve to an older day) or the sort cannot be applied.
+     */
+    private Optional<Page<CatalogShoe>> narrow(Page<CatalogShoe> page, AISearchFilterCriteria criteria, Pageable pageable) {
+        if (page.getTotalElements() != page.getNumberOfElements()) {
+            return Optional.empty();
+        }
+        CatalogSnapshot rows = CatalogSnapshot.of(0, page.getContent(), sizeExtractor);
+        BitSet selected = rows.select(criteria);
+        if (selected.isEmpty()) {
+            return Optional.empty();
+        }
+        return rows.page(selected, orchestrator.pageableFor(criteria, pageable));
+    }
+
+    private Optional<Page<CatalogShoe>> await(Speculation speculation) {
+        try {
+            return Optional.ofNullable(speculation.page().join());
+        } catch (CompletionException e) {
+            log.warn("Speculative search failed; running the final query", e.getCause());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<Page<CatalogShoe>> record(String outcome, Optional<Page<CatalogShoe>> page) {
+        meterRegistry.counter("search.speculative", "outcome", outcome).increment();
+        return page;
+    }
+
+    /**
+     * True when every row matching {@code narrower} also matches {@code wider}.
+     */
+    static boolean narrows(AISearchFilterCriteria narrower, AISearchFilterCriteria wider) {
+        String widerText = CriteriaFingerprint.textKey(wider);
+        return within(narrower.getBrands(), wider.getBrands(), true)
+                && within(narrower.getSizes(), wider.getSizes(), false)
+                && atLeast(narrower.getPriceSaleMin(), wider.getPriceSaleMin())
+                && atMost(narrower.getPriceSaleMax(), wider.getPriceSaleMax())
+                && atLeast(narrower.getPriceOriginalMin(), wider.getPriceOriginalMin())
+                && atMost(narrower.getPriceOriginalMax(), wider.getPriceOriginalMax())
+                && (!Boolean.TRUE.equals(wider.getOnSale()) || Boolean.TRUE.equals(narrower.getOnSale()))
+                && (widerText.isEmpty() || widerText.equals(CriteriaFingerprint.textKey(narrower)));
+    }
+
+    private static boolean within(List<String> narrower, List<String> wider, boolean lowerCase) {
+        Set<String> allowed = canonical(wider, lowerCase);
+        if (allowed.isEmpty()) {
+            return true;
+        }
+        Set<String> requested = canonical(narrower, lowerCase);
+        return !requested.isEmpty() && allowed.containsAll(requested);
+    }
+
+    private static Set<String> canonical(List<String> values, boolean lowerCase) {
+        if (values == null) {
+            return Set.of();
+        }
+        return values.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .map(value -> lowerCase ? value.toLowerCase(Locale.ROOT) : value)
+                .collect(Collectors.toSet());
+    }
+
+    private static boolean atLeast(Double narrower, Double wider) {
+        return wider == null || (narrower != null && narrower >= wider);
+    }
+
+    private static boolean atMost(Double narrower, Double wider) {
+        return wider == null || (narrower != null && narrower <= wider);
+    }
+
+    private static String sortOf(AISearchFilterCriteria criteria) {
+        return StringUtils.hasText(criteria.getSortBy()) ? criteria.getSortBy() : null;
+    }
+
+    public record Speculation(AISearchFilterCriteria criteria, CompletableFuture<Page<CatalogShoe>> page) {
+    }
+}
@@ -1,55 +1,153 @@
 package com.nimbly.phshoesbackend.search.core.service.impl;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.cache.SearchResponseCache;
+import com.nimbly.phshoesbackend.search.core.config.props.CoalescingProperties;
+import com.nimbly.phshoesbackend.search.core.jfr.SearchRequestEvent;
 import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.model.CatalogSlice;
+import com.nimbly.phshoesbackend.search.core.model.FilterPipelineResult;
+import com.nimbly.phshoesbackend.search.core.model.SearchCursor;
 import com.nimbly.phshoesbackend.search.core.service.FilterPipeline;
 import com.nimbly.phshoesbackend.search.core.service.TextSearchService;
+import com.nimbly.phshoesbackend.search.core.util.QueryCanonicalizer;
+import com.nimbly.phshoesbackend.search.core.util.SearchMetrics;
+import com.nimbly.phshoesbackend.search.core.util.SearchMetrics.Stage;
+import com.nimbly.phshoesbackend.search.core.util.ShoeSizeExtractor;
+import com.nimbly.phshoesbackend.search.core.util.SingleFlight;
 import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponse;
 import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponseFilter;
 import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponseResults;
 import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponseResultsContentInner;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.net.URI;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 @Service
 public class TextSearchServiceImpl implements TextSearchService {
 
     private final FilterPipeline pipeline;
     private final SearchOrchestrator orchestrator;
-    private final ObjectMapper objectMapper;
+    private final ShoeSizeExtractor sizeExtractor;
+    private final SearchResponseCache responseCache;
+    private final LatestSnapshotResolver latestSnapshotResolver;
+    private final SpeculativeSearch speculativeSearch;
+    private final CoalescingProperties coalescingProperties;
+    private final SingleFlight<SearchKey, TextSearchResponse> inFlight;
+    private final SearchMetrics metrics;
 
     public TextSearchServiceImpl(
             FilterPipeline pipeline,
             SearchOrchestrator orchestrator,
-            ObjectMapper objectMapper
+            ShoeSizeExtractor sizeExtractor,
+            SearchResponseCache responseCache,
+            LatestSnapshotResolver latestSnapshotResolver,
+            SpeculativeSearch speculativeSearch,
+            CoalescingProperties coalescingProperties,
+            MeterRegistry meterRegistry
     ) {
         this.pipeline = pipeline;
         this.orchestrator = orchestrator;
-        this.objectMapper = objectMapper;
+        this.sizeExtractor = sizeExtractor;
+        this.responseCache = responseCache;
+        this.latestSnapshotResolver = latestSnapshotResolver;
+        this.speculativeSearch = speculativeSearch;
+        this.coalescingProperties = coalescingProperties;
+        this.inFlight = new SingleFlight<>("search", coalescingProperties.getMaxWait(), responseCache::copy,
+                meterRegistry);
+        this.metrics = new SearchMetrics(meterRegistry);
     }
 
     @Override
     public TextSearchResponse search(String nlQuery, Pageable pageable) {
-        AISearchFilterCriteria criteria = pipeline.process(nlQuery);
+        SearchRequestEvent event = new SearchRequestEvent();
+        event.begin();
+        TextSearchResponse response = coalesced(SearchKey.of(nlQuery, pageable, null, false), () -> {
+            if (!responseCache.isEnabled()) {
+                return execute(nlQuery, pageable, event);
+            }
+            Integer snapshotDateKey = latestSnapshotResolver.resolveGlobal();
+            return responseCache.get(nlQuery, pageable, snapshotDateKey, () -> execute(nlQuery, pageable, event));
+        });
+        event.complete(nlQuery, pageable.getPageNumber(), pageable.getPageSize(), false, response);
+        return response;
+    }
 
-        Page<CatalogShoe> page = orchestrator.search(nlQuery, criteria, pageable);
+    @Override
+    public TextSearchResponse searchSlice(String nlQuery, Pageable pageable, SearchCursor cursor) {
+        Pageable slicePageable = cursor == null
+                ? pageable
+                : PageRequest.of(cursor.page(), cursor.size(), pageable.getSort());
+        Integer pinnedDateKey = cursor == null ? null : cursor.dateKey();
+        SearchRequestEvent event = new SearchRequestEvent();
+        event.begin();
+        TextSearchResponse response = coalesced(SearchKey.of(nlQuery, slicePageable, pinnedDateKey, true), () -> {
+            if (!responseCache.isEnabled()) {
+                return executeSlice(nlQuery, slicePageable, pinnedDateKey, event);
+            }
+            Integer snapshotDateKey = pinnedDateKey != null ? pinnedDateKey : latestSnapshotResolver.resolveGlobal();
+            return responseCache.get(nlQuery, slicePageable, snapshotDateKey, true,
+                    () -> executeSlice(nlQuery, slicePageable, pinnedDateKey, event));
+        });
+        event.complete(nlQuery, slicePageable.getPageNumber(), slicePageable.getPageSize(), true, response);
+        return response;
+    }
 
-        TextSearchResponseFilter filterDto = mapFilter(criteria);
-        TextSearchResponseResults resultsDto = mapResults(page);
+    /**
+     * Lets identical searches that arrive while one is running share its response instead of each parsing
+     * the intent and querying the warehouse. Each of them gets its own copy of the response.
+     */
+    private TextSearchResponse coalesced(SearchKey key, Supplier<TextSearchResponse> search) {
+        return coalescingProperties.isEnabled() ? inFlight.execute(key, search) : search.get();
+    }
 
-        TextSearchResponse response = new TextSearchResponse();
-        response.setFilter(filterDto);
-        response.setResults(resultsDto);
-        return response;
+    private TextSearchResponse execute(String nlQuery, Pageable pageable, SearchRequestEvent event) {
+        AtomicReference<SpeculativeSearch.Speculation> speculation = new AtomicReference<>();
+        FilterPipelineResult filtered = speculativeSearch.isEnabled()
+                ? pipeline.process(nlQuery, preFilters -> speculation.set(speculativeSearch.start(nlQuery, preFilters, pageable)))
+                : pipeline.process(nlQuery);
+        AISearchFilterCriteria criteria = filtered.criteria();
+
+        Page<CatalogShoe> page = speculativeSearch.reuse(speculation.get(), criteria, pageable)
+                .orElseGet(() -> orchestrator.search(nlQuery, criteria, pageable));
+
+        return toResponse(filtered, () -> mapResults(page), event);
+    }
+
+    private TextSearchResponse executeSlice(String nlQuery, Pageable pageable, Integer pinnedDateKey,
+                                            SearchRequestEvent event) {
+        FilterPipelineResult filtered = pipeline.process(nlQuery);
+        CatalogSlice slice = orchestrator.searchSlice(nlQuery, filtered.criteria(), pageable, pinnedDateKey);
+        return toResponse(filtered, () -> mapSlice(slice), event);
+    }
+
+    /**
+     * Maps the response, recorded as the {@code dto_mapping} stage and on the request's {@link SearchRequestEvent}.
+     */
+    private TextSearchResponse toResponse(FilterPipelineResult filtered, Supplier<TextSearchResponseResults> results,
+                                          SearchRequestEvent event) {
+        long mapping = System.nanoTime();
+        TextSearchResponse mapped = metrics.time(Stage.DTO_MAPPING, () -> {
+            TextSearchResponse response = new TextSearchResponse();
+            response.setFilter(mapFilter(filtered.criteria()));
+            response.setResults(results.get());
+            response.setDegraded(filtered.degraded());
+            return response;
+        }, response -> Boolean.TRUE.equals(response.getResults().getEmpty())
+                ? SearchMetrics.ZERO_RESULTS
+                : SearchMetrics.RESULTS);
+        event.executed(filtered.criteria(), System.nanoTime() - mapping);
+        return mapped;
     }
 
     private TextSearchResponseFilter mapFilter(AISearchFilterCriteria criteria) {
@@ -70,20 +168,50 @@ public class TextSearchServiceImpl implements TextSearchService {
     }
 
     private TextSearchResponseResults mapResults(Page<CatalogShoe> page) {
+        TextSearchResponseResults results = mapContent(page);
+        results.setTotalElements(page.getTotalElements());
+        results.setTotalPages(page.getTotalPages());
+        return results;
+    }
+
+    private TextSearchResponseResults mapSlice(CatalogSlice catalogSlice) {
+        Slice<CatalogShoe> slice = catalogSlice.slice();
+        TextSearchResponseResults results = mapContent(slice);
+        Long total = catalogSlice.totalElements();
+        if (total != null) {
+            results.setTotalElements(total);
+            results.setTotalPages(slice.getSize() == 0 ? 1 : (int) Math.ceil((double) total / slice.getSize()));
+        }
+        if (slice.hasNext()) {
+            results.setNextCursor(new SearchCursor(slice.getNumber(), slice.getSize(), catalogSlice.dateKey()).next().encode());
+        }
+        return results;
+    }
+
+    /**
+     * Also records the time spent reading sizes out of {@code extra} for the whole page as the
+     * {@code size_parsing} stage.
+     */
+    private TextSearchResponseResults mapContent(Slice<CatalogShoe> slice) {
         TextSearchResponseResults results = new TextSearchResponseResults();
-        List<TextSearchResponseResultsContentInner> content = page.getContent()
-                .stream()
-                .map(this::toResultItem)
-                .toList();
+        List<TextSearchResponseResultsContentInner> content = new ArrayList<>(slice.getNumberOfElements());
+        long sizeParsingNanos = 0;
+        for (CatalogShoe shoe : slice.getContent()) {
+            TextSearchResponseResultsContentInner item = toResultItem(shoe);
+            long started = System.nanoTime();
+            item.setSizes(sizeExtractor.extract(shoe.getExtra()));
+            sizeParsingNanos += System.nanoTime() - started;
+            content.add(item);
+        }
+        metrics.recordNanos(Stage.SIZE_PARSING, SearchMetrics.OK, sizeParsingNanos);
 
         results.setContent(content);
-        results.setPage(page.getNumber());
-        results.setSize(page.getSize());
-        results.setTotalElements(page.getTotalElements());
-        results.setTotalPages(page.getTotalPages());
-        results.setFirst(page.isFirst());
-        results.setLast(page.isLast());
-        results.setEmpty(page.isEmpty());
+        results.setPage(slice.getNumber());
+        results.setSize(slice.getSize());
+        results.setFirst(slice.isFirst());
+        results.setLast(slice.isLast());
+        results.setEmpty(slice.isEmpty());
+        results.setHasNext(slice.hasNext());
 
         return results;
     }
@@ -101,7 +229,6 @@ public class TextSearchServiceImpl implements TextSearchService {
         result.setCollectedDate(buildCollectedDate(shoe));
         result.setGender(shoe.getGender());
         result.setAgeGroup(shoe.getAgeGroup());
-        result.setSizes(extractSizes(shoe));
         return result;
     }
 
@@ -127,32 +254,6 @@ public class TextSearchServiceImpl implements TextSearchService {
         }
     }
 
-    private List<String> extractSizes(CatalogShoe shoe) {
-        String extra = shoe.getExtra();
-        if (extra == null || extra.isBlank()) {
-            return null;
-        }
-        try {
-            JsonNode root = objectMapper.readTree(extra);
-            JsonNode sizesNode = root.get("sizes");
-            if (sizesNode == null || !sizesNode.isArray()) {
-                return null;
-            }
-            List<String> sizes = new ArrayList<>();
-            for (JsonNode node : (ArrayNode) sizesNode) {
-                if (node.isTextual() || node.isNumber()) {
-                    String val = node.asText();
-                    if (!val.isBlank()) {
-                        sizes.add(val);
-                    }
-                }
-            }
-            return sizes.isEmpty() ? null : sizes;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
     private LocalDate buildCollectedDate(CatalogShoe shoe) {
         Integer year = shoe.getYear();
         Integer month = shoe.getMonth();
@@ -166,4 +267,16 @@ public class TextSearchServiceImpl implements TextSearchService {
             return null;
         }
     }
+
+    /**
+     * Identity of a search for coalescing: the canonical query, the page position and sort, and the
+     * catalog day a cursor pins.
+     */
+    private record SearchKey(String query, int page, int size, String sort, Integer pinnedDateKey, boolean slice) {
+
+        static SearchKey of(String query, Pageable pageable, Integer pinnedDateKey, boolean slice) {
+            return new SearchKey(QueryCanonicalizer.canonicalize(query), pageable.getPageNumber(),
+                    pageable.getPageSize(), pageable.getSort().toString(), pinnedDateKey, slice);
+        }
+    }
 }
@@ -0,0 +1,393 @@
+package com.nimbly.phshoesbackend.search.core.snapshot;
+
+import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.util.ShoeSizeExtractor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable, column-oriented copy of one collected day of the catalog.
+ * <p>
+ * {@link #select} evaluates {@link AISearchFilterCriteria} with the same semantics as
+ * {@code SpecificationBuilder}/{@code ProductSpecs} (SQL null handling, {@code LIKE '%kw%'},
+ * {@code ARRAY_CONTAINS} on the sizes array), so a selection equals the rows the warehouse
+ * query returns for the same day.
+ */
+public final class CatalogSnapshot {
+
+    private static final Set<String> CONSTANT_SORT_PROPERTIES = Set.of("year", "month", "day");
+
+    private final int dateKey;
+    private final CatalogShoe[] rows;
+    private final String[] brandDictionary;
+    private final int[] brandIds;
+    private final double[] priceSale;
+    private final double[] priceOriginal;
+    private final RankedColumn priceSaleRanks;
+    private final RankedColumn priceOriginalRanks;
+    private final String[] titles;
+    private final String[] subtitles;
+    private final TrigramIndex titleIndex;
+    private final TrigramIndex subtitleIndex;
+    private final Map<String, BitSet> sizePostings;
+
+    private CatalogSnapshot(
+            int dateKey,
+            CatalogShoe[] rows,
+            String[] brandDictionary,
+            int[] brandIds,
+            double[] priceSale,
+            double[] priceOriginal,
+            String[] titles,
+            String[] subtitles,
+            Map<String, BitSet> sizePostings
+    ) {
+        this.dateKey = dateKey;
+        this.rows = rows;
+        this.brandDictionary = brandDictionary;
+        this.brandIds = brandIds;
+        this.priceSale = priceSale;
+        this.priceOriginal = priceOriginal;
+        this.priceSaleRanks = RankedColumn.of(priceSale);
+        this.priceOriginalRanks = RankedColumn.of(priceOriginal);
+        this.titles = titles;
+        this.subtitles = subtitles;
+        this.titleIndex = TrigramIndex.build(titles);
+        this.subtitleIndex = TrigramIndex.build(subtitles);
+        this.sizePostings = sizePostings;
+    }
+
+    public static CatalogSnapshot of(int dateKey, List<CatalogShoe> shoes, ShoeSizeExtractor sizeExtractor) {
+        CatalogShoe[] rows = shoes.toArray(new CatalogShoe[0]);
+        int rowCount = rows.length;
+
+        Map<String, Integer> brandIndex = new HashMap<>();
+        List<String> brandDictionary = new ArrayList<>();
+        int[] brandIds = new int[rowCount];
+        double[] priceSale = new double[rowCount];
+        double[] priceOriginal = new double[rowCount];
+        String[] titles = new String[rowCount];
+        String[] subtitles = new String[rowCount];
+        Map<String, BitSet> sizePostings = new HashMap<>();
+
+        for (int row = 0; row < rowCount; row++) {
+            CatalogShoe shoe = rows[row];
+            String brand = lower(shoe.getBrand());
+            brandIds[row] = brand == null ? -1 : brandIndex.computeIfAbsent(brand, key -> {
+                brandDictionary.add(key);
+                return brandDictionary.size() - 1;
+            });
+            priceSale[row] = toColumn(shoe.getPriceSale());
+            priceOriginal[row] = toColumn(shoe.getPriceOriginal());
+            titles[row] = lower(shoe.getTitle());
+            subtitles[row] = lower(shoe.getSubtitle());
+            for (String size : sizeExtractor.extractFilterable(shoe.getExtra())) {
+                sizePostings.computeIfAbsent(size, key -> new BitSet(rowCount)).set(row);
+            }
+        }
+
+        return new CatalogSnapshot(
+                dateKey,
+                rows,
+                brandDictionary.toArray(new String[0]),
+                brandIds,
+                priceSale,
+                priceOriginal,
+                titles,
+                subtitles,
+                Map.copyOf(sizePostings)
+        );
+    }
+
+    public int dateKey() {
+        return dateKey;
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    public int brandCount() {
+        return brandDictionary.length;
+    }
+
+    public CatalogShoe row(int row) {
+        return rows[row];
+    }
+
+    public BitSet select(AISearchFilterCriteria criteria) {
+        BitSet selected = new BitSet(rows.length);
+        List<String> sizes = criteria.getSizes();
+        if (sizes != null && !sizes.isEmpty()) {
+            for (String size : sizes) {
+                if (size == null || size.isBlank()) {
+                    continue;
+                }
+                BitSet postings = sizePostings.get(size.trim());
+                if (postings != null) {
+                    selected.or(postings);
+                }
+            }
+        } else {
+            selected.set(0, rows.length);
+        }
+
+        BitSet textMatches = TextFilter.of(criteria).evaluate(this);
+        if (textMatches != null) {
+            selected.and(textMatches);
+        }
+
+        boolean[] brandFilter = brandFilter(criteria.getBrands());
+        for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+            if (!matches(row, criteria, brandFilter)) {
+                selected.clear(row);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Orders and slices a selection. Empty when the pageable sorts on a column the snapshot
+     * does not hold, so the caller can fall back to the warehouse.
+     */
+    public Optional<Page<CatalogShoe>> page(BitSet selected, Pageable pageable) {
+        List<Sort.Order> sortOrders = new ArrayList<>();
+        List<RankedColumn> sortColumns = new ArrayList<>();
+        for (Sort.Order sortOrder : pageable.getSort()) {
+            if (CONSTANT_SORT_PROPERTIES.contains(sortOrder.getProperty())) {
+                continue;
+            }
+            RankedColumn column = switch (sortOrder.getProperty()) {
+                case "priceSale" -> priceSaleRanks;
+                case "priceOriginal" -> priceOriginalRanks;
+                default -> null;
+            };
+            if (column == null) {
+                return Optional.empty();
+            }
+            sortOrders.add(sortOrder);
+            sortColumns.add(column);
+        }
+
+        int[] matches = selected.stream().toArray();
+        // Least significant order first; ties keep the previous pass's position, so the passes compose.
+        for (int i = sortOrders.size() - 1; i >= 0; i--) {
+            matches = sortColumns.get(i).sort(matches, sortOrders.get(i));
+        }
+
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), matches.length) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), matches.length) : matches.length;
+        List<CatalogShoe> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            content.add(rows[matches[i]]);
+        }
+        return Optional.of(new PageImpl<>(content, pageable, matches.length));
+    }
+
+    private boolean matches(int row, AISearchFilterCriteria criteria, boolean[] brandFilter) {
+        if (brandFilter != null && (brandIds[row] < 0 || !brandFilter[brandIds[row]])) {
+            return false;
+        }
+        if (criteria.getPriceSaleMin() != null && !(priceSale[row] >= criteria.getPriceSaleMin())) {
+            return false;
+        }
+        if (criteria.getPriceSaleMax() != null && !(priceSale[row] <= criteria.getPriceSaleMax())) {
+            return false;
+        }
+        if (criteria.getPriceOriginalMin() != null && !(priceOriginal[row] >= criteria.getPriceOriginalMin())) {
+            return false;
+        }
+        if (criteria.getPriceOriginalMax() != null && !(priceOriginal[row] <= criteria.getPriceOriginalMax())) {
+            return false;
+        }
+        return !Boolean.TRUE.equals(criteria.getOnSale()) || priceSale[row] < priceOriginal[row];
+    }
+
+    private BitSet rowsMatching(LikePattern pattern, String[] column, TrigramIndex index) {
+        if (pattern.literal() != null && TrigramIndex.indexable(pattern.literal())) {
+            return index.containing(pattern.literal());
+        }
+        BitSet matches = new BitSet(column.length);
+        for (int row = 0; row < column.length; row++) {
+            if (pattern.matches(column[row])) {
+                matches.set(row);
+            }
+        }
+        return matches;
+    }
+
+    private boolean[] brandFilter(List<String> brands) {
+        if (brands == null || brands.isEmpty()) {
+            return null;
+        }
+        boolean[] accepted = new boolean[brandDictionary.length];
+        for (String brand : brands) {
+            String wanted = brand.toLowerCase(Locale.ROOT);
+            for (int id = 0; id < brandDictionary.length; id++) {
+                if (brandDictionary[id].equals(wanted)) {
+                    accepted[id] = true;
+                }
+            }
+        }
+        return accepted;
+    }
+
+    private static double toColumn(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A price column as dense ascending ranks: 1 for the lowest distinct price, {@code distinct} for the highest,
+     * 0 for a null. Ranked once per snapshot so a page sorts primitive keys rather than comparing doubles.
+     */
+    private record RankedColumn(int[] ranks, int distinct) {
+
+        static RankedColumn of(double[] column) {
+            double[] values = Arrays.stream(column).filter(value -> !Double.isNaN(value)).sorted().distinct().toArray();
+            int[] ranks = new int[column.length];
+            for (int row = 0; row < column.length; row++) {
+                ranks[row] = Double.isNaN(column[row]) ? 0 : Arrays.binarySearch(values, column[row]) + 1;
+            }
+            return new RankedColumn(ranks, values.length);
+        }
+
+        /**
+         * {@code rows} reordered by this column, each row packed as {@code key << 32 | position} so equal keys
+         * keep their current relative order.
+         */
+        int[] sort(int[] rows, Sort.Order sortOrder) {
+            boolean nullsFirst = switch (sortOrder.getNullHandling()) {
+                case NULLS_FIRST -> true;
+                case NULLS_LAST -> false;
+                // Snowflake sorts NULL above every value.
+                case NATIVE -> sortOrder.isDescending();
+            };
+            long[] packed = new long[rows.length];
+            for (int position = 0; position < rows.length; position++) {
+                packed[position] = (long) key(ranks[rows[position]], sortOrder.isAscending(), nullsFirst) << 32
+                        | position;
+            }
+            Arrays.sort(packed);
+            int[] sorted = new int[rows.length];
+            for (int i = 0; i < packed.length; i++) {
+                sorted[i] = rows[(int) packed[i]];
+            }
+            return sorted;
+        }
+
+        private int key(int rank, boolean ascending, boolean nullsFirst) {
+            if (rank == 0) {
+                return nullsFirst ? 0 : distinct + 1;
+            }
+            return ascending ? rank : distinct + 1 - rank;
+        }
+    }
+
+    /**
+     * Title/subtitle part of the criteria, compiled once per {@link #select} call.
+     */
+    private record TextFilter(LikePattern model, List<LikePattern> titleAny, List<LikePattern> subtitleAny) {
+
+        static TextFilter of(AISearchFilterCriteria criteria) {
+            if (criteria.getModel() != null && !criteria.getModel().isBlank()) {
+                return new TextFilter(LikePattern.of(criteria.getModel().trim().toLowerCase(Locale.ROOT)), null, null);
+            }
+            return new TextFilter(null, compile(criteria.getTitleKeywords()), compile(criteria.getSubtitleKeywords()));
+        }
+
+        /**
+         * Rows satisfying the title/subtitle predicate, or {@code null} when it does not restrict anything.
+         */
+        BitSet evaluate(CatalogSnapshot snapshot) {
+            if (model != null) {
+                return snapshot.rowsMatching(model, snapshot.titles, snapshot.titleIndex);
+            }
+            // An all-blank keyword list renders as cb.conjunction() in ProductSpecs, which makes the OR true.
+            if ((titleAny == null && subtitleAny == null)
+                    || (titleAny != null && titleAny.isEmpty())
+                    || (subtitleAny != null && subtitleAny.isEmpty())) {
+                return null;
+            }
+            BitSet matches = new BitSet(snapshot.size());
+            if (titleAny != null) {
+                for (LikePattern pattern : titleAny) {
+                    matches.or(snapshot.rowsMatching(pattern, snapshot.titles, snapshot.titleIndex));
+                }
+            }
+            if (subtitleAny != null) {
+                for (LikePattern pattern : subtitleAny) {
+                    matches.or(snapshot.rowsMatching(pattern, snapshot.subtitles, snapshot.subtitleIndex));
+                }
+            }
+            return matches;
+        }
+
+        private static List<LikePattern> compile(List<String> phrases) {
+            if (phrases == null || phrases.isEmpty()) {
+                return null;
+            }
+            return phrases.stream()
+                    .filter(Objects::nonNull)
+                    .map(String::trim)
+                    .map(phrase -> phrase.toLowerCase(Locale.ROOT))
+                    .filter(phrase -> !phrase.isBlank())
+                    .map(LikePattern::of)
+                    .toList();
+        }
+    }
+
+    /**
+     * {@code value LIKE '%phrase%'}, honouring {@code %} and {@code _} inside the phrase.
+     */
+    private record LikePattern(String literal, Pattern wildcard) {
+
+        static LikePattern of(String phrase) {
+            if (phrase.indexOf('%') < 0 && phrase.indexOf('_') < 0) {
+                return new LikePattern(phrase, null);
+            }
+            StringBuilder regex = new StringBuilder();
+            StringBuilder literalRun = new StringBuilder();
+            for (char c : phrase.toCharArray()) {
+                if (c == '%' || c == '_') {
+                    regex.append(Pattern.quote(literalRun.toString())).append(c == '%' ? ".*" : ".");
+                    literalRun.setLength(0);
+                } else {
+                    literalRun.append(c);
+                }
+            }
+            regex.append(Pattern.quote(literalRun.toString()));
+            return new LikePattern(null, Pattern.compile(regex.toString(), Pattern.DOTALL));
+        }
+
+        boolean matches(String value) {
+            if (value == null) {
+                return false;
+            }
+            if (wildcard == null) {
+                return value.contains(literal);
+            }
+            Matcher matcher = wildcard.matcher(value);
+            return matcher.find();
+        }
+    }
+}
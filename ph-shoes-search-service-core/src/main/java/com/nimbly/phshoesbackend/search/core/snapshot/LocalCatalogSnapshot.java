@@ -0,0 +1,170 @@
+package com.nimbly.phshoesbackend.search.core.snapshot;
+
+import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.config.props.CatalogQueryProperties;
+import com.nimbly.phshoesbackend.search.core.config.props.LocalSnapshotProperties;
+import com.nimbly.phshoesbackend.search.core.event.CatalogSnapshotChangedEvent;
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.repository.CatalogSearchRepository;
+import com.nimbly.phshoesbackend.search.core.service.impl.LatestSnapshotResolver;
+import com.nimbly.phshoesbackend.search.core.util.ProductSpecs;
+import com.nimbly.phshoesbackend.search.core.util.ShoeSizeExtractor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the latest collected day as a {@link CatalogSnapshot} and answers searches from it.
+ * <p>
+ * The warehouse is only read to (re)load the day. Searches fall back to the JPA path while no
+ * snapshot for the current date key is loaded, and when the snapshot has no match (the
+ * per-filter latest day may then be an older one, which only the warehouse can answer).
+ */
+@Slf4j
+@Component
+public class LocalCatalogSnapshot {
+
+    private final CatalogSearchRepository catalogSearchRepository;
+    private final LatestSnapshotResolver latestSnapshotResolver;
+    private final CatalogQueryProperties queryProperties;
+    private final LocalSnapshotProperties properties;
+    private final ShoeSizeExtractor sizeExtractor;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final AtomicBoolean reloadPending = new AtomicBoolean();
+    private final ExecutorService reloader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LocalCatalogSnapshot(
+            CatalogSearchRepository catalogSearchRepository,
+            LatestSnapshotResolver latestSnapshotResolver,
+            CatalogQueryProperties queryProperties,
+            LocalSnapshotProperties properties,
+            ShoeSizeExtractor sizeExtractor
+    ) {
+        this.catalogSearchRepository = catalogSearchRepository;
+        this.latestSnapshotResolver = latestSnapshotResolver;
+        this.queryProperties = queryProperties;
+        this.properties = properties;
+        this.sizeExtractor = sizeExtractor;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public Optional<CatalogSnapshot> current() {
+        return Optional.ofNullable(current.get());
+    }
+
+    public Optional<Page<CatalogShoe>> search(AISearchFilterCriteria criteria, Pageable pageable) {
+        CatalogSnapshot snapshot = current.get();
+        Integer latestDateKey = latestSnapshotResolver.resolveGlobal();
+        if (latestDateKey == null) {
+            return Optional.empty();
+        }
+        if (snapshot == null || snapshot.dateKey() != latestDateKey) {
+            scheduleReload();
+            return Optional.empty();
+        }
+        BitSet selected = snapshot.select(criteria);
+        if (selected.isEmpty()) {
+            return Optional.empty();
+        }
+        return snapshot.page(selected, pageable);
+    }
+
+    /**
+     * Number of rows matching the criteria on {@code dateKey}, answered from memory. Empty when no snapshot
+     * is loaded, or when it holds another day and {@code allowOtherDay} is false.
+     */
+    public OptionalLong count(AISearchFilterCriteria criteria, Integer dateKey, boolean allowOtherDay) {
+        CatalogSnapshot snapshot = current.get();
+        if (snapshot == null || dateKey == null || (!allowOtherDay && snapshot.dateKey() != dateKey)) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(snapshot.select(criteria).cardinality());
+    }
+
+    /**
+     * Loads the latest day if it is not loaded yet. Returns {@code false} when another reload is in progress.
+     */
+    public boolean reload() {
+        if (!reloadLock.tryLock()) {
+            return false;
+        }
+        try {
+            Integer latestDateKey = latestSnapshotResolver.resolveGlobal();
+            CatalogSnapshot loaded = current.get();
+            if (latestDateKey == null || (loaded != null && loaded.dateKey() == latestDateKey)) {
+                return true;
+            }
+            long started = System.nanoTime();
+            List<CatalogShoe> rows = catalogSearchRepository.findAll(ProductSpecs.collectedOnDateKey(
+                    latestDateKey,
+                    queryProperties.getDateKeyMode(),
+                    queryProperties.getDateKeyAttribute()
+            ));
+            CatalogSnapshot snapshot = CatalogSnapshot.of(latestDateKey, rows, sizeExtractor);
+            current.set(snapshot);
+            log.info("Loaded catalog snapshot {} ({} rows, {} brands) in {} ms",
+                    latestDateKey, snapshot.size(), snapshot.brandCount(), (System.nanoTime() - started) / 1_000_000);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Catalog snapshot reload failed; searches keep using the warehouse", e);
+            return false;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void loadOnStartup() {
+        if (properties.isEnabled()) {
+            scheduleReload();
+        }
+    }
+
+    @EventListener
+    void onSnapshotChanged(CatalogSnapshotChangedEvent event) {
+        if (properties.isEnabled()) {
+            scheduleReload();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reloader.shutdownNow();
+    }
+
+    private void scheduleReload() {
+        if (!reloadPending.compareAndSet(false, true)) {
+            return;
+        }
+        reloader.execute(() -> {
+            try {
+                reload();
+            } finally {
+                reloadPending.set(false);
+            }
+        });
+    }
+}
@@ -0,0 +1,126 @@
+package com.nimbly.phshoesbackend.search.core.snapshot;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Character-trigram inverted index over one lowercased text column of a {@link CatalogSnapshot}.
+ * <p>
+ * {@link #containing} answers {@code column LIKE '%literal%'}: it intersects the posting lists of
+ * the literal's trigrams (rarest first) and verifies the surviving rows with {@link String#contains},
+ * so the result is exact, not just a candidate set.
+ */
+final class TrigramIndex {
+
+    static final int GRAM = 3;
+
+    private final String[] column;
+    private final Map<Long, int[]> postings;
+
+    private TrigramIndex(String[] column, Map<Long, int[]> postings) {
+        this.column = column;
+        this.postings = postings;
+    }
+
+    static TrigramIndex build(String[] column) {
+        Map<Long, PostingBuilder> builders = new HashMap<>();
+        Set<Long> seen = new HashSet<>();
+        for (int row = 0; row < column.length; row++) {
+            String value = column[row];
+            if (value == null || value.length() < GRAM) {
+                continue;
+            }
+            seen.clear();
+            for (int i = 0; i + GRAM <= value.length(); i++) {
+                long gram = gram(value, i);
+                if (seen.add(gram)) {
+                    builders.computeIfAbsent(gram, key -> new PostingBuilder()).add(row);
+                }
+            }
+        }
+        Map<Long, int[]> postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((gram, builder) -> postings.put(gram, builder.toArray()));
+        return new TrigramIndex(column, postings);
+    }
+
+    /**
+     * Whether {@link #containing} can use the index for this literal rather than scanning.
+     */
+    static boolean indexable(String literal) {
+        return literal.length() >= GRAM;
+    }
+
+    BitSet containing(String literal) {
+        BitSet matches = new BitSet(column.length);
+        int[][] lists = new int[literal.length() - GRAM + 1][];
+        for (int i = 0; i < lists.length; i++) {
+            int[] list = postings.get(gram(literal, i));
+            if (list == null) {
+                return matches;
+            }
+            lists[i] = list;
+        }
+        Arrays.sort(lists, (left, right) -> Integer.compare(left.length, right.length));
+
+        int[] candidates = Arrays.copyOf(lists[0], lists[0].length);
+        int candidateCount = candidates.length;
+        for (int i = 1; i < lists.length && candidateCount > 0; i++) {
+            candidateCount = retainAll(candidates, candidateCount, lists[i]);
+        }
+        for (int i = 0; i < candidateCount; i++) {
+            int row = candidates[i];
+            if (column[row].contains(literal)) {
+                matches.set(row);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Keeps the first {@code count} entries of {@code candidates} that also occur in {@code other};
+     * both are ascending. Writes in place, which is safe because the write index never passes the read index.
+     */
+    private static int retainAll(int[] candidates, int count, int[] other) {
+        int kept = 0;
+        int i = 0;
+        int j = 0;
+        while (i < count && j < other.length) {
+            if (candidates[i] == other[j]) {
+                candidates[kept++] = candidates[i];
+                i++;
+                j++;
+            } else if (candidates[i] < other[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return kept;
+    }
+
+    private static long gram(String value, int offset) {
+        return ((long) value.charAt(offset) << 32)
+                | ((long) value.charAt(offset + 1) << 16)
+                | value.charAt(offset + 2);
+    }
+
+    private static final class PostingBuilder {
+        private int[] rows = new int[4];
+        private int size;
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(rows, size);
+        }
+    }
+}
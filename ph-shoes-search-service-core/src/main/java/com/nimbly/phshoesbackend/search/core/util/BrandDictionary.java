@@ -0,0 +1,172 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Brand vocabulary: every phrase a query may use for a brand, mapped to the canonical brand value the
+ * catalog filters on (lower-cased, whitespace removed, e.g. {@code new ballance} → {@code newbalance}).
+ * Immutable; a new dictionary is built on every vocabulary reload.
+ */
+public final class BrandDictionary {
+
+    /**
+     * Classpath seed with the brands and aliases known before the catalog is read.
+     */
+    public static final String DEFAULT_ALIASES = "search/brand-aliases.txt";
+
+    private final Map<String, String> phrases;
+    private final Map<String, String> canonicalByCompact;
+    private final Set<String> brands;
+
+    private BrandDictionary(Map<String, String> phrases) {
+        this.phrases = Collections.unmodifiableMap(phrases);
+        Map<String, String> byCompact = new LinkedHashMap<>();
+        phrases.forEach((phrase, brand) -> byCompact.putIfAbsent(compact(phrase), brand));
+        this.canonicalByCompact = Map.copyOf(byCompact);
+        this.brands = Collections.unmodifiableSet(new TreeSet<>(phrases.values()));
+    }
+
+    /**
+     * The {@link #DEFAULT_ALIASES} seed, parsed once.
+     */
+    public static BrandDictionary defaults() {
+        return Defaults.INSTANCE;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Canonical brand for a brand name or alias in any case and spacing, or {@code null} when unknown.
+     */
+    public String canonicalOf(String brand) {
+        return brand == null ? null : canonicalByCompact.get(compact(brand));
+    }
+
+    /**
+     * Lower-cased single-spaced phrase → canonical brand.
+     */
+    public Map<String, String> phrases() {
+        return phrases;
+    }
+
+    public Set<String> brands() {
+        return brands;
+    }
+
+    /**
+     * Lower-cased with all whitespace removed.
+     */
+    public static String compact(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (!Character.isWhitespace(ch)) {
+                out.append(Character.toLowerCase(ch));
+            }
+        }
+        return out.toString();
+    }
+
+    public static final class Builder {
+
+        private final Map<String, String> phrases = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a brand under its own name and its compact form. Names that are blank or not ASCII are skipped.
+         */
+        public Builder brand(String name) {
+            return alias(name, name);
+        }
+
+        /**
+         * Adds {@code alias} as a phrase for {@code brand}, and {@code brand} itself. The first brand an alias
+         * is added for wins.
+         */
+        public Builder alias(String brand, String alias) {
+            String canonical = brand == null ? "" : compact(brand);
+            if (canonical.isEmpty() || !isAscii(canonical)) {
+                return this;
+            }
+            addPhrase(canonical, canonical);
+            addPhrase(phrase(brand), canonical);
+            addPhrase(phrase(alias), canonical);
+            return this;
+        }
+
+        /**
+         * Reads {@code brand: alias, alias} lines; blank lines and lines starting with {@code #} are ignored.
+         */
+        public Builder aliases(Reader source) throws IOException {
+            BufferedReader reader = new BufferedReader(source);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int colon = line.indexOf(':');
+                String brand = colon < 0 ? line : line.substring(0, colon);
+                brand(brand);
+                if (colon >= 0) {
+                    for (String alias : line.substring(colon + 1).split(",")) {
+                        alias(brand, alias);
+                    }
+                }
+            }
+            return this;
+        }
+
+        public BrandDictionary build() {
+            return new BrandDictionary(new LinkedHashMap<>(phrases));
+        }
+
+        private void addPhrase(String phrase, String canonical) {
+            if (!phrase.isEmpty() && isAscii(phrase)) {
+                phrases.putIfAbsent(phrase, canonical);
+            }
+        }
+
+        /**
+         * Lower-cased, trimmed, inner whitespace runs collapsed to one space.
+         */
+        private static String phrase(String value) {
+            return value == null ? "" : String.join(" ", value.strip().toLowerCase().split("\\s+")).strip();
+        }
+
+        private static boolean isAscii(String value) {
+            return value.chars().allMatch(ch -> ch < 128);
+        }
+    }
+
+    private static final class Defaults {
+
+        private static final BrandDictionary INSTANCE = load();
+
+        private static BrandDictionary load() {
+            try (InputStream in = BrandDictionary.class.getClassLoader().getResourceAsStream(DEFAULT_ALIASES)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing classpath resource " + DEFAULT_ALIASES);
+                }
+                return builder().aliases(new InputStreamReader(in, StandardCharsets.UTF_8)).build();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
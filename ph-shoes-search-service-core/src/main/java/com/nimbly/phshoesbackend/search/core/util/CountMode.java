@@ -0,0 +1,16 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+/**
+ * Which sources may supply {@code totalElements} without a warehouse {@code count(*)}.
+ */
+public enum CountMode {
+    /**
+     * Cached counts of the same filters on the same catalog day, and the in-memory snapshot when it holds that day.
+     */
+    EXACT,
+    /**
+     * Additionally accepts the in-memory snapshot's count while it still holds a different day (e.g. a reload is
+     * in flight), trading a slightly stale total for skipping the count query.
+     */
+    APPROXIMATE
+}
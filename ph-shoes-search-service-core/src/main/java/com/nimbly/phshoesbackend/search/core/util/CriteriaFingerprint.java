@@ -0,0 +1,117 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TreeSet;
+
+public final class CriteriaFingerprint {
+
+    private CriteriaFingerprint() {}
+
+    /**
+     * Canonical key of the predicate shape {@link SpecificationBuilder} would build for the criteria.
+     * Two criteria with the same key produce the same WHERE clause, regardless of list ordering,
+     * casing or duplicates. Sorting is not part of the key.
+     */
+    public static String filterKey(AISearchFilterCriteria criteria) {
+        if (criteria == null) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder(64);
+        appendList(key, "b", criteria.getBrands(), true);
+        appendList(key, "s", criteria.getSizes(), false);
+        appendValue(key, "psmin", criteria.getPriceSaleMin());
+        appendValue(key, "psmax", criteria.getPriceSaleMax());
+        appendValue(key, "pomin", criteria.getPriceOriginalMin());
+        appendValue(key, "pomax", criteria.getPriceOriginalMax());
+        if (Boolean.TRUE.equals(criteria.getOnSale())) {
+            key.append("sale;");
+        }
+        return key.append(textKey(criteria)).toString();
+    }
+
+    /**
+     * The title/subtitle part of {@link #filterKey}: the model phrase when present, otherwise the keywords.
+     */
+    public static String textKey(AISearchFilterCriteria criteria) {
+        if (criteria == null) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder(32);
+        if (criteria.getModel() != null && !criteria.getModel().isBlank()) {
+            appendValue(key, "m", criteria.getModel().toLowerCase(Locale.ROOT));
+        } else {
+            appendList(key, "t", criteria.getTitleKeywords(), true);
+            appendList(key, "st", criteria.getSubtitleKeywords(), true);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Which filters the criteria use, without their values: {@code brands=2,sizes=1,sale_max,on_sale,title=3,sort}.
+     * Criteria that hit the same predicates and index paths share a shape.
+     */
+    public static String shape(AISearchFilterCriteria criteria) {
+        if (criteria == null) {
+            return "";
+        }
+        StringBuilder shape = new StringBuilder(48);
+        appendCount(shape, "brands", criteria.getBrands());
+        appendCount(shape, "sizes", criteria.getSizes());
+        appendFlag(shape, "sale_min", criteria.getPriceSaleMin() != null);
+        appendFlag(shape, "sale_max", criteria.getPriceSaleMax() != null);
+        appendFlag(shape, "original_min", criteria.getPriceOriginalMin() != null);
+        appendFlag(shape, "original_max", criteria.getPriceOriginalMax() != null);
+        appendFlag(shape, "on_sale", Boolean.TRUE.equals(criteria.getOnSale()));
+        appendFlag(shape, "gender", criteria.getGender() != null);
+        appendFlag(shape, "model", criteria.getModel() != null && !criteria.getModel().isBlank());
+        appendCount(shape, "title", criteria.getTitleKeywords());
+        appendCount(shape, "subtitle", criteria.getSubtitleKeywords());
+        appendFlag(shape, "sort", criteria.getSortBy() != null && !criteria.getSortBy().isBlank());
+        return shape.toString();
+    }
+
+    private static void appendCount(StringBuilder shape, String name, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            appendFlag(shape, name, true);
+            shape.append('=').append(values.size());
+        }
+    }
+
+    private static void appendFlag(StringBuilder shape, String name, boolean present) {
+        if (present) {
+            if (!shape.isEmpty()) {
+                shape.append(',');
+            }
+            shape.append(name);
+        }
+    }
+
+    private static void appendList(StringBuilder key, String name, List<String> values, boolean lowerCase) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        TreeSet<String> canonical = new TreeSet<>();
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            String trimmed = value.trim();
+            if (!trimmed.isEmpty()) {
+                canonical.add(lowerCase ? trimmed.toLowerCase(Locale.ROOT) : trimmed);
+            }
+        }
+        if (!canonical.isEmpty()) {
+            key.append(name).append('=').append(String.join(",", canonical)).append(';');
+        }
+    }
+
+    private static void appendValue(StringBuilder key, String name, Object value) {
+        if (value != null) {
+            key.append(name).append('=').append(Objects.toString(value)).append(';');
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+/**
+ * How the collected-date predicate is rendered against the catalog table.
+ */
+public enum DateKeyMode {
+    /**
+     * {@code year*10000 + month*100 + day = :key}. Opaque to micro-partition pruning.
+     */
+    EXPRESSION,
+    /**
+     * {@code year = :y and month = :m and day = :d}. Same rows, but each column keeps its min/max pruning.
+     */
+    COMPONENTS,
+    /**
+     * Equality on a precomputed date-key attribute mapped on the entity.
+     */
+    COLUMN
+}
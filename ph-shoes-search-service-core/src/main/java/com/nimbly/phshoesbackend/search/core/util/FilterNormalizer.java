@@ -2,39 +2,39 @@ package com.nimbly.phshoesbackend.search.core.util;
 
 import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-
+import java.util.function.UnaryOperator;
+
+/**
+ * Canonical form of the criteria, applied in place: lower-cased trimmed distinct lists (brands also without
+ * whitespace, sizes reduced to the number), gender mapped to one of the validator's values, price ranges
+ * ordered and de-duplicated.
+ * <p>
+ * Idempotent, and free of regexes: a list that is already canonical is kept as the same instance, so
+ * normalizing already-normalized criteria only reads them. Sizes are dropped when they only repeat a number
+ * in the model or title keywords ({@code pegasus 41}) and no keyword carries a size cue.
+ */
 public class FilterNormalizer {
 
+    private static final String[] SIZE_UNITS = {"us", "eu", "uk"};
+
     public static void normalize(AISearchFilterCriteria criteria) {
         if (criteria == null) return;
-        normalizeBrands(criteria);
+        criteria.setBrands(canonicalList(criteria.getBrands(), FilterNormalizer::canonicalBrand));
         normalizeGender(criteria);
-        normalizeKeywordLists(criteria);
+        criteria.setTitleKeywords(canonicalList(criteria.getTitleKeywords(), FilterNormalizer::canonicalKeyword));
+        criteria.setSubtitleKeywords(canonicalList(criteria.getSubtitleKeywords(), FilterNormalizer::canonicalKeyword));
+        criteria.setSizes(canonicalList(criteria.getSizes(), FilterNormalizer::canonicalSize));
         disambiguateSizeVsModel(criteria);
         normalizePrices(criteria);
-        normalizeSizes(criteria);
-    }
-
-    private static void normalizeBrands(AISearchFilterCriteria criteria) {
-        if (criteria.getBrands() == null) return;
-        List<String> normalizedBrands = criteria.getBrands().stream()
-                .filter(Objects::nonNull)
-                .map(brand -> brand.trim().toLowerCase())
-                .map(brand -> brand.replaceAll("\\s+", ""))
-                .filter(brand -> !brand.isBlank())
-                .distinct()
-                .collect(Collectors.toList());
-        criteria.setBrands(normalizedBrands.isEmpty() ? null : normalizedBrands);
     }
 
     private static void normalizeGender(AISearchFilterCriteria criteria) {
         if (criteria.getGender() == null) return;
-        String normalizedGender = criteria.getGender().trim().toLowerCase();
+        String normalizedGender = canonicalKeyword(criteria.getGender());
         if (normalizedGender.startsWith("m")) normalizedGender = "male";
         else if (normalizedGender.startsWith("f")) normalizedGender = "female";
         else if (normalizedGender.contains("kid")) normalizedGender = "kids";
@@ -42,27 +42,6 @@ public class FilterNormalizer {
         criteria.setGender(normalizedGender);
     }
 
-    private static void normalizeKeywordLists(AISearchFilterCriteria criteria) {
-        if (criteria.getTitleKeywords() != null) {
-            criteria.setTitleKeywords(criteria.getTitleKeywords().stream()
-                    .filter(Objects::nonNull)
-                    .map(keyword -> keyword.trim().toLowerCase())
-                    .filter(keyword -> !keyword.isBlank())
-                    .distinct()
-                    .collect(Collectors.toList()));
-            if (criteria.getTitleKeywords().isEmpty()) criteria.setTitleKeywords(null);
-        }
-        if (criteria.getSubtitleKeywords() != null) {
-            criteria.setSubtitleKeywords(criteria.getSubtitleKeywords().stream()
-                    .filter(Objects::nonNull)
-                    .map(keyword -> keyword.trim().toLowerCase())
-                    .filter(keyword -> !keyword.isBlank())
-                    .distinct()
-                    .collect(Collectors.toList()));
-            if (criteria.getSubtitleKeywords().isEmpty()) criteria.setSubtitleKeywords(null);
-        }
-    }
-
     private static void normalizePrices(AISearchFilterCriteria criteria) {
         Double sMin = criteria.getPriceSaleMin();
         Double sMax = criteria.getPriceSaleMax();
@@ -96,36 +75,20 @@ public class FilterNormalizer {
 
     private static void disambiguateSizeVsModel(AISearchFilterCriteria criteria) {
         List<String> sizes = criteria.getSizes();
-        if (sizes == null || sizes.isEmpty()) return;
-
-        String modelLc = Optional.ofNullable(criteria.getModel()).orElse("").toLowerCase();
-        String titleKwLc = String.join(" ",
-                Optional.ofNullable(criteria.getTitleKeywords()).orElse(List.of())
-        ).toLowerCase();
-
-        boolean unitInSizes = sizes.stream()
-                .filter(Objects::nonNull)
-                .map(sizeToken -> sizeToken.toLowerCase().trim())
-                .anyMatch(sizeToken -> sizeToken.matches("^(?:us|eu|uk)\\s*\\d+(?:\\.\\d+)?")
-                        || sizeToken.startsWith("size "));
-
-        boolean cueInKeywords =
-                containsCueTokens(criteria.getSubtitleKeywords()) || containsCueTokens(criteria.getTitleKeywords());
-
-        boolean hasExplicitSizeCue = unitInSizes || cueInKeywords;
-
-        boolean overlapsModel = sizes.stream()
-                .filter(Objects::nonNull)
-                .map(sizeToken -> sizeToken.trim().toLowerCase())
-                .filter(sizeToken -> !sizeToken.isEmpty())
-                .anyMatch(sizeToken -> {
-                    String boundary = "\\b" + Pattern.quote(sizeToken) + "\\b";
-                    return Pattern.compile(boundary).matcher(modelLc).find()
-                            || Pattern.compile(boundary).matcher(titleKwLc).find();
-                });
-
-        if (!hasExplicitSizeCue && overlapsModel) {
-            criteria.setSizes(null);
+        if (sizes == null) return;
+        if (containsCueTokens(criteria.getSubtitleKeywords()) || containsCueTokens(criteria.getTitleKeywords())) return;
+
+        String modelLc = criteria.getModel() == null ? "" : criteria.getModel().toLowerCase(Locale.ROOT);
+        List<String> titleKeywords = criteria.getTitleKeywords() == null ? List.of() : criteria.getTitleKeywords();
+        for (String size : sizes) {
+            boolean overlapsModel = containsWord(modelLc, size);
+            for (int i = 0; !overlapsModel && i < titleKeywords.size(); i++) {
+                overlapsModel = containsWord(titleKeywords.get(i), size);
+            }
+            if (overlapsModel) {
+                criteria.setSizes(null);
+                return;
+            }
         }
     }
 
@@ -133,7 +96,7 @@ public class FilterNormalizer {
         if (words == null || words.isEmpty()) return false;
         for (String word : words) {
             if (word == null) continue;
-            String token = word.toLowerCase();
+            String token = word.toLowerCase(Locale.ROOT);
             if (token.contains(" size ") || token.startsWith("size ")
                     || token.equals("size") || token.equals("sizes")
                     || token.contains(" us ") || token.startsWith("us ")
@@ -145,17 +108,98 @@ public class FilterNormalizer {
         return false;
     }
 
-    private static void normalizeSizes(AISearchFilterCriteria criteria) {
-        if (criteria.getSizes() == null) return;
-        List<String> normalizedSizes = criteria.getSizes().stream()
-                .filter(Objects::nonNull)
-                .map(sizeToken -> sizeToken.trim().toLowerCase())
-                .map(sizeToken -> sizeToken.replaceAll("^(us|eu|uk)\\s*", ""))
-                .map(sizeToken -> sizeToken.replaceAll("[^0-9\\.]", ""))
-                .filter(sizeToken -> !sizeToken.isBlank())
-                .distinct()
-                .collect(Collectors.toList());
-        criteria.setSizes(normalizedSizes.isEmpty() ? null : normalizedSizes);
+    /**
+     * {@code word} occurs in {@code text} delimited by word boundaries, the same test as {@code \bword\b}.
+     */
+    private static boolean containsWord(String text, String word) {
+        for (int at = text.indexOf(word); at >= 0; at = text.indexOf(word, at + 1)) {
+            if (QueryLexer.isBoundary(text, at) && QueryLexer.isBoundary(text, at + word.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Canonical values of {@code values} without blanks or repeats, or {@code null} when none are left.
+     * Returns {@code values} itself when every element is already canonical and distinct.
+     */
+    private static List<String> canonicalList(List<String> values, UnaryOperator<String> canonicalizer) {
+        if (values == null) return null;
+        List<String> rebuilt = null;
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i);
+            String canonical = value == null ? null : canonicalizer.apply(value);
+            List<String> kept = rebuilt == null ? values : rebuilt;
+            int keptSize = rebuilt == null ? i : rebuilt.size();
+            boolean keep = canonical != null && !canonical.isBlank() && !containsBefore(kept, keptSize, canonical);
+            if (rebuilt == null) {
+                if (keep && canonical == value) continue;
+                rebuilt = new ArrayList<>(values.subList(0, i));
+            }
+            if (keep) rebuilt.add(canonical);
+        }
+        List<String> result = rebuilt == null ? values : rebuilt;
+        return result.isEmpty() ? null : result;
     }
-}
 
+    private static boolean containsBefore(List<String> values, int end, String value) {
+        for (int i = 0; i < end; i++) {
+            if (value.equals(values.get(i))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Trimmed and lower-cased; the same instance when it already is.
+     */
+    private static String canonicalKeyword(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * {@code " New Balance "} → {@code "newbalance"}.
+     */
+    private static String canonicalBrand(String value) {
+        String keyword = canonicalKeyword(value);
+        for (int i = 0; i < keyword.length(); i++) {
+            if (QueryLexer.isSpace(keyword.charAt(i))) {
+                StringBuilder compact = new StringBuilder(keyword.length());
+                for (int j = 0; j < keyword.length(); j++) {
+                    if (!QueryLexer.isSpace(keyword.charAt(j))) compact.append(keyword.charAt(j));
+                }
+                return compact.toString();
+            }
+        }
+        return keyword;
+    }
+
+    /**
+     * {@code "US 10.5"} → {@code "10.5"}: the unit prefix and everything but digits and dots removed.
+     */
+    private static String canonicalSize(String value) {
+        String keyword = canonicalKeyword(value);
+        int from = 0;
+        for (String unit : SIZE_UNITS) {
+            if (keyword.startsWith(unit)) {
+                from = unit.length();
+                while (from < keyword.length() && QueryLexer.isSpace(keyword.charAt(from))) from++;
+                break;
+            }
+        }
+        int clean = from;
+        while (clean < keyword.length() && isSizeChar(keyword.charAt(clean))) clean++;
+        if (clean == keyword.length()) {
+            return from == 0 ? keyword : keyword.substring(from);
+        }
+        StringBuilder size = new StringBuilder(keyword.length() - from);
+        for (int i = from; i < keyword.length(); i++) {
+            if (isSizeChar(keyword.charAt(i))) size.append(keyword.charAt(i));
+        }
+        return size.toString();
+    }
+
+    private static boolean isSizeChar(char ch) {
+        return (ch >= '0' && ch <= '9') || ch == '.';
+    }
+}
@@ -0,0 +1,19 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+/**
+ * Where {@code FilterPipeline} gets the intent for what the rule-based pre-filter left over.
+ */
+public enum IntentRoute {
+    /**
+     * Nothing left to interpret: stop words and amounts the pre-filter already consumed. No parse runs.
+     */
+    RULES,
+    /**
+     * Only words of the known keyword vocabulary are left; the local parser handles them in-process.
+     */
+    LOCAL,
+    /**
+     * Anything else goes to the LLM, through the intent cache and under the intent deadline.
+     */
+    REMOTE
+}
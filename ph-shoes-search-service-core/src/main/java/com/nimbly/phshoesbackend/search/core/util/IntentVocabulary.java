@@ -0,0 +1,83 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Words of a pre-filter leftover that can be understood without the LLM: filler, gender and the category
+ * words the intent prompt maps to subtitle keywords.
+ */
+public final class IntentVocabulary {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "and", "or", "for", "with", "in", "of", "to", "from", "at", "by",
+            "i", "me", "my", "want", "need", "show", "find", "looking", "search", "please", "some", "any",
+            "pair", "pairs", "shoe", "shoes", "footwear", "brand", "brands", "price", "priced", "php", "peso", "pesos"
+    );
+
+    private static final Map<String, String> GENDERS = Map.ofEntries(
+            Map.entry("men", "male"), Map.entry("mens", "male"), Map.entry("men's", "male"),
+            Map.entry("man", "male"), Map.entry("male", "male"),
+            Map.entry("women", "female"), Map.entry("womens", "female"), Map.entry("women's", "female"),
+            Map.entry("woman", "female"), Map.entry("female", "female"), Map.entry("ladies", "female"),
+            Map.entry("kids", "kids"), Map.entry("kid", "kids"), Map.entry("kid's", "kids"), Map.entry("kids'", "kids"),
+            Map.entry("boys", "kids"), Map.entry("girls", "kids"), Map.entry("children", "kids"), Map.entry("youth", "kids"),
+            Map.entry("unisex", "unisex")
+    );
+
+    private static final Set<String> CATEGORIES = Set.of(
+            "running", "trail", "sneakers", "sneaker", "boots", "boot", "lifestyle", "basketball", "training",
+            "walking", "tennis", "football", "soccer", "skate", "skateboarding", "slides", "slide", "sandals",
+            "casual", "hiking", "gym", "court"
+    );
+
+    private IntentVocabulary() {
+    }
+
+    /**
+     * Lower-cased words of {@code text}: runs of letters, digits and apostrophes, with a dot kept between
+     * digits so {@code 9.5} stays one word.
+     */
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) return words;
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            boolean decimalPoint = ch == '.' && word.length() > 0 && isDigit(word.charAt(word.length() - 1))
+                    && i + 1 < text.length() && isDigit(text.charAt(i + 1));
+            if (QueryLexer.isWordChar(ch) || decimalPoint) {
+                word.append(Character.toLowerCase(ch));
+            } else if (ch == '\'' || ch == '’') {
+                if (word.length() > 0) word.append('\'');
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) words.add(word.toString());
+        return words;
+    }
+
+    public static boolean isStopWord(String word) {
+        return STOP_WORDS.contains(word.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * {@code male}, {@code female}, {@code kids} or {@code unisex} for a gender word, otherwise {@code null}.
+     */
+    public static String genderOf(String word) {
+        return GENDERS.get(word.toLowerCase(Locale.ROOT));
+    }
+
+    public static boolean isCategory(String word) {
+        return CATEGORIES.contains(word.toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+}
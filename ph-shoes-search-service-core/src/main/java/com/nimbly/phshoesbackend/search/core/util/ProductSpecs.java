@@ -6,25 +6,42 @@ import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
-
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * Predicates of the search WHERE clause. Equivalent criteria render the same SQL text: list values are trimmed,
+ * lower-cased (sizes only trimmed), de-duplicated and sorted, and every value is a bind parameter rather than an
+ * inlined literal, so the statement only changes with the shape of the criteria. Plain comparison and {@code LIKE}
+ * values are bound by Hibernate ({@code hibernate.criteria.value_handling_mode=bind}); function arguments go through
+ * {@link #bound}. Hibernate pads the brand {@code IN} list to a power of two
+ * ({@code hibernate.query.in_clause_parameter_padding=true}), which bounds the number of distinct statements it
+ * produces.
+ */
 public class ProductSpecs {
 
     private ProductSpecs() {}
 
     public static Specification<CatalogShoe> brandIn(List<String> brands) {
+        return brandIn(brands, TextFilterMode.LOWER, null);
+    }
+
+    public static Specification<CatalogShoe> brandIn(List<String> brands, TextFilterMode mode, String normalizedAttribute) {
         return (root, query, cb) -> {
-            if (brands == null || brands.isEmpty()) return cb.conjunction();
-            Expression<String> brand = cb.lower(root.get("brand"));
-            List<Predicate> predicates = new ArrayList<>();
-            for (String brandValue : brands) {
-                predicates.add(cb.equal(brand, brandValue.toLowerCase()));
-            }
-            return cb.or(predicates.toArray(new Predicate[0]));
+            List<String> values = canonical(brands, true);
+            if (values.isEmpty()) return cb.conjunction();
+            return switch (mode) {
+                case LOWER -> cb.lower(root.get("brand")).in(values);
+                case ILIKE -> cb.or(values.stream()
+                        .map(brand -> ilike(cb, root.get("brand"), brand))
+                        .toArray(Predicate[]::new));
+                case NORMALIZED -> root.get(normalizedAttribute).in(values);
+            };
         };
     }
 
@@ -49,70 +66,161 @@ public class ProductSpecs {
     }
 
     public static Specification<CatalogShoe> titleMatchesPhrase(String phrase) {
+        return titleMatchesPhrase(phrase, TextFilterMode.LOWER, null);
+    }
+
+    public static Specification<CatalogShoe> titleMatchesPhrase(String phrase, TextFilterMode mode, String normalizedAttribute) {
         return (root, query, cb) ->
-                cb.like(cb.lower(root.get("title")), "%" + phrase.toLowerCase() + "%");
+                contains(root, cb, "title", phrase.trim().toLowerCase(Locale.ROOT), mode, normalizedAttribute);
     }
 
     public static Specification<CatalogShoe> titleContainsAny(List<String> phrases) {
-        return (Root<CatalogShoe> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
-            if (phrases == null || phrases.isEmpty()) return cb.conjunction();
-            Expression<String> title = cb.lower(root.get("title"));
-            Predicate[] titleMatches = phrases.stream()
-                    .filter(Objects::nonNull)
-                    .map(String::trim)
-                    .map(String::toLowerCase)
-                    .filter(phrase -> !phrase.isBlank())
-                    .map(phrase -> cb.like(title, "%" + phrase + "%"))
-                    .toArray(Predicate[]::new);
-            return titleMatches.length == 0 ? cb.conjunction() : cb.or(titleMatches);
-        };
+        return titleContainsAny(phrases, TextFilterMode.LOWER, null);
+    }
+
+    public static Specification<CatalogShoe> titleContainsAny(List<String> phrases, TextFilterMode mode, String normalizedAttribute) {
+        return containsAny("title", phrases, mode, normalizedAttribute);
     }
 
     public static Specification<CatalogShoe> subtitleContainsAny(List<String> phrases) {
+        return subtitleContainsAny(phrases, TextFilterMode.LOWER, null);
+    }
+
+    public static Specification<CatalogShoe> subtitleContainsAny(List<String> phrases, TextFilterMode mode, String normalizedAttribute) {
+        return containsAny("subtitle", phrases, mode, normalizedAttribute);
+    }
+
+    private static Specification<CatalogShoe> containsAny(String attribute, List<String> phrases,
+                                                          TextFilterMode mode, String normalizedAttribute) {
         return (Root<CatalogShoe> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
-            if (phrases == null || phrases.isEmpty()) return cb.conjunction();
-            Expression<String> subtitle = cb.lower(root.get("subtitle"));
-            Predicate[] subtitleMatches = phrases.stream()
-                    .filter(Objects::nonNull)
-                    .map(String::trim)
-                    .map(String::toLowerCase)
-                    .filter(phrase -> !phrase.isBlank())
-                    .map(phrase -> cb.like(subtitle, "%" + phrase + "%"))
+            List<String> values = canonical(phrases, true);
+            if (values.isEmpty()) return cb.conjunction();
+            Predicate[] matches = values.stream()
+                    .map(phrase -> contains(root, cb, attribute, phrase, mode, normalizedAttribute))
                     .toArray(Predicate[]::new);
-            return subtitleMatches.length == 0 ? cb.conjunction() : cb.or(subtitleMatches);
+            return cb.or(matches);
+        };
+    }
+
+    /**
+     * {@code attribute} contains the lower-cased {@code phrase}.
+     */
+    private static Predicate contains(Root<CatalogShoe> root, CriteriaBuilder cb, String attribute, String phrase,
+                                      TextFilterMode mode, String normalizedAttribute) {
+        String pattern = "%" + phrase + "%";
+        return switch (mode) {
+            case LOWER -> cb.like(cb.lower(root.get(attribute)), pattern);
+            case ILIKE -> ilike(cb, root.get(attribute), pattern);
+            case NORMALIZED -> cb.like(root.get(normalizedAttribute), pattern);
         };
     }
 
+    /**
+     * Snowflake's function form of {@code column ILIKE :pattern}; the column itself stays unwrapped.
+     */
+    private static Predicate ilike(CriteriaBuilder cb, Expression<String> column, String pattern) {
+        return cb.isTrue(cb.function("ILIKE", Boolean.class, column, bound(cb, pattern)));
+    }
+
     public static Specification<CatalogShoe> sizeAnyInExtrasTextJson(List<String> sizes) {
         return (root, query, cb) -> {
-            if (sizes == null || sizes.isEmpty()) return cb.conjunction();
+            List<String> values = canonical(sizes, false);
+            if (values.isEmpty()) return cb.conjunction();
 
             Expression<String> extraTxt = cb.function("TO_VARCHAR", String.class, root.get("extra"));
 
-            Predicate[] sizeMatches = sizes.stream()
-                    .filter(Objects::nonNull)
-                    .map(String::trim)
-                    .filter(sizeValue -> !sizeValue.isEmpty())
-                    .map(sizeValue -> {
-                        String esc = sizeValue.replace(".", "\\.");
-                        return cb.isTrue(cb.function(
-                                "REGEXP_LIKE", Boolean.class,
-                                extraTxt,
-                                cb.literal("\\\"sizes\\\"\\s*:\\s*\\[[^\\]]*\\\"" + esc + "\\\"")
-                        ));
-                    })
+            Predicate[] sizeMatches = values.stream()
+                    .map(sizeValue -> cb.isTrue(cb.function(
+                            "REGEXP_LIKE", Boolean.class,
+                            extraTxt,
+                            bound(cb, sizeRegex(sizeValue))
+                    )))
                     .toArray(Predicate[]::new);
             return cb.or(sizeMatches);
         };
     }
 
-    public static Specification<CatalogShoe> collectedOnDateKey(int dateKey) {
+    public static Specification<CatalogShoe> sizeAnyInSizesArray(List<String> sizes) {
         return (root, query, cb) -> {
-            Expression<Integer> yearComponent = cb.prod(root.get("year"), 10000);
-            Expression<Integer> monthComponent = cb.prod(root.get("month"), 100);
-            Expression<Integer> dateKeyExpr = cb.sum(cb.sum(yearComponent, monthComponent), root.get("day"));
-            return cb.equal(dateKeyExpr, dateKey);
+            List<String> values = canonical(sizes, false);
+            if (values.isEmpty()) return cb.conjunction();
+
+            Expression<Object> sizesArray =
+                    cb.function("GET", Object.class, root.get("extra"), cb.literal("sizes"));
+
+            Predicate[] sizeMatches = values.stream()
+                    .map(sizeValue -> cb.isTrue(cb.function(
+                            "ARRAY_CONTAINS", Boolean.class,
+                            cb.function("TO_VARIANT", Object.class, bound(cb, sizeValue)),
+                            sizesArray
+                    )))
+                    .toArray(Predicate[]::new);
+            return cb.or(sizeMatches);
+        };
+    }
+
+    public static Specification<CatalogShoe> sizeAnyIn(List<String> sizes, SizeFilterMode mode) {
+        return mode == SizeFilterMode.REGEX ? sizeAnyInExtrasTextJson(sizes) : sizeAnyInSizesArray(sizes);
+    }
+
+    static String sizeRegex(String sizeValue) {
+        String esc = sizeValue.replace(".", "\\.");
+        return "\\\"sizes\\\"\\s*:\\s*\\[[^\\]]*\\\"" + esc + "\\\"";
+    }
+
+    /**
+     * Trimmed, non-blank, distinct and sorted; lower-cased when {@code lowerCase}.
+     */
+    static List<String> canonical(List<String> values, boolean lowerCase) {
+        if (values == null || values.isEmpty()) return List.of();
+        TreeSet<String> canonical = new TreeSet<>();
+        for (String value : values) {
+            if (value == null) continue;
+            String trimmed = value.trim();
+            if (!trimmed.isEmpty()) canonical.add(lowerCase ? trimmed.toLowerCase(Locale.ROOT) : trimmed);
+        }
+        return new ArrayList<>(canonical);
+    }
+
+    /**
+     * {@code value} as a bind parameter. Hibernate's {@code literal} is rendered inline into the SQL text.
+     */
+    private static <T> Expression<T> bound(CriteriaBuilder cb, T value) {
+        return cb instanceof HibernateCriteriaBuilder hibernate ? hibernate.value(value) : cb.literal(value);
+    }
+
+    public static Specification<CatalogShoe> collectedOnDateKey(int dateKey) {
+        return collectedOnDateKey(dateKey, DateKeyMode.EXPRESSION, null);
+    }
+
+    public static Specification<CatalogShoe> collectedOnDateKey(int dateKey, DateKeyMode mode, String dateKeyAttribute) {
+        return (root, query, cb) -> switch (mode) {
+            case COMPONENTS -> cb.and(
+                    cb.equal(root.get("year"), dateKey / 10000),
+                    cb.equal(root.get("month"), dateKey / 100 % 100),
+                    cb.equal(root.get("day"), dateKey % 100)
+            );
+            case COLUMN -> cb.equal(root.get(dateKeyAttribute), dateKey);
+            case EXPRESSION -> cb.equal(dateKeyExpression(root, cb), dateKey);
         };
     }
+
+    public static Expression<Integer> dateKeyExpression(Root<CatalogShoe> root, CriteriaBuilder cb) {
+        return dateKeyExpression(root, cb, DateKeyMode.EXPRESSION, null);
+    }
+
+    public static Expression<Integer> dateKeyExpression(
+            Root<CatalogShoe> root,
+            CriteriaBuilder cb,
+            DateKeyMode mode,
+            String dateKeyAttribute
+    ) {
+        if (mode == DateKeyMode.COLUMN) {
+            return root.get(dateKeyAttribute);
+        }
+        Expression<Integer> yearComponent = cb.prod(root.get("year"), 10000);
+        Expression<Integer> monthComponent = cb.prod(root.get("month"), 100);
+        return cb.sum(cb.sum(yearComponent, monthComponent), root.get("day"));
+    }
 }
 
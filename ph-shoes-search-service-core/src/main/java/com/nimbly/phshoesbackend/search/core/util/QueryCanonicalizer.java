@@ -0,0 +1,47 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+import java.util.Locale;
+
+public final class QueryCanonicalizer {
+
+    private QueryCanonicalizer() {}
+
+    /**
+     * Lower-cases the query and collapses every whitespace run into a single space so that
+     * cosmetic variations of the same search share cache entries.
+     */
+    public static String canonicalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(query.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < query.length(); i++) {
+            char ch = query.charAt(i);
+            if (Character.isWhitespace(ch)) {
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(ch);
+        }
+        return out.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Stable 64-bit FNV-1a hash of the canonical query as 16 hex digits: identifies repeats of a search in
+     * diagnostics without carrying the shopper's text.
+     */
+    public static String fingerprint(String query) {
+        String canonical = canonicalize(query);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < canonical.length(); i++) {
+            hash ^= canonical.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return String.format("%016x", hash);
+    }
+}
@@ -0,0 +1,217 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Single-pass scanner for the phrases the rule-based pre-filter understands and the digit runs around them.
+ * <p>
+ * Phrases are compiled once into an Aho-Corasick automaton over ASCII-lower-cased input, so one left-to-right
+ * walk reports every occurrence of every phrase, overlapping ones included, no matter how many phrases there
+ * are. Digit runs are recognised in the same walk. Tokens come back ordered by end offset and carry whether
+ * they start and end on a word boundary (the regex {@code \b} test), leaving the caller to decide which
+ * occurrences count. Instances are immutable and safe to share.
+ */
+public final class QueryLexer {
+
+    public enum Kind {
+        BRAND, ON_SALE, PRICE_MAX, PRICE_MIN, SORT_ASC, SORT_DESC, SIZE, UNIT, NUMBER
+    }
+
+    /**
+     * A phrase or digit run at {@code [start, end)} of the scanned text. {@code value} is the phrase's
+     * canonical value ({@code null} for numbers).
+     */
+    public record Token(Kind kind, int start, int end, String value, boolean wordStart, boolean wordEnd) {
+
+        public boolean isWholeWord() {
+            return wordStart && wordEnd;
+        }
+    }
+
+    private static final int ALPHABET = 128;
+
+    private final int[] transitions;
+    private final int[][] matches;
+    private final Kind[] kinds;
+    private final String[] values;
+    private final int[] lengths;
+
+    private QueryLexer(List<Phrase> phrases) {
+        int phraseCount = phrases.size();
+        kinds = new Kind[phraseCount];
+        values = new String[phraseCount];
+        lengths = new int[phraseCount];
+
+        List<int[]> children = new ArrayList<>();
+        List<List<Integer>> terminals = new ArrayList<>();
+        addState(children, terminals);
+        for (int id = 0; id < phraseCount; id++) {
+            Phrase phrase = phrases.get(id);
+            kinds[id] = phrase.kind();
+            values[id] = phrase.value();
+            lengths[id] = phrase.text().length();
+            int state = 0;
+            for (int i = 0; i < phrase.text().length(); i++) {
+                int ch = phrase.text().charAt(i);
+                if (children.get(state)[ch] < 0) {
+                    children.get(state)[ch] = addState(children, terminals);
+                }
+                state = children.get(state)[ch];
+            }
+            terminals.get(state).add(id);
+        }
+
+        int stateCount = children.size();
+        int[] failure = new int[stateCount];
+        transitions = new int[stateCount * ALPHABET];
+        matches = new int[stateCount][];
+        matches[0] = toArray(terminals.get(0), new int[0]);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int ch = 0; ch < ALPHABET; ch++) {
+            int child = children.get(0)[ch];
+            transitions[ch] = Math.max(child, 0);
+            if (child > 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches[state] = toArray(terminals.get(state), matches[failure[state]]);
+            for (int ch = 0; ch < ALPHABET; ch++) {
+                int child = children.get(state)[ch];
+                int fallback = transitions[failure[state] * ALPHABET + ch];
+                if (child < 0) {
+                    transitions[state * ALPHABET + ch] = fallback;
+                } else {
+                    transitions[state * ALPHABET + ch] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Every phrase occurrence and every maximal digit run in {@code text}, ordered by end offset.
+     */
+    public List<Token> scan(CharSequence text) {
+        List<Token> tokens = new ArrayList<>();
+        int length = text.length();
+        int state = 0;
+        int digitsFrom = -1;
+        for (int i = 0; i < length; i++) {
+            char ch = text.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                if (digitsFrom < 0) {
+                    digitsFrom = i;
+                }
+            } else if (digitsFrom >= 0) {
+                tokens.add(number(text, digitsFrom, i));
+                digitsFrom = -1;
+            }
+            state = ch < ALPHABET ? transitions[state * ALPHABET + fold(ch)] : 0;
+            for (int id : matches[state]) {
+                int start = i + 1 - lengths[id];
+                tokens.add(new Token(kinds[id], start, i + 1, values[id],
+                        isBoundary(text, start), isBoundary(text, i + 1)));
+            }
+        }
+        if (digitsFrom >= 0) {
+            tokens.add(number(text, digitsFrom, length));
+        }
+        return tokens;
+    }
+
+    /**
+     * Regex {@code \w}: ASCII letters, digits and underscore.
+     */
+    public static boolean isWordChar(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '_';
+    }
+
+    /**
+     * Regex {@code \s}: space, tab, line feed, vertical tab, form feed and carriage return.
+     */
+    public static boolean isSpace(char ch) {
+        return ch == ' ' || (ch >= '\t' && ch <= '\r');
+    }
+
+    /**
+     * Regex {@code \b} at {@code index}: exactly one of the characters on either side is a word character.
+     */
+    public static boolean isBoundary(CharSequence text, int index) {
+        boolean before = index > 0 && isWordChar(text.charAt(index - 1));
+        boolean after = index < text.length() && isWordChar(text.charAt(index));
+        return before != after;
+    }
+
+    private static Token number(CharSequence text, int start, int end) {
+        return new Token(Kind.NUMBER, start, end, null, isBoundary(text, start), isBoundary(text, end));
+    }
+
+    private static char fold(char ch) {
+        return ch >= 'A' && ch <= 'Z' ? (char) (ch + ('a' - 'A')) : ch;
+    }
+
+    private static int addState(List<int[]> children, List<List<Integer>> terminals) {
+        int[] edges = new int[ALPHABET];
+        Arrays.fill(edges, -1);
+        children.add(edges);
+        terminals.add(new ArrayList<>(1));
+        return children.size() - 1;
+    }
+
+    private static int[] toArray(List<Integer> own, int[] inherited) {
+        if (own.isEmpty()) {
+            return inherited;
+        }
+        int[] ids = Arrays.copyOf(inherited, inherited.length + own.size());
+        for (int i = 0; i < own.size(); i++) {
+            ids[inherited.length + i] = own.get(i);
+        }
+        return ids;
+    }
+
+    private record Phrase(String text, Kind kind, String value) {
+    }
+
+    public static final class Builder {
+
+        private final List<Phrase> phrases = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder phrase(Kind kind, String text, String value) {
+            if (kind == Kind.NUMBER) {
+                throw new IllegalArgumentException("Numbers are recognised by the scanner, not as phrases");
+            }
+            String lower = text == null ? "" : text.toLowerCase(Locale.ROOT);
+            if (lower.isEmpty() || !lower.chars().allMatch(ch -> ch < ALPHABET)) {
+                throw new IllegalArgumentException("Lexer phrases must be non-empty ASCII: '" + text + "'");
+            }
+            phrases.add(new Phrase(lower, kind, value));
+            return this;
+        }
+
+        public Builder phrases(Kind kind, String... texts) {
+            for (String text : texts) {
+                phrase(kind, text, null);
+            }
+            return this;
+        }
+
+        public QueryLexer build() {
+            return new QueryLexer(List.copyOf(phrases));
+        }
+    }
+}
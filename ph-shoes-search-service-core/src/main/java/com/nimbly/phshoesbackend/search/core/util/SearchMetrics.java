@@ -0,0 +1,107 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Latency of the search pipeline stages as one timer, {@code search.stage{stage, outcome}}, with p50/p95/p99
+ * and histogram buckets so a slow search can be attributed to the model, the warehouse or our own code.
+ */
+public final class SearchMetrics {
+
+    public static final String STAGE_TIMER = "search.stage";
+
+    public enum Stage {
+        /**
+         * Rule-based pre-filter analysis: extraction and stripping in one pass.
+         */
+        PRE_FILTER,
+        /**
+         * Time until the intent is known, by route: {@code rules}, {@code local}, {@code cache_hit},
+         * {@code parsed} or {@code fallback}.
+         */
+        INTENT,
+        /**
+         * The LLM call itself, including calls that outlive the intent deadline.
+         */
+        LLM_CALL,
+        NORMALIZE_VALIDATE,
+        /**
+         * Latest collected day lookup: {@code cache_hit} or {@code query}.
+         */
+        LATEST_DATE,
+        SNAPSHOT_QUERY,
+        PAGE_QUERY,
+        COUNT_QUERY,
+        /**
+         * Entity to response mapping, size parsing included.
+         */
+        DTO_MAPPING,
+        SIZE_PARSING;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    public static final String OK = "ok";
+    public static final String ERROR = "error";
+    public static final String CACHE_HIT = "cache_hit";
+    public static final String QUERY = "query";
+    public static final String FALLBACK = "fallback";
+    public static final String RESULTS = "results";
+    public static final String ZERO_RESULTS = "zero_results";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public SearchMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records the time since {@code startedNanos} ({@link System#nanoTime()}).
+     */
+    public void record(Stage stage, String outcome, long startedNanos) {
+        recordNanos(stage, outcome, System.nanoTime() - startedNanos);
+    }
+
+    public void recordNanos(Stage stage, String outcome, long nanos) {
+        timer(stage, outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs {@code work} and records it under the outcome {@code outcomeOf} derives from its result,
+     * or {@link #ERROR} when it throws.
+     */
+    public <T> T time(Stage stage, Supplier<T> work, Function<? super T, String> outcomeOf) {
+        long started = System.nanoTime();
+        T result;
+        try {
+            result = work.get();
+        } catch (RuntimeException | Error e) {
+            record(stage, ERROR, started);
+            throw e;
+        }
+        record(stage, outcomeOf.apply(result), started);
+        return result;
+    }
+
+    public <T> T time(Stage stage, Supplier<T> work) {
+        return time(stage, work, result -> OK);
+    }
+
+    private Timer timer(Stage stage, String outcome) {
+        return timers.computeIfAbsent(stage.tag + '|' + outcome, key -> Timer.builder(STAGE_TIMER)
+                .description("Latency of one search pipeline stage")
+                .tags("stage", stage.tag, "outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
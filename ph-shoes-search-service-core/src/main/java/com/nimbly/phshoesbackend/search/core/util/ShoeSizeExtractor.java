@@ -0,0 +1,149 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the {@code sizes} array out of a catalog row's {@code extra} JSON blob.
+ * <p>
+ * Streams the document instead of building a tree: top-level fields before {@code sizes} are skipped
+ * without materializing them and parsing stops right after the array. Common US sizes are returned as
+ * shared constants rather than fresh strings. Blobs that are not valid JSON count towards
+ * {@code search.sizes.malformed} and yield no sizes.
+ */
+@Slf4j
+@Component
+public class ShoeSizeExtractor {
+
+    static final String SIZES_FIELD = "sizes";
+
+    /**
+     * {@code "0"}, {@code "0.5"}, ..., {@code "20"}, {@code "20.5"}; index is {@code 2 * size}.
+     */
+    private static final String[] COMMON_SIZES = new String[42];
+
+    static {
+        for (int i = 0; i < COMMON_SIZES.length; i++) {
+            COMMON_SIZES[i] = (i / 2) + (i % 2 == 0 ? "" : ".5");
+        }
+    }
+
+    private final JsonFactory jsonFactory;
+    private final Counter malformed;
+
+    public ShoeSizeExtractor(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.malformed = Counter.builder("search.sizes.malformed")
+                .description("extra blobs that could not be parsed while extracting sizes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sizes as shown in search results: textual and numeric elements, or {@code null} when there are none.
+     */
+    public List<String> extract(String extra) {
+        return extract(extra, false);
+    }
+
+    /**
+     * Sizes the SQL size predicates can match: textual elements only, never {@code null}.
+     */
+    public List<String> extractFilterable(String extra) {
+        List<String> sizes = extract(extra, true);
+        return sizes == null ? List.of() : sizes;
+    }
+
+    private List<String> extract(String extra, boolean textualOnly) {
+        if (extra == null || extra.isBlank()) {
+            return null;
+        }
+        try (JsonParser parser = jsonFactory.createParser(extra)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean isSizes = SIZES_FIELD.equals(parser.currentName());
+                JsonToken value = parser.nextToken();
+                if (!isSizes) {
+                    parser.skipChildren();
+                    continue;
+                }
+                return value == JsonToken.START_ARRAY ? readSizes(parser, textualOnly) : null;
+            }
+            return null;
+        } catch (JsonProcessingException e) {
+            malformed.increment();
+            log.debug("Malformed extra blob while extracting sizes: {}", e.getOriginalMessage());
+            return null;
+        } catch (IOException e) {
+            malformed.increment();
+            return null;
+        }
+    }
+
+    private static List<String> readSizes(JsonParser parser, boolean textualOnly) throws IOException {
+        List<String> sizes = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new IOException("Unterminated sizes array");
+            }
+            switch (token) {
+                case VALUE_STRING -> addIfPresent(sizes, parser);
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> {
+                    if (!textualOnly) {
+                        addIfPresent(sizes, parser);
+                    }
+                }
+                case START_OBJECT, START_ARRAY -> parser.skipChildren();
+                default -> {
+                }
+            }
+        }
+        return sizes.isEmpty() ? null : sizes;
+    }
+
+    private static void addIfPresent(List<String> sizes, JsonParser parser) throws IOException {
+        String size = intern(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        if (!size.isBlank()) {
+            sizes.add(size);
+        }
+    }
+
+    /**
+     * Shared constant for canonical sizes ({@code "7"}, {@code "10.5"}), otherwise a new string.
+     */
+    static String intern(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int whole = 0;
+        int i = offset;
+        while (i < end && i - offset < 2 && chars[i] >= '0' && chars[i] <= '9') {
+            whole = whole * 10 + (chars[i] - '0');
+            i++;
+        }
+        boolean leadingZero = i - offset == 2 && chars[offset] == '0';
+        if (i > offset && !leadingZero) {
+            int index = -1;
+            if (i == end) {
+                index = whole * 2;
+            } else if (end - i == 2 && chars[i] == '.' && chars[i + 1] == '5') {
+                index = whole * 2 + 1;
+            }
+            if (index >= 0 && index < COMMON_SIZES.length) {
+                return COMMON_SIZES[index];
+            }
+        }
+        return new String(chars, offset, length);
+    }
+}
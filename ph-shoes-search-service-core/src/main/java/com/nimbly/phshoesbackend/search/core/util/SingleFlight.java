@@ -0,0 +1,115 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller (the leader) runs the loader on its own
+ * thread and every caller arriving while it runs waits for and shares its result, or its exception.
+ * Nothing is kept once the leader finishes, so this is not a cache. A mutable result can be handed to each
+ * waiting caller through {@code share}, e.g. a copy, so callers never see one another's changes.
+ * <p>
+ * Waiting is bounded: a caller that has waited {@code maxWait} runs the loader itself. Outcomes are
+ * counted as {@code search.singleflight{name, outcome=leader|shared|timeout|interrupted}} and the keys in
+ * flight are gauged as {@code search.singleflight.inflight{name}}.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final UnaryOperator<V> share;
+    private final Counter leaders;
+    private final Counter shared;
+    private final Counter timeouts;
+    private final Counter interrupted;
+
+    public SingleFlight(String name, Duration maxWait, MeterRegistry meterRegistry) {
+        this(name, maxWait, UnaryOperator.identity(), meterRegistry);
+    }
+
+    /**
+     * @param share applied to the leader's result for each waiting caller; the leader keeps the original
+     */
+    public SingleFlight(String name, Duration maxWait, UnaryOperator<V> share, MeterRegistry meterRegistry) {
+        this.maxWait = maxWait;
+        this.share = share;
+        this.leaders = outcome(meterRegistry, name, "leader");
+        this.shared = outcome(meterRegistry, name, "shared");
+        this.timeouts = outcome(meterRegistry, name, "timeout");
+        this.interrupted = outcome(meterRegistry, name, "interrupted");
+        Gauge.builder("search.singleflight.inflight", inFlight, ConcurrentMap::size)
+                .description("Distinct keys with a computation in flight")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, own);
+        if (leader == null) {
+            leaders.increment();
+            return lead(key, own, loader);
+        }
+        try {
+            V result = leader.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+            shared.increment();
+            return share.apply(result);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            shared.increment();
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupted.increment();
+            return loader.get();
+        }
+    }
+
+    /**
+     * Runs the loader and releases the key before completing {@code own}, so a caller arriving once the outcome is
+     * known starts a fresh computation instead of joining the finished one (and inheriting a stale failure).
+     */
+    private V lead(K key, CompletableFuture<V> own, Supplier<V> loader) {
+        V result;
+        try {
+            result = loader.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, own);
+            own.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, own);
+        own.complete(result);
+        return result;
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder("search.singleflight")
+                .description("Calls that led, shared or gave up waiting on an identical in-flight computation")
+                .tags("name", name, "outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,15 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+/**
+ * How the requested-sizes filter is rendered against the {@code extra} VARIANT column.
+ */
+public enum SizeFilterMode {
+    /**
+     * {@code REGEXP_LIKE(TO_VARCHAR(extra), ...)} per size. Serializes and regex-scans every row.
+     */
+    REGEX,
+    /**
+     * {@code ARRAY_CONTAINS(TO_VARIANT(:size), GET(extra, 'sizes'))} per size, against the parsed array.
+     */
+    ARRAY_CONTAINS
+}
@@ -1,6 +1,7 @@
 package com.nimbly.phshoesbackend.search.core.util;
 
 import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.config.props.CatalogQueryProperties;
 import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
@@ -9,16 +10,24 @@ import java.util.List;
 
 @Component
 public class SpecificationBuilder {
+
+    private final CatalogQueryProperties queryProperties;
+
+    public SpecificationBuilder(CatalogQueryProperties queryProperties) {
+        this.queryProperties = queryProperties;
+    }
+
     public Specification<CatalogShoe> build(AISearchFilterCriteria criteria) {
         Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
+        TextFilterMode textMode = queryProperties.getTextFilterMode();
 
         List<String> brands = criteria.getBrands();
         if (brands != null && !brands.isEmpty()) {
-            spec = spec.and(ProductSpecs.brandIn(brands));
+            spec = spec.and(ProductSpecs.brandIn(brands, textMode, queryProperties.getNormalizedBrandAttribute()));
         }
 
         if (criteria.getSizes() != null && !criteria.getSizes().isEmpty()) {
-            spec = spec.and(ProductSpecs.sizeAnyInExtrasTextJson(criteria.getSizes()));
+            spec = spec.and(ProductSpecs.sizeAnyIn(criteria.getSizes(), queryProperties.getSizeFilterMode()));
         }
 
         if (criteria.getPriceSaleMin() != null) {
@@ -39,16 +48,19 @@ public class SpecificationBuilder {
         }
 
         if (criteria.getModel() != null && !criteria.getModel().isBlank()) {
-            spec = spec.and(ProductSpecs.titleMatchesPhrase(criteria.getModel()));
+            spec = spec.and(ProductSpecs.titleMatchesPhrase(
+                    criteria.getModel(), textMode, queryProperties.getNormalizedTitleAttribute()));
         } else if ((criteria.getTitleKeywords() != null && !criteria.getTitleKeywords().isEmpty())
                 || (criteria.getSubtitleKeywords() != null && !criteria.getSubtitleKeywords().isEmpty())) {
             Specification<CatalogShoe> keywordSpec = null;
             if (criteria.getTitleKeywords() != null && !criteria.getTitleKeywords().isEmpty()) {
-                keywordSpec = ProductSpecs.titleContainsAny(criteria.getTitleKeywords());
+                keywordSpec = ProductSpecs.titleContainsAny(
+                        criteria.getTitleKeywords(), textMode, queryProperties.getNormalizedTitleAttribute());
             }
             if (criteria.getSubtitleKeywords() != null && !criteria.getSubtitleKeywords().isEmpty()) {
                 Specification<CatalogShoe> subtitleSpec =
-                        ProductSpecs.subtitleContainsAny(criteria.getSubtitleKeywords());
+                        ProductSpecs.subtitleContainsAny(criteria.getSubtitleKeywords(), textMode,
+                                queryProperties.getNormalizedSubtitleAttribute());
                 keywordSpec = keywordSpec == null ? subtitleSpec : keywordSpec.or(subtitleSpec);
             }
             if (keywordSpec != null) {
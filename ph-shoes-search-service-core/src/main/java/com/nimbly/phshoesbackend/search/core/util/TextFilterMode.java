@@ -0,0 +1,22 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+/**
+ * How the brand and title/subtitle filters are rendered against the catalog table.
+ */
+public enum TextFilterMode {
+    /**
+     * {@code lower(brand) in (...)}, {@code lower(title) like :pattern}. The function on the column hides it from
+     * micro-partition pruning and search optimization.
+     */
+    LOWER,
+    /**
+     * {@code ILIKE(brand, :brand)}, {@code ILIKE(title, :pattern)}: case-insensitive on the raw columns, a form
+     * search optimization's substring support applies to.
+     */
+    ILIKE,
+    /**
+     * {@code brand_normalized in (...)}, {@code title_normalized like :pattern} against lower-cased attributes mapped
+     * on the entity (populated at ingest or exposed by a view), so the columns are compared as stored.
+     */
+    NORMALIZED
+}
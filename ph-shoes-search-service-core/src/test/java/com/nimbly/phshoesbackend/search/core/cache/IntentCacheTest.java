@@ -0,0 +1,161 @@
+package com.nimbly.phshoesbackend.search.core.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbly.phshoesbackend.search.core.config.props.IntentCacheProperties;
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntentCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void get_parsesOncePerCanonicalLeftover() {
+        // Arrange
+        IntentCache cache = new IntentCache(new IntentCacheProperties(), new ObjectMapper(), meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        cache.get("  Running   Shoes ", leftover -> parsed(calls, leftover));
+        AISearchFilterCriteria second = cache.get("running shoes", leftover -> parsed(calls, leftover));
+
+        // Assert
+        assertThat(calls).hasValue(1);
+        assertThat(second.getTitleKeywords()).containsExactly("  Running   Shoes ");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "search.intent").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void get_sharesAnInFlightParseWithoutBlockingOtherKeys() throws Exception {
+        // Arrange
+        IntentCache cache = new IntentCache(new IntentCacheProperties(), new ObjectMapper(), meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch parsing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<AISearchFilterCriteria> first = CompletableFuture.supplyAsync(() ->
+                    cache.get("trail", leftover -> {
+                        parsing.countDown();
+                        await(release);
+                        return parsed(calls, leftover);
+                    }), executor);
+            assertThat(parsing.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<AISearchFilterCriteria> second = CompletableFuture.supplyAsync(() ->
+                    cache.get("TRAIL", leftover -> parsed(calls, leftover)), executor);
+
+            // Act
+            AISearchFilterCriteria other = cache.get("running", leftover -> parsed(calls, leftover));
+            AISearchFilterCriteria pending = cache.getIfPresent("trail");
+            release.countDown();
+
+            // Assert
+            assertThat(other.getTitleKeywords()).containsExactly("running");
+            assertThat(pending).isNull();
+            assertThat(first.get(5, TimeUnit.SECONDS).getTitleKeywords()).containsExactly("trail");
+            assertThat(second.get(5, TimeUnit.SECONDS).getTitleKeywords()).containsExactly("trail");
+            assertThat(calls).hasValue(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_keepsNoFailedParse() {
+        // Arrange
+        IntentCache cache = new IntentCache(new IntentCacheProperties(), new ObjectMapper(), meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        assertThatThrownBy(() -> cache.get("trail", leftover -> {
+            throw new IllegalStateException("model down");
+        })).isInstanceOf(IllegalStateException.class);
+        AISearchFilterCriteria retried = cache.get("trail", leftover -> parsed(calls, leftover));
+
+        // Assert
+        assertThat(calls).hasValue(1);
+        assertThat(retried.getTitleKeywords()).containsExactly("trail");
+    }
+
+    @Test
+    void get_returnsDefensiveCopies() {
+        // Arrange
+        IntentCache cache = new IntentCache(new IntentCacheProperties(), new ObjectMapper(), meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+        cache.get("trail", leftover -> parsed(calls, leftover)).getTitleKeywords().add("mutated");
+
+        // Act
+        AISearchFilterCriteria cached = cache.get("trail", leftover -> parsed(calls, leftover));
+
+        // Assert
+        assertThat(cached.getTitleKeywords()).containsExactly("trail");
+    }
+
+    @Test
+    void get_bypassesCacheWhenDisabled() {
+        // Arrange
+        IntentCacheProperties properties = new IntentCacheProperties();
+        properties.setEnabled(false);
+        IntentCache cache = new IntentCache(properties, new ObjectMapper(), meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        cache.get("trail", leftover -> parsed(calls, leftover));
+        cache.get("trail", leftover -> parsed(calls, leftover));
+
+        // Assert
+        assertThat(calls).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void snapshot_roundTripsEntriesAcrossRestarts(@TempDir Path tempDir) {
+        // Arrange
+        IntentCacheProperties properties = new IntentCacheProperties();
+        properties.setSnapshotPath(tempDir.resolve("intent-cache.json").toString());
+        properties.setLoadSnapshotOnStartup(true);
+        IntentCache first = new IntentCache(properties, new ObjectMapper(), meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+        first.get("trail", leftover -> parsed(calls, leftover));
+        first.writeSnapshot();
+
+        // Act
+        IntentCache restarted = new IntentCache(properties, new ObjectMapper(), new SimpleMeterRegistry());
+        AISearchFilterCriteria restored = restarted.get("trail", leftover -> parsed(calls, leftover));
+
+        // Assert
+        assertThat(calls).hasValue(1);
+        assertThat(restored.getTitleKeywords()).containsExactly("trail");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static AISearchFilterCriteria parsed(AtomicInteger calls, String leftover) {
+        calls.incrementAndGet();
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setTitleKeywords(new ArrayList<>(List.of(leftover)));
+        return criteria;
+    }
+}
@@ -0,0 +1,95 @@
+package com.nimbly.phshoesbackend.search.core.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbly.phshoesbackend.search.core.config.props.ResponseCacheProperties;
+import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponse;
+import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponseFilter;
+import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponseResults;
+import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponseResultsContentInner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResponseCacheTest {
+
+    private final Pageable pageable = PageRequest.of(0, 10);
+
+    private final SearchResponseCache cache = new SearchResponseCache(new ResponseCacheProperties(),
+            new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry());
+
+    @Test
+    void get_servesACopyOfTheStoredResponse() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        TextSearchResponse loaded = cache.get("nike", pageable, 20260124, () -> response(loads));
+
+        // Act
+        TextSearchResponse cached = cache.get("Nike", pageable, 20260124, () -> response(loads));
+
+        // Assert
+        assertThat(loads).hasValue(1);
+        assertThat(cached).isEqualTo(loaded).isNotSameAs(loaded);
+        assertThat(cached.getResults().getContent().get(0).getCollectedDate()).isEqualTo(LocalDate.of(2026, 1, 24));
+    }
+
+    @Test
+    void get_isNotAffectedByCallersMutatingTheirResponse() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("nike", pageable, 20260124, () -> response(loads)).getFilter().getBrands().add("adidas");
+        cache.get("nike", pageable, 20260124, () -> response(loads)).getResults().getContent().clear();
+
+        // Act
+        TextSearchResponse cached = cache.get("nike", pageable, 20260124, () -> response(loads));
+
+        // Assert
+        assertThat(loads).hasValue(1);
+        assertThat(cached.getFilter().getBrands()).containsExactly("nike");
+        assertThat(cached.getResults().getContent()).hasSize(1);
+    }
+
+    @Test
+    void get_neverStoresDegradedResponses() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        cache.get("nike", pageable, 20260124, () -> response(loads).degraded(true));
+        cache.get("nike", pageable, 20260124, () -> response(loads).degraded(true));
+
+        // Assert
+        assertThat(loads).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    private static TextSearchResponse response(AtomicInteger loads) {
+        loads.incrementAndGet();
+        TextSearchResponseResultsContentInner shoe = new TextSearchResponseResultsContentInner()
+                .id("id-1")
+                .brand("nike")
+                .title("Pegasus 41")
+                .url(URI.create("https://example.com/pegasus"))
+                .collectedDate(LocalDate.of(2026, 1, 24))
+                .sizes(new ArrayList<>(List.of("9", "9.5")));
+        return new TextSearchResponse()
+                .filter(new TextSearchResponseFilter().brands(new ArrayList<>(List.of("nike"))))
+                .results(new TextSearchResponseResults()
+                        .content(new ArrayList<>(List.of(shoe)))
+                        .page(0)
+                        .size(10)
+                        .totalElements(1L)
+                        .first(true)
+                        .last(true)
+                        .empty(false))
+                .degraded(false);
+    }
+}
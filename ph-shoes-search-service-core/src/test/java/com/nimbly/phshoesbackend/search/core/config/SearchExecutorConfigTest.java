@@ -0,0 +1,75 @@
+package com.nimbly.phshoesbackend.search.core.config;
+
+import com.nimbly.phshoesbackend.search.core.config.props.SearchExecutorProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchExecutorConfigTest {
+
+    private static final int BLOCKING_TASKS = 2_000;
+
+    @Test
+    void virtualSearchTaskExecutor_runsBlockingTasksBeyondPlatformPoolCapacity() throws Exception {
+        // Arrange
+        SearchExecutorProperties properties = new SearchExecutorProperties();
+        SimpleAsyncTaskExecutor executor = new SearchExecutorConfig().virtualSearchTaskExecutor(properties);
+        CountDownLatch allStarted = new CountDownLatch(BLOCKING_TASKS);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act
+        for (int i = 0; i < BLOCKING_TASKS; i++) {
+            executor.execute(() -> {
+                allStarted.countDown();
+                await(release);
+            });
+        }
+        boolean concurrent = allStarted.await(10, TimeUnit.SECONDS);
+        release.countDown();
+
+        // Assert
+        assertThat(BLOCKING_TASKS).isGreaterThan(properties.getMaxPoolSize() + properties.getQueueCapacity());
+        assertThat(concurrent).isTrue();
+    }
+
+    @Test
+    void searchTaskExecutor_rejectsOnceBlockingTasksFillPoolAndQueue() {
+        // Arrange
+        SearchExecutorProperties properties = new SearchExecutorProperties();
+        properties.setCorePoolSize(2);
+        properties.setMaxPoolSize(2);
+        properties.setQueueCapacity(2);
+        ThreadPoolTaskExecutor executor = new SearchExecutorConfig().searchTaskExecutor(properties);
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            // Act
+            for (int i = 0; i < 4; i++) {
+                executor.execute(() -> await(release));
+            }
+
+            // Assert
+            assertThatThrownBy(() -> executor.execute(() -> await(release)))
+                    .isInstanceOf(TaskRejectedException.class);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.nimbly.phshoesbackend.search.core.jfr;
+
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.util.IntentRoute;
+import com.nimbly.phshoesbackend.search.core.util.QueryCanonicalizer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilterPipelineEventTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void complete_recordsTheCriteriaShapeAndStageDurations() throws Exception {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setBrands(List.of("nike", "adidas"));
+        criteria.setSizes(List.of("10"));
+        criteria.setPriceSaleMax(5000.0);
+        criteria.setTitleKeywords(List.of("running"));
+        Path dump = tempDir.resolve("pipeline.jfr");
+
+        // Act
+        try (Recording recording = new Recording()) {
+            recording.enable(FilterPipelineEvent.NAME);
+            recording.start();
+            FilterPipelineEvent event = new FilterPipelineEvent();
+            event.begin();
+            event.complete("Nike  Adidas running size 10 under 5000", IntentRoute.REMOTE, criteria, true, false,
+                    1_000, 2_000_000, 3_000);
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        // Assert
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertThat(events).hasSize(1);
+        RecordedEvent recorded = events.get(0);
+        assertThat(recorded.getString("queryFingerprint"))
+                .isEqualTo(QueryCanonicalizer.fingerprint("nike adidas running size 10 under 5000"))
+                .hasSize(16);
+        assertThat(recorded.getString("route")).isEqualTo("REMOTE");
+        assertThat(recorded.getString("criteriaShape")).isEqualTo("brands=2,sizes=1,sale_max,title=1");
+        assertThat(recorded.getBoolean("degraded")).isTrue();
+        assertThat(recorded.getBoolean("rejected")).isFalse();
+        assertThat(recorded.getDuration("intent")).isEqualTo(Duration.ofMillis(2));
+    }
+
+    @Test
+    void complete_commitsNothingWhenTheEventIsDisabled() throws Exception {
+        // Arrange
+        Path dump = tempDir.resolve("other.jfr");
+
+        // Act
+        try (Recording recording = new Recording()) {
+            recording.disable(FilterPipelineEvent.NAME);
+            recording.start();
+            FilterPipelineEvent event = new FilterPipelineEvent();
+            event.begin();
+            event.complete("nike", IntentRoute.RULES, new AISearchFilterCriteria(), false, false, 0, 0, 0);
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        // Assert
+        assertThat(RecordingFile.readAllEvents(dump)).isEmpty();
+    }
+}
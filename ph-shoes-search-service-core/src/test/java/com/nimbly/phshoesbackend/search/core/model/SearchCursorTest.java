@@ -0,0 +1,56 @@
+package com.nimbly.phshoesbackend.search.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchCursorTest {
+
+    @Test
+    void decode_roundTripsEncodedCursor() {
+        // Arrange
+        SearchCursor cursor = new SearchCursor(4, 15, 20250220);
+
+        // Act
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+        // Assert
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_keepsMissingDateKey() {
+        // Arrange
+        SearchCursor cursor = new SearchCursor(1, 10, null);
+
+        // Act
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+        // Assert
+        assertThat(decoded.dateKey()).isNull();
+        assertThat(decoded.next()).isEqualTo(new SearchCursor(2, 10, null));
+    }
+
+    @Test
+    void decode_rejectsForeignTokens() {
+        // Arrange / Act / Assert
+        assertThatThrownBy(() -> SearchCursor.decode("not-a-cursor")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SearchCursor.decode("%%%")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SearchCursor.decode(new SearchCursor(-1, 10, null).encode()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void decode_rejectsSizesAboveTheApiMaximum() {
+        // Arrange
+        String oversized = new SearchCursor(0, SearchCursor.MAX_SIZE + 1, 20250220).encode();
+        String maxInt = new SearchCursor(0, Integer.MAX_VALUE, 20250220).encode();
+
+        // Act / Assert
+        assertThat(SearchCursor.decode(new SearchCursor(0, SearchCursor.MAX_SIZE, 20250220).encode()).size())
+                .isEqualTo(SearchCursor.MAX_SIZE);
+        assertThatThrownBy(() -> SearchCursor.decode(oversized)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SearchCursor.decode(maxInt)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,208 @@
+package com.nimbly.phshoesbackend.search.core.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.config.SearchExecutorConfig;
+import com.nimbly.phshoesbackend.search.core.config.props.SearchExecutorProperties;
+import com.nimbly.phshoesbackend.search.core.model.CatalogPage;
+import com.nimbly.phshoesbackend.search.core.util.ShoeSizeExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSearchRepositoryTest {
+
+    private final ShoeSizeExtractor sizeExtractor = new ShoeSizeExtractor(new ObjectMapper(), new SimpleMeterRegistry());
+
+    @Test
+    void toShoe_copiesProjectedColumnsAndWrapsSizes() {
+        // Arrange
+        Tuple row = mock(Tuple.class);
+        when(row.get(eq("id"), eq(String.class))).thenReturn("id-1");
+        when(row.get(eq("brand"), eq(String.class))).thenReturn("nike");
+        when(row.get(eq("title"), eq(String.class))).thenReturn("Pegasus 41");
+        when(row.get(eq("priceSale"), eq(Double.class))).thenReturn(5495.0);
+        when(row.get(eq("year"), eq(Integer.class))).thenReturn(2025);
+        when(row.get(eq("sizes"), eq(String.class))).thenReturn("[\n  \"8\",\n  \"9.5\",\n  10\n]");
+
+        // Act
+        CatalogShoe shoe = CatalogSearchRepository.toShoe(row);
+
+        // Assert
+        assertThat(shoe.getId()).isEqualTo("id-1");
+        assertThat(shoe.getBrand()).isEqualTo("nike");
+        assertThat(shoe.getTitle()).isEqualTo("Pegasus 41");
+        assertThat(shoe.getPriceSale()).isEqualTo(5495.0);
+        assertThat(shoe.getYear()).isEqualTo(2025);
+        assertThat(sizeExtractor.extract(shoe.getExtra())).containsExactly("8", "9.5", "10");
+        assertThat(sizeExtractor.extractFilterable(shoe.getExtra())).isEqualTo(List.of("8", "9.5"));
+    }
+
+    @Test
+    void toShoe_leavesExtraEmptyWithoutSizes() {
+        // Arrange
+        Tuple row = mock(Tuple.class);
+
+        // Act
+        CatalogShoe shoe = CatalogSearchRepository.toShoe(row);
+
+        // Assert
+        assertThat(shoe.getExtra()).isNull();
+        assertThat(sizeExtractor.extract(shoe.getExtra())).isNull();
+    }
+
+    @Test
+    void windowedPage_readsTheTotalFromTheRowsWithoutCounting() {
+        // Arrange
+        Tuple first = mock(Tuple.class);
+        when(first.get(eq("id"), eq(String.class))).thenReturn("id-1");
+        when(first.get(eq("total"), eq(Long.class))).thenReturn(42L);
+        Tuple second = mock(Tuple.class);
+        when(second.get(eq("id"), eq(String.class))).thenReturn("id-2");
+        when(second.get(eq("total"), eq(Long.class))).thenReturn(42L);
+        AtomicInteger counts = new AtomicInteger();
+
+        // Act
+        CatalogPage windowed = CatalogSearchRepository.windowedPage(List.of(first, second), PageRequest.of(1, 2), true,
+                counts::incrementAndGet);
+
+        // Assert
+        Page<CatalogShoe> page = windowed.page();
+        assertThat(windowed.counted()).isFalse();
+        assertThat(page.getContent()).extracting(CatalogShoe::getId).containsExactly("id-1", "id-2");
+        assertThat(page.getTotalElements()).isEqualTo(42);
+        assertThat(page.getTotalPages()).isEqualTo(21);
+        assertThat(counts).hasValue(0);
+    }
+
+    @Test
+    void windowedPage_countsOnlyWhenAPagePastTheEndCarriesNoTotal() {
+        // Arrange
+        AtomicInteger counts = new AtomicInteger();
+
+        // Act
+        CatalogPage first = CatalogSearchRepository.windowedPage(List.of(), PageRequest.of(0, 20), false,
+                counts::incrementAndGet);
+        CatalogPage pastTheEnd = CatalogSearchRepository.windowedPage(List.of(), PageRequest.of(5, 20), false,
+                () -> 30);
+
+        // Assert
+        assertThat(first.page().getTotalElements()).isZero();
+        assertThat(first.counted()).isFalse();
+        assertThat(counts).hasValue(0);
+        assertThat(pastTheEnd.page().getContent()).isEmpty();
+        assertThat(pastTheEnd.page().getTotalElements()).isEqualTo(30);
+        assertThat(pastTheEnd.counted()).isTrue();
+    }
+
+    @Test
+    void concurrentPage_countsInlineWhenTheExecutorRejects() {
+        // Arrange
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("saturated");
+        };
+
+        // Act
+        CatalogPage page = CatalogSearchRepository.concurrentPage(() -> shoes(2), PageRequest.of(0, 2),
+                rejecting, () -> 40);
+
+        // Assert
+        assertThat(page.page().getContent()).hasSize(2);
+        assertThat(page.page().getTotalElements()).isEqualTo(40);
+        assertThat(page.counted()).isTrue();
+    }
+
+    @Test
+    void concurrentPage_cancelsTheQueuedCountForAShortPage() {
+        // Arrange
+        List<Runnable> queued = new ArrayList<>();
+        AtomicInteger counts = new AtomicInteger();
+
+        // Act
+        CatalogPage page = CatalogSearchRepository.concurrentPage(() -> shoes(3), PageRequest.of(2, 10),
+                queued::add, counts::incrementAndGet);
+        queued.forEach(Runnable::run);
+
+        // Assert
+        assertThat(page.page().getTotalElements()).isEqualTo(23);
+        assertThat(page.counted()).isFalse();
+        assertThat(counts).hasValue(0);
+    }
+
+    @Test
+    void concurrentPage_readsTheConcurrentCountForAFullPage() {
+        // Arrange
+        AtomicInteger counts = new AtomicInteger();
+
+        // Act
+        CatalogPage page = CatalogSearchRepository.concurrentPage(() -> shoes(2), PageRequest.of(0, 2),
+                Runnable::run, () -> 10 + counts.incrementAndGet());
+
+        // Assert
+        assertThat(page.page().getTotalElements()).isEqualTo(11);
+        assertThat(page.counted()).isTrue();
+        assertThat(counts).hasValue(1);
+    }
+
+    @Test
+    void concurrentPage_countsInlineWhenTheCallerRunsOnTheOneThreadSearchPool() throws Exception {
+        // Arrange
+        SearchExecutorProperties properties = new SearchExecutorProperties();
+        properties.setCorePoolSize(1);
+        properties.setMaxPoolSize(1);
+        ThreadPoolTaskExecutor pool = new SearchExecutorConfig().searchTaskExecutor(properties);
+        pool.initialize();
+
+        try {
+            // Act
+            CatalogPage page = pool.submit(() -> CatalogSearchRepository.concurrentPage(() -> shoes(2),
+                    PageRequest.of(0, 2), pool, () -> 40)).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertThat(page.page().getTotalElements()).isEqualTo(40);
+            assertThat(page.counted()).isTrue();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentPage_claimsACountStillQueuedBehindASaturatedExecutor() {
+        // Arrange
+        List<Runnable> queued = new ArrayList<>();
+        AtomicInteger counts = new AtomicInteger();
+
+        // Act
+        CatalogPage page = CatalogSearchRepository.concurrentPage(() -> shoes(2), PageRequest.of(0, 2),
+                queued::add, () -> 40 + counts.incrementAndGet());
+        queued.forEach(Runnable::run);
+
+        // Assert
+        assertThat(page.page().getTotalElements()).isEqualTo(41);
+        assertThat(page.counted()).isTrue();
+        assertThat(counts).hasValue(1);
+    }
+
+    private static List<CatalogShoe> shoes(int count) {
+        List<CatalogShoe> shoes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            shoes.add(new CatalogShoe());
+        }
+        return shoes;
+    }
+}
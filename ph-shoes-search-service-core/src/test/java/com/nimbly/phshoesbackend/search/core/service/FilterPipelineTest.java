@@ -1,14 +1,41 @@
 package com.nimbly.phshoesbackend.search.core.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbly.phshoesbackend.search.core.cache.IntentCache;
+import com.nimbly.phshoesbackend.search.core.config.SearchExecutorConfig;
+import com.nimbly.phshoesbackend.search.core.config.props.IntentCacheProperties;
+import com.nimbly.phshoesbackend.search.core.config.props.IntentParsingProperties;
+import com.nimbly.phshoesbackend.search.core.config.props.SearchExecutorProperties;
 import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.model.FilterPipelineResult;
+import com.nimbly.phshoesbackend.search.core.model.PreFilterAnalysis;
+import com.nimbly.phshoesbackend.search.core.service.impl.KeywordIntentParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,11 +50,26 @@ class FilterPipelineTest {
     @Mock
     private FilterValidator filterValidator;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ExecutorService executor;
+
     private FilterPipeline filterPipeline;
 
     @BeforeEach
     void setup() {
-        filterPipeline = new FilterPipeline(preFilterExtractor, openAiIntentParserService, filterValidator);
+        IntentCache intentCache = new IntentCache(new IntentCacheProperties(), new ObjectMapper(), meterRegistry);
+        IntentParsingProperties intentProperties = new IntentParsingProperties();
+        intentProperties.setTimeout(Duration.ofMillis(200));
+        executor = Executors.newSingleThreadExecutor();
+        filterPipeline = new FilterPipeline(preFilterExtractor, new IntentRouter(intentProperties),
+                openAiIntentParserService, new KeywordIntentParser(), filterValidator, intentCache, executor,
+                intentProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
     }
 
     @Test
@@ -42,13 +84,12 @@ class FilterPipelineTest {
         AISearchFilterCriteria fuzzy = new AISearchFilterCriteria();
         fuzzy.setSortBy("price_asc");
 
-        when(preFilterExtractor.extract("query")).thenReturn(base);
-        when(preFilterExtractor.strip("query")).thenReturn("query");
+        when(preFilterExtractor.analyze("query")).thenReturn(new PreFilterAnalysis(base, "query"));
         when(openAiIntentParserService.parseIntent("query")).thenReturn(fuzzy);
         doNothing().when(filterValidator).validate(base);
 
         // Act
-        AISearchFilterCriteria result = filterPipeline.process("query");
+        AISearchFilterCriteria result = filterPipeline.process("query").criteria();
 
         // Assert
         assertThat(result.getSortBy()).isEqualTo("price_asc");
@@ -67,13 +108,12 @@ class FilterPipelineTest {
         AISearchFilterCriteria ai = new AISearchFilterCriteria();
         ai.setOnSale(null);
 
-        when(preFilterExtractor.extract("query")).thenReturn(base);
-        when(preFilterExtractor.strip("query")).thenReturn("query");
+        when(preFilterExtractor.analyze("query")).thenReturn(new PreFilterAnalysis(base, "query"));
         when(openAiIntentParserService.parseIntent("query")).thenReturn(ai);
         doNothing().when(filterValidator).validate(base);
 
         // Act
-        AISearchFilterCriteria result = filterPipeline.process("query");
+        AISearchFilterCriteria result = filterPipeline.process("query").criteria();
 
         // Assert
         assertThat(result.getOnSale()).isTrue();
@@ -88,13 +128,12 @@ class FilterPipelineTest {
         AISearchFilterCriteria ai = new AISearchFilterCriteria();
         ai.setOnSale(false);
 
-        when(preFilterExtractor.extract("query")).thenReturn(base);
-        when(preFilterExtractor.strip("query")).thenReturn("query");
+        when(preFilterExtractor.analyze("query")).thenReturn(new PreFilterAnalysis(base, "query"));
         when(openAiIntentParserService.parseIntent("query")).thenReturn(ai);
         doNothing().when(filterValidator).validate(base);
 
         // Act
-        AISearchFilterCriteria result = filterPipeline.process("query");
+        AISearchFilterCriteria result = filterPipeline.process("query").criteria();
 
         // Assert
         assertThat(result.getOnSale()).isTrue();
@@ -109,15 +148,226 @@ class FilterPipelineTest {
         AISearchFilterCriteria ai = new AISearchFilterCriteria();
         ai.setOnSale(true);
 
-        when(preFilterExtractor.extract("query")).thenReturn(base);
-        when(preFilterExtractor.strip("query")).thenReturn("query");
+        when(preFilterExtractor.analyze("query")).thenReturn(new PreFilterAnalysis(base, "query"));
         when(openAiIntentParserService.parseIntent("query")).thenReturn(ai);
         doNothing().when(filterValidator).validate(base);
 
         // Act
-        AISearchFilterCriteria result = filterPipeline.process("query");
+        AISearchFilterCriteria result = filterPipeline.process("query").criteria();
 
         // Assert
         assertThat(result.getOnSale()).isTrue();
     }
+
+    @Test
+    void process_reusesCachedIntentForRepeatedLeftover() {
+        // Arrange
+        when(preFilterExtractor.analyze("Pegasus  Trainers"))
+                .thenReturn(new PreFilterAnalysis(new AISearchFilterCriteria(), "Pegasus  Trainers"));
+        when(preFilterExtractor.analyze("pegasus trainers"))
+                .thenReturn(new PreFilterAnalysis(new AISearchFilterCriteria(), "pegasus trainers"));
+        when(openAiIntentParserService.parseIntent("pegasus trainers")).thenReturn(new AISearchFilterCriteria());
+
+        // Act
+        filterPipeline.process("Pegasus  Trainers");
+        filterPipeline.process("pegasus trainers");
+
+        // Assert
+        verify(openAiIntentParserService, times(1)).parseIntent("pegasus trainers");
+    }
+
+    @Test
+    void process_fallsBackToPreFiltersWhenIntentMissesDeadline() {
+        // Arrange
+        AISearchFilterCriteria base = new AISearchFilterCriteria();
+        base.setBrands(List.of("nike"));
+        when(preFilterExtractor.analyze("nike slow")).thenReturn(new PreFilterAnalysis(base, "slow"));
+        when(openAiIntentParserService.parseIntent("slow")).thenAnswer(invocation -> {
+            Thread.sleep(1_000);
+            return new AISearchFilterCriteria();
+        });
+
+        // Act
+        FilterPipelineResult result = filterPipeline.process("nike slow");
+
+        // Assert
+        assertThat(result.degraded()).isTrue();
+        assertThat(result.criteria().getBrands()).containsExactly("nike");
+        assertThat(meterRegistry.counter("search.intent.timeouts").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("search.intent.fallbacks", "reason", "timeout").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void process_fallsBackToPreFiltersWhenIntentFails() {
+        // Arrange
+        when(preFilterExtractor.analyze("query")).thenReturn(new PreFilterAnalysis(new AISearchFilterCriteria(), "query"));
+        when(openAiIntentParserService.parseIntent("query")).thenThrow(new IllegalStateException("openai down"));
+
+        // Act
+        FilterPipelineResult result = filterPipeline.process("query");
+
+        // Assert
+        assertThat(result.degraded()).isTrue();
+        assertThat(meterRegistry.counter("search.intent.fallbacks", "reason", "error").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void process_publishesPreFiltersWhileIntentParseRuns() {
+        // Arrange
+        AISearchFilterCriteria base = new AISearchFilterCriteria();
+        base.setBrands(List.of("nike"));
+        AISearchFilterCriteria ai = new AISearchFilterCriteria();
+        ai.setPriceSaleMax(4000.0);
+        List<AISearchFilterCriteria> published = new ArrayList<>();
+        when(preFilterExtractor.analyze("nike cheap")).thenReturn(new PreFilterAnalysis(base, "cheap"));
+        when(openAiIntentParserService.parseIntent("cheap")).thenReturn(ai);
+
+        // Act
+        FilterPipelineResult result = filterPipeline.process("nike cheap", published::add);
+
+        // Assert
+        assertThat(published).singleElement().satisfies(preFilters -> {
+            assertThat(preFilters.getBrands()).containsExactly("nike");
+            assertThat(preFilters.getPriceSaleMax()).isNull();
+        });
+        assertThat(result.criteria().getPriceSaleMax()).isEqualTo(4000.0);
+    }
+
+    @Test
+    void process_skipsTheModelWhenThePreFiltersCoverTheQuery() {
+        // Arrange
+        AISearchFilterCriteria base = new AISearchFilterCriteria();
+        base.setBrands(List.of("nike"));
+        base.setPriceSaleMax(5000.0);
+        when(preFilterExtractor.analyze("nike shoes under 5000")).thenReturn(new PreFilterAnalysis(base, "shoes 5000"));
+
+        // Act
+        FilterPipelineResult result = filterPipeline.process("nike shoes under 5000");
+
+        // Assert
+        verifyNoInteractions(openAiIntentParserService);
+        assertThat(result.degraded()).isFalse();
+        assertThat(result.criteria().getBrands()).containsExactly("nike");
+        assertThat(result.criteria().getPriceSaleMax()).isEqualTo(5000.0);
+        assertThat(stageCount("intent", "rules")).isEqualTo(1);
+    }
+
+    @Test
+    void process_parsesKnownKeywordsLocally() {
+        // Arrange
+        AISearchFilterCriteria base = new AISearchFilterCriteria();
+        base.setBrands(List.of("adidas"));
+        when(preFilterExtractor.analyze("adidas men's running shoes"))
+                .thenReturn(new PreFilterAnalysis(base, "men's running shoes"));
+
+        // Act
+        FilterPipelineResult result = filterPipeline.process("adidas men's running shoes");
+
+        // Assert
+        verifyNoInteractions(openAiIntentParserService);
+        assertThat(result.degraded()).isFalse();
+        assertThat(result.criteria().getGender()).isNull();
+        assertThat(result.criteria().getBrands()).containsExactly("adidas");
+        assertThat(stageCount("intent", "local")).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "men's running shoes, running",
+            "kids trail sneakers, kids;trail;sneakers",
+            "women boots, boots"
+    })
+    void process_localRouteMatchesThePromptShapedRemoteParse(String leftover, String promptSubtitleKeywords) {
+        // Arrange
+        AISearchFilterCriteria promptShaped = new AISearchFilterCriteria();
+        promptShaped.setOnSale(false);
+        promptShaped.setTitleKeywords(List.of());
+        promptShaped.setSubtitleKeywords(List.of(promptSubtitleKeywords.split(";")));
+        when(openAiIntentParserService.parseIntent(leftover)).thenReturn(promptShaped);
+        when(preFilterExtractor.analyze("adidas " + leftover)).thenAnswer(invocation -> {
+            AISearchFilterCriteria base = new AISearchFilterCriteria();
+            base.setBrands(List.of("adidas"));
+            return new PreFilterAnalysis(base, leftover);
+        });
+        IntentParsingProperties remoteOnly = new IntentParsingProperties();
+        remoteOnly.setRulesFirst(false);
+        FilterPipeline remotePipeline = new FilterPipeline(preFilterExtractor, new IntentRouter(remoteOnly),
+                openAiIntentParserService, new KeywordIntentParser(), filterValidator,
+                new IntentCache(new IntentCacheProperties(), new ObjectMapper(), meterRegistry), executor,
+                remoteOnly, meterRegistry);
+
+        // Act
+        AISearchFilterCriteria local = filterPipeline.process("adidas " + leftover).criteria();
+        AISearchFilterCriteria remote = remotePipeline.process("adidas " + leftover).criteria();
+
+        // Assert
+        assertThat(stageCount("intent", "local")).isEqualTo(1);
+        assertThat(stageCount("intent", "parsed")).isEqualTo(1);
+        assertThat(local).isEqualTo(remote);
+    }
+
+    @Test
+    void process_recordsEachStageWithItsOutcome() {
+        // Arrange
+        when(preFilterExtractor.analyze("query")).thenReturn(new PreFilterAnalysis(new AISearchFilterCriteria(), "query"));
+        when(openAiIntentParserService.parseIntent("query")).thenReturn(new AISearchFilterCriteria());
+
+        // Act
+        filterPipeline.process("query");
+        filterPipeline.process("query");
+
+        // Assert
+        assertThat(stageCount("pre_filter", "ok")).isEqualTo(2);
+        assertThat(stageCount("llm_call", "ok")).isEqualTo(1);
+        assertThat(stageCount("intent", "parsed")).isEqualTo(1);
+        assertThat(stageCount("intent", "cache_hit")).isEqualTo(1);
+        assertThat(stageCount("normalize_validate", "ok")).isEqualTo(2);
+    }
+
+    @Test
+    void process_runsMoreConcurrentRemoteParsesThanTheSearchCorePoolWithoutDegrading() throws Exception {
+        // Arrange
+        SearchExecutorProperties executorProperties = new SearchExecutorProperties();
+        int parses = executorProperties.getCorePoolSize() + 8;
+        ThreadPoolTaskExecutor intentExecutor = new SearchExecutorConfig().intentTaskExecutor(executorProperties);
+        intentExecutor.initialize();
+        ExecutorService callers = Executors.newFixedThreadPool(parses);
+        CountDownLatch allParsing = new CountDownLatch(parses);
+        IntentParsingProperties remoteOnly = new IntentParsingProperties();
+        remoteOnly.setRulesFirst(false);
+        remoteOnly.setTimeout(Duration.ofSeconds(2));
+        when(preFilterExtractor.analyze(anyString())).thenAnswer(invocation ->
+                new PreFilterAnalysis(new AISearchFilterCriteria(), invocation.getArgument(0)));
+        when(openAiIntentParserService.parseIntent(anyString())).thenAnswer(invocation -> {
+            allParsing.countDown();
+            allParsing.await(5, TimeUnit.SECONDS);
+            return new AISearchFilterCriteria();
+        });
+        FilterPipeline remotePipeline = new FilterPipeline(preFilterExtractor, new IntentRouter(remoteOnly),
+                openAiIntentParserService, new KeywordIntentParser(), filterValidator,
+                new IntentCache(new IntentCacheProperties(), new ObjectMapper(), meterRegistry), intentExecutor,
+                remoteOnly, meterRegistry);
+
+        try {
+            // Act
+            List<Future<FilterPipelineResult>> results = new ArrayList<>();
+            for (int i = 0; i < parses; i++) {
+                String query = "trail runner " + i;
+                results.add(callers.submit(() -> remotePipeline.process(query)));
+            }
+
+            // Assert
+            for (Future<FilterPipelineResult> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS).degraded()).isFalse();
+            }
+            assertThat(stageCount("intent", "parsed")).isEqualTo(parses);
+        } finally {
+            callers.shutdownNow();
+            intentExecutor.shutdown();
+        }
+    }
+
+    private long stageCount(String stage, String outcome) {
+        return meterRegistry.get("search.stage").tags("stage", stage, "outcome", outcome).timer().count();
+    }
 }
@@ -3,6 +3,7 @@ package com.nimbly.phshoesbackend.search.core.service;
 import com.nimbly.phshoesbackend.search.core.exception.AiSearchException;
 import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
 import com.nimbly.phshoesbackend.search.core.service.impl.PreFilterExtractorImpl;
+import com.nimbly.phshoesbackend.search.core.util.BrandDictionary;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -12,7 +13,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class FilterValidatorTest {
 
-    private final FilterValidator validator = new FilterValidator(new PreFilterExtractorImpl());
+    private final FilterValidator validator = new FilterValidator(new PreFilterExtractorImpl(BrandDictionary::defaults));
 
     @Test
     void validate_rejectsNegativePrice() {
@@ -53,4 +54,18 @@ class FilterValidatorTest {
         assertThat(criteria.getTitleKeywords()).contains("unknown");
         assertThat(criteria.getSubtitleKeywords()).contains("kids");
     }
+
+    @Test
+    void validate_mapsBrandAliasesToTheCatalogBrand() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setBrands(List.of("New Ballance", "newbalance"));
+
+        // Act
+        validator.validate(criteria);
+
+        // Assert
+        assertThat(criteria.getBrands()).containsExactly("newbalance");
+        assertThat(criteria.getTitleKeywords()).isEmpty();
+    }
 }
@@ -0,0 +1,75 @@
+package com.nimbly.phshoesbackend.search.core.service;
+
+import com.nimbly.phshoesbackend.search.core.config.props.IntentParsingProperties;
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.model.IntentRouting;
+import com.nimbly.phshoesbackend.search.core.model.PreFilterAnalysis;
+import com.nimbly.phshoesbackend.search.core.util.IntentRoute;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntentRouterTest {
+
+    private final IntentParsingProperties properties = new IntentParsingProperties();
+
+    private final IntentRouter router = new IntentRouter(properties);
+
+    @Test
+    void route_skipsParsingWhenOnlyStopWordsAndConsumedNumbersRemain() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setPriceSaleMax(5000.0);
+        criteria.setSizes(List.of("9.5"));
+
+        // Act
+        IntentRouting routing = router.route(new PreFilterAnalysis(criteria, "shoes for me 5000 9.5"));
+
+        // Assert
+        assertThat(routing.route()).isEqualTo(IntentRoute.RULES);
+        assertThat(routing.confidence()).isEqualTo(1.0);
+        assertThat(routing.residual()).isEmpty();
+    }
+
+    @Test
+    void route_sendsKnownKeywordsToTheLocalParser() {
+        // Act
+        IntentRouting routing = router.route(new PreFilterAnalysis(new AISearchFilterCriteria(), "Women’s trail shoes"));
+
+        // Assert
+        assertThat(routing.route()).isEqualTo(IntentRoute.LOCAL);
+        assertThat(routing.residual()).isEqualTo("women's trail");
+    }
+
+    @Test
+    void route_sendsUnknownWordsAndUnconsumedNumbersToTheModel() {
+        // Act
+        IntentRouting model = router.route(new PreFilterAnalysis(new AISearchFilterCriteria(), "990 running"));
+        IntentRouting words = router.route(new PreFilterAnalysis(new AISearchFilterCriteria(), "pegasus running shoes"));
+
+        // Assert
+        assertThat(model.route()).isEqualTo(IntentRoute.REMOTE);
+        assertThat(model.confidence()).isEqualTo(0.5);
+        assertThat(words.route()).isEqualTo(IntentRoute.REMOTE);
+        assertThat(words.residual()).isEqualTo("pegasus running shoes");
+    }
+
+    @Test
+    void route_honoursTheConfiguredConfidenceAndSwitch() {
+        // Arrange
+        PreFilterAnalysis analysis = new PreFilterAnalysis(new AISearchFilterCriteria(), "pegasus running shoes");
+
+        // Act
+        properties.setLocalMinConfidence(0.6);
+        IntentRouting lenient = router.route(analysis);
+        properties.setRulesFirst(false);
+        IntentRouting disabled = router.route(new PreFilterAnalysis(new AISearchFilterCriteria(), ""));
+
+        // Assert
+        assertThat(lenient.route()).isEqualTo(IntentRoute.LOCAL);
+        assertThat(lenient.residual()).isEqualTo("running");
+        assertThat(disabled.route()).isEqualTo(IntentRoute.REMOTE);
+    }
+}
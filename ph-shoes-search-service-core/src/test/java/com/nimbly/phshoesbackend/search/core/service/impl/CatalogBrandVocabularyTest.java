@@ -0,0 +1,128 @@
+package com.nimbly.phshoesbackend.search.core.service.impl;
+
+import com.nimbly.phshoesbackend.search.core.config.props.BrandVocabularyProperties;
+import com.nimbly.phshoesbackend.search.core.config.props.CatalogQueryProperties;
+import com.nimbly.phshoesbackend.search.core.event.CatalogSnapshotChangedEvent;
+import com.nimbly.phshoesbackend.search.core.repository.CatalogSearchRepository;
+import com.nimbly.phshoesbackend.search.core.util.BrandDictionary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogBrandVocabularyTest {
+
+    @Mock
+    private CatalogSearchRepository catalogSearchRepository;
+
+    @Mock
+    private LatestSnapshotResolver latestSnapshotResolver;
+
+    private final BrandVocabularyProperties properties = new BrandVocabularyProperties();
+
+    private CatalogBrandVocabulary vocabulary;
+
+    @BeforeEach
+    void setup() {
+        vocabulary = new CatalogBrandVocabulary(catalogSearchRepository, latestSnapshotResolver,
+                new CatalogQueryProperties(), properties, new DefaultResourceLoader(), Runnable::run,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void current_startsWithTheSeed() {
+        // Act
+        BrandDictionary dictionary = vocabulary.current();
+
+        // Assert
+        assertThat(dictionary.brands()).isEqualTo(BrandDictionary.defaults().brands());
+        verifyNoInteractions(catalogSearchRepository);
+    }
+
+    @Test
+    void onSnapshotChanged_addsCatalogBrandsLongEnoughToMatchSafely() {
+        // Arrange
+        when(catalogSearchRepository.findDistinctBrands(any())).thenReturn(List.of("Under Armour", "On", "nike"));
+
+        // Act
+        vocabulary.onSnapshotChanged(new CatalogSnapshotChangedEvent(20260123, 20260124));
+
+        // Assert
+        BrandDictionary dictionary = vocabulary.current();
+        assertThat(dictionary.canonicalOf("under armour")).isEqualTo("underarmour");
+        assertThat(dictionary.canonicalOf("on")).isNull();
+        assertThat(dictionary.canonicalOf("addidas")).isEqualTo("adidas");
+    }
+
+    @Test
+    void reload_keepsThePreviousDictionaryWhenTheCatalogFails() {
+        // Arrange
+        BrandDictionary before = vocabulary.current();
+        when(catalogSearchRepository.findDistinctBrands(any())).thenThrow(new IllegalStateException("warehouse down"));
+
+        // Act
+        vocabulary.reload(20260124);
+
+        // Assert
+        assertThat(vocabulary.current()).isSameAs(before);
+    }
+
+    @Test
+    void onSnapshotChanged_reloadsAgainForAnEventThatArrivesDuringAReload() {
+        // Arrange
+        when(catalogSearchRepository.findDistinctBrands(any()))
+                .thenAnswer(invocation -> {
+                    vocabulary.onSnapshotChanged(new CatalogSnapshotChangedEvent(20260124, 20260125));
+                    return List.of("Hoka");
+                })
+                .thenReturn(List.of("Hoka", "Brooks"));
+
+        // Act
+        vocabulary.onSnapshotChanged(new CatalogSnapshotChangedEvent(20260123, 20260124));
+
+        // Assert
+        verify(catalogSearchRepository, times(2)).findDistinctBrands(any());
+        assertThat(vocabulary.current().canonicalOf("brooks")).isEqualTo("brooks");
+    }
+
+    @Test
+    void onSnapshotChanged_retriesOnTheNextEventWhenTheExecutorRejects() {
+        // Arrange
+        AtomicBoolean rejecting = new AtomicBoolean(true);
+        Executor executor = task -> {
+            if (rejecting.get()) {
+                throw new RejectedExecutionException("saturated");
+            }
+            task.run();
+        };
+        vocabulary = new CatalogBrandVocabulary(catalogSearchRepository, latestSnapshotResolver,
+                new CatalogQueryProperties(), properties, new DefaultResourceLoader(), executor,
+                new SimpleMeterRegistry());
+        when(catalogSearchRepository.findDistinctBrands(any())).thenReturn(List.of("Brooks"));
+
+        // Act
+        vocabulary.onSnapshotChanged(new CatalogSnapshotChangedEvent(20260123, 20260124));
+        rejecting.set(false);
+        vocabulary.onSnapshotChanged(new CatalogSnapshotChangedEvent(20260124, 20260125));
+
+        // Assert
+        verify(catalogSearchRepository, times(1)).findDistinctBrands(any());
+        assertThat(vocabulary.current().canonicalOf("brooks")).isEqualTo("brooks");
+    }
+}
@@ -0,0 +1,41 @@
+package com.nimbly.phshoesbackend.search.core.service.impl;
+
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordIntentParserTest {
+
+    private final KeywordIntentParser parser = new KeywordIntentParser();
+
+    @Test
+    void parseIntent_mapsCategoryWordsToSubtitleKeywords() {
+        // Act
+        AISearchFilterCriteria criteria = parser.parseIntent("Kids running sneakers running");
+
+        // Assert
+        assertThat(criteria.getSubtitleKeywords()).containsExactly("kids", "running", "sneakers");
+        assertThat(criteria.getGender()).isNull();
+        assertThat(criteria.getTitleKeywords()).isNull();
+    }
+
+    @Test
+    void parseIntent_treatsEveryKidsWordAsTheKidsCategory() {
+        // Act
+        AISearchFilterCriteria criteria = parser.parseIntent("boys kid's trail");
+
+        // Assert
+        assertThat(criteria.getSubtitleKeywords()).containsExactly("kids", "trail");
+    }
+
+    @Test
+    void parseIntent_setsNoGender() {
+        // Act
+        AISearchFilterCriteria criteria = parser.parseIntent("men women");
+
+        // Assert
+        assertThat(criteria.getGender()).isNull();
+        assertThat(criteria.getSubtitleKeywords()).isNull();
+    }
+}
@@ -0,0 +1,119 @@
+package com.nimbly.phshoesbackend.search.core.service.impl;
+
+import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.config.props.CatalogQueryProperties;
+import com.nimbly.phshoesbackend.search.core.config.props.LatestSnapshotProperties;
+import com.nimbly.phshoesbackend.search.core.event.CatalogSnapshotChangedEvent;
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_MOCKS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LatestSnapshotResolverTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<Integer> typedQuery;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LatestSnapshotResolver resolver;
+
+    @BeforeEach
+    void setup() {
+        when(entityManager.getCriteriaBuilder()).thenReturn(mock(CriteriaBuilder.class, RETURNS_MOCKS));
+        when(entityManager.createQuery(any(CriteriaQuery.class))).thenReturn(typedQuery);
+        resolver = new LatestSnapshotResolver(entityManager, new LatestSnapshotProperties(),
+                new CatalogQueryProperties(), eventPublisher, meterRegistry);
+    }
+
+    @Test
+    void resolve_queriesEachFilterShapeOnce() {
+        // Arrange
+        when(typedQuery.getSingleResult()).thenReturn(20260124);
+        Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
+        AISearchFilterCriteria first = new AISearchFilterCriteria();
+        first.setBrands(List.of("nike", "adidas"));
+        AISearchFilterCriteria permuted = new AISearchFilterCriteria();
+        permuted.setBrands(List.of("Adidas", "nike"));
+
+        // Act
+        Integer firstKey = resolver.resolve(first, spec);
+        Integer secondKey = resolver.resolve(permuted, spec);
+
+        // Assert
+        assertThat(firstKey).isEqualTo(20260124);
+        assertThat(secondKey).isEqualTo(20260124);
+        verify(typedQuery, times(2)).getSingleResult();
+        assertThat(meterRegistry.get("search.stage").tags("stage", "latest_date", "outcome", "query").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("search.stage").tags("stage", "latest_date", "outcome", "cache_hit").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void resolve_usesGlobalKeyForUnfilteredSearch() {
+        // Arrange
+        when(typedQuery.getSingleResult()).thenReturn(20260124);
+
+        // Act
+        Integer dateKey = resolver.resolve(new AISearchFilterCriteria(), (root, query, cb) -> cb.conjunction());
+
+        // Assert
+        assertThat(dateKey).isEqualTo(20260124);
+        verify(typedQuery, times(1)).getSingleResult();
+    }
+
+    @Test
+    void refresh_publishesEventWhenSnapshotAdvances() {
+        // Arrange
+        when(typedQuery.getSingleResult()).thenReturn(20260124, 20260125);
+        resolver.resolveGlobal();
+
+        // Act
+        Integer latest = resolver.refresh();
+
+        // Assert
+        assertThat(latest).isEqualTo(20260125);
+        verify(eventPublisher).publishEvent(new CatalogSnapshotChangedEvent(20260124, 20260125));
+    }
+
+    @Test
+    void refresh_doesNotPublishWhenSnapshotUnchanged() {
+        // Arrange
+        when(typedQuery.getSingleResult()).thenReturn(20260124);
+        resolver.resolveGlobal();
+
+        // Act
+        resolver.refresh();
+
+        // Assert
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}
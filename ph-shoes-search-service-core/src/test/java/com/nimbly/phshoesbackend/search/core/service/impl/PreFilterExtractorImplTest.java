@@ -1,13 +1,17 @@
 package com.nimbly.phshoesbackend.search.core.service.impl;
 
 import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.model.PreFilterAnalysis;
+import com.nimbly.phshoesbackend.search.core.util.BrandDictionary;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class PreFilterExtractorImplTest {
 
-    private final PreFilterExtractorImpl extractor = new PreFilterExtractorImpl();
+    private final PreFilterExtractorImpl extractor = new PreFilterExtractorImpl(BrandDictionary::defaults);
 
     @Test
     void extract_parsesBrandsSizesAndPriceHints() {
@@ -50,4 +54,64 @@ class PreFilterExtractorImplTest {
         assertThat(criteria.getOnSale()).isTrue();
         assertThat(criteria.getSortBy()).isEqualTo("price_desc");
     }
+
+    @Test
+    void analyze_returnsCriteriaAndLeftoverFromOnePass() {
+        // Arrange
+        String query = "New Balance 9060 below5000 US 9";
+
+        // Act
+        PreFilterAnalysis analysis = extractor.analyze(query);
+
+        // Assert
+        assertThat(analysis.criteria().getBrands()).containsExactly("newbalance");
+        assertThat(analysis.criteria().getPriceSaleMax()).isEqualTo(5000.0);
+        assertThat(analysis.criteria().getSizes()).containsExactly("9");
+        assertThat(analysis.leftover()).isEqualTo("9060 below5000 9");
+    }
+
+    @Test
+    void extract_ignoresCueWordsInsideOtherWords() {
+        // Arrange
+        String query = "pegasus 41 for busy runners, 10.5 mileage";
+
+        // Act
+        AISearchFilterCriteria criteria = extractor.extract(query);
+
+        // Assert
+        assertThat(criteria.getSizes()).isNull();
+        assertThat(criteria.getOnSale()).isFalse();
+        assertThat(criteria.getSortBy()).isNull();
+    }
+
+    @Test
+    void extract_readsStandaloneNumbersOnceASizeCueIsPresent() {
+        // Arrange
+        String query = "pegasus 41 sizes 8, 8.5 and 9 uk10 5k";
+
+        // Act
+        AISearchFilterCriteria criteria = extractor.extract(query);
+
+        // Assert
+        assertThat(criteria.getSizes()).containsExactly("41", "8", "8.5", "9", "10");
+    }
+
+    @Test
+    void analyze_recompilesWhenTheVocabularyChanges() {
+        // Arrange
+        AtomicReference<BrandDictionary> dictionary = new AtomicReference<>(BrandDictionary.defaults());
+        PreFilterExtractorImpl reloading = new PreFilterExtractorImpl(dictionary::get);
+        String query = "Under Armour running under 3000";
+        PreFilterAnalysis before = reloading.analyze(query);
+
+        // Act
+        dictionary.set(BrandDictionary.builder().brand("under armour").build());
+        PreFilterAnalysis after = reloading.analyze(query);
+
+        // Assert
+        assertThat(before.criteria().getBrands()).isNull();
+        assertThat(after.criteria().getBrands()).containsExactly("underarmour");
+        assertThat(after.criteria().getPriceSaleMax()).isEqualTo(3000.0);
+        assertThat(after.leftover()).isEqualTo("running 3000");
+    }
 }
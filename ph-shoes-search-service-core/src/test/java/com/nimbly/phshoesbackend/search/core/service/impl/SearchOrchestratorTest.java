@@ -1,12 +1,27 @@
 package com.nimbly.phshoesbackend.search.core.service.impl;
 
 import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
-import com.nimbly.phshoesbackend.catalog.core.repository.jpa.CatalogShoeRepository;
+import com.nimbly.phshoesbackend.search.core.cache.CatalogCountCache;
+import com.nimbly.phshoesbackend.search.core.config.props.CatalogQueryProperties;
+import com.nimbly.phshoesbackend.search.core.config.props.CountCacheProperties;
+import com.nimbly.phshoesbackend.search.core.jfr.CatalogSearchEvent;
 import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.model.CatalogPage;
+import com.nimbly.phshoesbackend.search.core.model.CatalogSlice;
+import com.nimbly.phshoesbackend.search.core.repository.CatalogSearchRepository;
+import com.nimbly.phshoesbackend.search.core.snapshot.LocalCatalogSnapshot;
+import com.nimbly.phshoesbackend.search.core.util.CountMode;
 import com.nimbly.phshoesbackend.search.core.util.SpecificationBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -14,31 +29,50 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class SearchOrchestratorTest {
 
     @Mock
-    private CatalogShoeRepository catalogShoeRepository;
+    private CatalogSearchRepository catalogSearchRepository;
 
     @Mock
     private SpecificationBuilder specificationBuilder;
 
+    @Mock
+    private LatestSnapshotResolver latestSnapshotResolver;
+
+    @Mock
+    private LocalCatalogSnapshot localSnapshot;
+
     private SearchOrchestrator orchestrator;
 
     @BeforeEach
     void setup() {
-        orchestrator = new SearchOrchestrator(catalogShoeRepository, specificationBuilder);
+        orchestrator = new SearchOrchestrator(catalogSearchRepository, specificationBuilder, latestSnapshotResolver,
+                new CatalogQueryProperties(), localSnapshot,
+                new CatalogCountCache(new CountCacheProperties(), new SimpleMeterRegistry()), new SimpleMeterRegistry());
     }
 
     @Test
@@ -47,17 +81,10 @@ class SearchOrchestratorTest {
         AISearchFilterCriteria criteria = new AISearchFilterCriteria();
         criteria.setSortBy("price_asc");
         Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
-        CatalogShoe latest = new CatalogShoe();
-        latest.setId("id-1");
-        latest.setDwid("dwid-1");
-        latest.setYear(2025);
-        latest.setMonth(2);
-        latest.setDay(20);
-        Page<CatalogShoe> latestPage = new PageImpl<>(List.of(latest));
-        Page<CatalogShoe> page = new PageImpl<>(List.of());
         when(specificationBuilder.build(criteria)).thenReturn(spec);
-        when(catalogShoeRepository.findAll(any(Specification.class), org.mockito.ArgumentMatchers.any(Pageable.class)))
-                .thenReturn(latestPage, page);
+        when(latestSnapshotResolver.resolve(eq(criteria), eq(spec))).thenReturn(20250220);
+        when(catalogSearchRepository.findPage(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new CatalogPage(new PageImpl<>(List.of()), false));
 
         Pageable inputPageable = PageRequest.of(1, 5, Sort.by("brand"));
 
@@ -66,30 +93,39 @@ class SearchOrchestratorTest {
 
         // Assert
         ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-        verify(catalogShoeRepository, org.mockito.Mockito.times(2))
-                .findAll(any(Specification.class), pageableCaptor.capture());
-        Pageable secondCall = pageableCaptor.getAllValues().get(1);
-        Sort.Order order = secondCall.getSort().getOrderFor("priceSale");
+        verify(catalogSearchRepository).findPage(any(Specification.class), pageableCaptor.capture());
+        Sort.Order order = pageableCaptor.getValue().getSort().getOrderFor("priceSale");
         assertThat(order).isNotNull();
         assertThat(order.isAscending()).isTrue();
     }
 
+    @Test
+    void search_stopsBeforeThePageQueryOnceCancelled() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        when(specificationBuilder.build(criteria)).thenReturn(spec);
+        when(latestSnapshotResolver.resolve(eq(criteria), eq(spec))).thenAnswer(invocation -> {
+            cancelled.set(true);
+            return 20250220;
+        });
+
+        // Act / Assert
+        assertThatThrownBy(() -> orchestrator.search("query", criteria, PageRequest.of(0, 10), cancelled::get))
+                .isInstanceOf(CancellationException.class);
+        verifyNoInteractions(catalogSearchRepository);
+    }
+
     @Test
     void search_usesProvidedPageableWhenNoSortBy() {
         // Arrange
         AISearchFilterCriteria criteria = new AISearchFilterCriteria();
         Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
-        CatalogShoe latest = new CatalogShoe();
-        latest.setId("id-1");
-        latest.setDwid("dwid-1");
-        latest.setYear(2025);
-        latest.setMonth(2);
-        latest.setDay(20);
-        Page<CatalogShoe> latestPage = new PageImpl<>(List.of(latest));
-        Page<CatalogShoe> page = new PageImpl<>(List.of());
         when(specificationBuilder.build(criteria)).thenReturn(spec);
-        when(catalogShoeRepository.findAll(any(Specification.class), org.mockito.ArgumentMatchers.any(Pageable.class)))
-                .thenReturn(latestPage, page);
+        when(latestSnapshotResolver.resolve(eq(criteria), eq(spec))).thenReturn(20250220);
+        when(catalogSearchRepository.findPage(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new CatalogPage(new PageImpl<>(List.of()), false));
 
         Pageable inputPageable = PageRequest.of(2, 10, Sort.by("brand"));
 
@@ -98,10 +134,8 @@ class SearchOrchestratorTest {
 
         // Assert
         ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-        verify(catalogShoeRepository, org.mockito.Mockito.times(2))
-                .findAll(any(Specification.class), pageableCaptor.capture());
-        Pageable secondCall = pageableCaptor.getAllValues().get(1);
-        assertThat(secondCall).isEqualTo(inputPageable);
+        verify(catalogSearchRepository).findPage(any(Specification.class), pageableCaptor.capture());
+        assertThat(pageableCaptor.getValue()).isEqualTo(inputPageable);
     }
 
     @Test
@@ -109,30 +143,18 @@ class SearchOrchestratorTest {
         // Arrange
         AISearchFilterCriteria criteria = new AISearchFilterCriteria();
         Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
-        CatalogShoe latest = new CatalogShoe();
-        latest.setId("id-1");
-        latest.setDwid("dwid-1");
-        latest.setYear(2025);
-        latest.setMonth(2);
-        latest.setDay(19);
-        Page<CatalogShoe> latestPage = new PageImpl<>(List.of(latest));
-        Page<CatalogShoe> page = new PageImpl<>(List.of());
         when(specificationBuilder.build(criteria)).thenReturn(spec);
-        when(catalogShoeRepository.findAll(any(Specification.class), org.mockito.ArgumentMatchers.any(Pageable.class)))
-                .thenReturn(latestPage, page);
-
-        Pageable inputPageable = PageRequest.of(0, 5);
+        when(latestSnapshotResolver.resolve(eq(criteria), eq(spec))).thenReturn(20250219);
+        when(catalogSearchRepository.findPage(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new CatalogPage(new PageImpl<>(List.of()), false));
 
         // Act
-        orchestrator.search("query", criteria, inputPageable);
+        orchestrator.search("query", criteria, PageRequest.of(0, 5));
 
         // Assert
         ArgumentCaptor<Specification<CatalogShoe>> specCaptor = ArgumentCaptor.forClass(Specification.class);
-        verify(catalogShoeRepository, org.mockito.Mockito.times(2))
-                .findAll(specCaptor.capture(), any(Pageable.class));
-        List<Specification<CatalogShoe>> captured = specCaptor.getAllValues();
-        assertThat(captured.get(0)).isSameAs(spec);
-        assertThat(captured.get(1)).isNotSameAs(spec);
+        verify(catalogSearchRepository).findPage(specCaptor.capture(), any(Pageable.class));
+        assertThat(specCaptor.getValue()).isNotSameAs(spec);
     }
 
     @Test
@@ -140,75 +162,206 @@ class SearchOrchestratorTest {
         // Arrange
         AISearchFilterCriteria criteria = new AISearchFilterCriteria();
         Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
-        Page<CatalogShoe> page = new PageImpl<>(List.of());
         when(specificationBuilder.build(criteria)).thenReturn(spec);
-        when(catalogShoeRepository.findAll(any(Specification.class), org.mockito.ArgumentMatchers.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of()), page);
-
-        Pageable inputPageable = PageRequest.of(0, 5);
+        when(latestSnapshotResolver.resolve(eq(criteria), eq(spec))).thenReturn(null);
+        when(catalogSearchRepository.findPage(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new CatalogPage(new PageImpl<>(List.of()), false));
 
         // Act
-        orchestrator.search("query", criteria, inputPageable);
+        orchestrator.search("query", criteria, PageRequest.of(0, 5));
 
         // Assert
         ArgumentCaptor<Specification<CatalogShoe>> specCaptor = ArgumentCaptor.forClass(Specification.class);
-        verify(catalogShoeRepository, org.mockito.Mockito.times(2))
-                .findAll(specCaptor.capture(), any(Pageable.class));
-        List<Specification<CatalogShoe>> captured = specCaptor.getAllValues();
-        assertThat(captured.get(0)).isSameAs(spec);
-        assertThat(captured.get(1)).isSameAs(spec);
+        verify(catalogSearchRepository).findPage(specCaptor.capture(), any(Pageable.class));
+        assertThat(specCaptor.getValue()).isSameAs(spec);
     }
 
     @Test
-    void search_skipsLatestDateWhenBrandNotMatchedOrInvalidDwid() {
+    void search_issuesSinglePagedQueryWhenResultsPresent() {
         // Arrange
         AISearchFilterCriteria criteria = new AISearchFilterCriteria();
         Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
-        Page<CatalogShoe> page = new PageImpl<>(List.of());
+        CatalogShoe shoe = new CatalogShoe();
+        shoe.setId("id-1");
+        shoe.setDwid("dwid-1");
+        Page<CatalogShoe> page = new PageImpl<>(List.of(shoe));
         when(specificationBuilder.build(criteria)).thenReturn(spec);
-        CatalogShoe latest = new CatalogShoe();
-        latest.setId("id-1");
-        latest.setDwid("dwid-1");
-        latest.setYear(null);
-        latest.setMonth(2);
-        latest.setDay(2);
-        when(catalogShoeRepository.findAll(any(Specification.class), org.mockito.ArgumentMatchers.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(latest)), page);
+        when(latestSnapshotResolver.resolve(eq(criteria), eq(spec))).thenReturn(20250220);
+        when(catalogSearchRepository.findPage(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new CatalogPage(page, false));
+
+        // Act
+        Page<CatalogShoe> result = orchestrator.search("query", criteria, PageRequest.of(0, 5));
+
+        // Assert
+        assertThat(result).isSameAs(page);
+        verify(catalogSearchRepository).findPage(any(Specification.class), any(Pageable.class));
+    }
 
-        Pageable inputPageable = PageRequest.of(0, 5);
+    @Test
+    void search_servesFromLocalSnapshotWhenItHasMatches() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        Page<CatalogShoe> page = new PageImpl<>(List.of(new CatalogShoe()));
+        when(localSnapshot.isEnabled()).thenReturn(true);
+        when(localSnapshot.search(eq(criteria), any(Pageable.class))).thenReturn(Optional.of(page));
 
         // Act
-        orchestrator.search("query", criteria, inputPageable);
+        Page<CatalogShoe> result = orchestrator.search("query", criteria, PageRequest.of(0, 5));
 
         // Assert
-        ArgumentCaptor<Specification<CatalogShoe>> specCaptor = ArgumentCaptor.forClass(Specification.class);
-        verify(catalogShoeRepository, org.mockito.Mockito.times(2))
-                .findAll(specCaptor.capture(), any(Pageable.class));
-        List<Specification<CatalogShoe>> captured = specCaptor.getAllValues();
-        assertThat(captured.get(0)).isSameAs(spec);
-        assertThat(captured.get(1)).isSameAs(spec);
+        assertThat(result).isSameAs(page);
+        verifyNoInteractions(catalogSearchRepository, specificationBuilder);
     }
 
     @Test
-    void search_logsWhenResultsPresent() {
+    void search_fallsBackToRepositoryWhenLocalSnapshotDeclines() {
         // Arrange
         AISearchFilterCriteria criteria = new AISearchFilterCriteria();
         Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
-        CatalogShoe shoe = new CatalogShoe();
-        shoe.setId("id-1");
-        shoe.setDwid("dwid-1");
-        Page<CatalogShoe> page = new PageImpl<>(List.of(shoe));
+        when(localSnapshot.isEnabled()).thenReturn(true);
+        when(localSnapshot.search(eq(criteria), any(Pageable.class))).thenReturn(Optional.empty());
         when(specificationBuilder.build(criteria)).thenReturn(spec);
-        when(catalogShoeRepository.findAll(any(Specification.class), org.mockito.ArgumentMatchers.any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(shoe)), page);
+        when(latestSnapshotResolver.resolve(eq(criteria), eq(spec))).thenReturn(20250220);
+        when(catalogSearchRepository.findPage(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new CatalogPage(new PageImpl<>(List.of()), false));
 
-        Pageable inputPageable = PageRequest.of(0, 5);
+        // Act
+        orchestrator.search("query", criteria, PageRequest.of(0, 5));
+
+        // Assert
+        verify(catalogSearchRepository).findPage(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchSlice_resolvesLatestDayAndSkipsCount() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
+        Slice<CatalogShoe> slice = new SliceImpl<>(List.of(new CatalogShoe()), PageRequest.of(0, 1), true);
+        when(specificationBuilder.build(criteria)).thenReturn(spec);
+        when(latestSnapshotResolver.resolve(eq(criteria), eq(spec))).thenReturn(20250220);
+        when(catalogSearchRepository.findSlice(any(Specification.class), any(Pageable.class))).thenReturn(slice);
 
         // Act
-        orchestrator.search("query", criteria, inputPageable);
+        CatalogSlice result = orchestrator.searchSlice("query", criteria, PageRequest.of(0, 1), null);
+
+        // Assert
+        assertThat(result.slice()).isSameAs(slice);
+        assertThat(result.dateKey()).isEqualTo(20250220);
+        verify(catalogSearchRepository, never()).findPage(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchSlice_pinnedDateKeySkipsLatestDayLookup() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
+        when(specificationBuilder.build(criteria)).thenReturn(spec);
+        when(catalogSearchRepository.findSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        // Act
+        CatalogSlice result = orchestrator.searchSlice("query", criteria, PageRequest.of(3, 5), 20250219);
+
+        // Assert
+        assertThat(result.dateKey()).isEqualTo(20250219);
+        verifyNoInteractions(latestSnapshotResolver);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void search_recordsWhetherThePageNeededACountQuery(boolean counted, @TempDir Path tempDir) throws Exception {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
+        when(specificationBuilder.build(criteria)).thenReturn(spec);
+        when(latestSnapshotResolver.resolve(eq(criteria), eq(spec))).thenReturn(20250220);
+        when(catalogSearchRepository.findPage(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new CatalogPage(new PageImpl<>(List.of(new CatalogShoe()), PageRequest.of(0, 5), 42), counted));
+        Path dump = tempDir.resolve("catalog.jfr");
+
+        // Act
+        try (Recording recording = new Recording()) {
+            recording.enable(CatalogSearchEvent.NAME);
+            recording.start();
+            orchestrator.search("query", criteria, PageRequest.of(0, 5));
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        // Assert
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getBoolean("countQuery")).isEqualTo(counted);
+        assertThat(events.get(0).getLong("totalElements")).isEqualTo(42);
+    }
+
+    @Test
+    void search_reusesPageZeroCountForLaterPages() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setBrands(List.of("nike"));
+        Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
+        when(specificationBuilder.build(criteria)).thenReturn(spec);
+        when(latestSnapshotResolver.resolve(eq(criteria), eq(spec))).thenReturn(20250220);
+        when(catalogSearchRepository.findPage(any(Specification.class), eq(PageRequest.of(0, 5))))
+                .thenReturn(new CatalogPage(new PageImpl<>(List.of(new CatalogShoe()), PageRequest.of(0, 5), 42), true));
+        when(catalogSearchRepository.findPage(any(Specification.class), eq(PageRequest.of(1, 5)), anyLong()))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(new CatalogShoe()), PageRequest.of(1, 5), invocation.getArgument(2)));
+
+        // Act
+        orchestrator.search("query", criteria, PageRequest.of(0, 5));
+        Page<CatalogShoe> second = orchestrator.search("query", criteria, PageRequest.of(1, 5));
+
+        // Assert
+        assertThat(second.getTotalElements()).isEqualTo(42);
+        verify(catalogSearchRepository).findPage(any(Specification.class), eq(PageRequest.of(1, 5)), eq(42L));
+        verify(catalogSearchRepository, never()).findPage(any(Specification.class), eq(PageRequest.of(1, 5)));
+    }
+
+    @Test
+    void searchSlice_lastSliceYieldsAndCachesExactTotal() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
+        when(specificationBuilder.build(criteria)).thenReturn(spec);
+        when(catalogSearchRepository.findSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(new CatalogShoe(), new CatalogShoe()), PageRequest.of(2, 5), false));
+
+        // Act
+        CatalogSlice last = orchestrator.searchSlice("query", criteria, PageRequest.of(2, 5), 20250220);
+        CatalogSlice again = orchestrator.searchSlice("query", criteria, PageRequest.of(0, 5), 20250220);
+
+        // Assert
+        assertThat(last.totalElements()).isEqualTo(12L);
+        assertThat(again.totalElements()).isEqualTo(12L);
+    }
+
+    @Test
+    void searchSlice_approximateModeEstimatesFromSnapshotOfAnotherDay() {
+        // Arrange
+        CountCacheProperties countProperties = new CountCacheProperties();
+        countProperties.setMode(CountMode.APPROXIMATE);
+        orchestrator = new SearchOrchestrator(catalogSearchRepository, specificationBuilder, latestSnapshotResolver,
+                new CatalogQueryProperties(), localSnapshot,
+                new CatalogCountCache(countProperties, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        Specification<CatalogShoe> spec = (root, query, cb) -> cb.conjunction();
+        when(localSnapshot.isEnabled()).thenReturn(true);
+        when(localSnapshot.current()).thenReturn(Optional.empty());
+        when(localSnapshot.search(eq(criteria), any(Pageable.class))).thenReturn(Optional.empty());
+        when(localSnapshot.count(criteria, 20250220, false)).thenReturn(OptionalLong.empty());
+        when(localSnapshot.count(criteria, 20250220, true)).thenReturn(OptionalLong.of(300));
+        when(specificationBuilder.build(criteria)).thenReturn(spec);
+        when(latestSnapshotResolver.resolve(eq(criteria), eq(spec))).thenReturn(20250220);
+        when(catalogSearchRepository.findSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(new CatalogShoe()), PageRequest.of(0, 1), true));
+
+        // Act
+        CatalogSlice result = orchestrator.searchSlice("query", criteria, PageRequest.of(0, 1), null);
 
         // Assert
-        verify(catalogShoeRepository, org.mockito.Mockito.times(2))
-                .findAll(any(Specification.class), any(Pageable.class));
+        assertThat(result.totalElements()).isEqualTo(300L);
     }
 }
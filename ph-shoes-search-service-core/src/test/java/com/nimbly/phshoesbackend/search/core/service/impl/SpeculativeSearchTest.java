@@ -0,0 +1,198 @@
+package com.nimbly.phshoesbackend.search.core.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.config.props.SpeculativeSearchProperties;
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.util.ShoeSizeExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpeculativeSearchTest {
+
+    @Mock
+    private SearchOrchestrator orchestrator;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SpeculativeSearch speculativeSearch;
+
+    @BeforeEach
+    void setup() {
+        speculativeSearch = new SpeculativeSearch(orchestrator, Runnable::run, new ShoeSizeExtractor(new ObjectMapper(), new SimpleMeterRegistry()),
+                new SpeculativeSearchProperties(), meterRegistry);
+    }
+
+    @Test
+    void start_skipsUnfilteredPreFilters() {
+        // Act
+        SpeculativeSearch.Speculation speculation =
+                speculativeSearch.start("shoes", new AISearchFilterCriteria(), PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(speculation).isNull();
+    }
+
+    @Test
+    void reuse_returnsSpeculativePageWhenCriteriaUnchanged() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10);
+        AISearchFilterCriteria preFilters = brands("nike");
+        Page<CatalogShoe> page = new PageImpl<>(List.of(shoe("1", "nike", 5000.0)), pageable, 1);
+        when(orchestrator.search(eq("nike"), eq(preFilters), eq(pageable), any(BooleanSupplier.class))).thenReturn(page);
+        SpeculativeSearch.Speculation speculation = speculativeSearch.start("nike", preFilters, pageable);
+
+        // Act
+        Optional<Page<CatalogShoe>> reused = speculativeSearch.reuse(speculation, brands("NIKE"), pageable);
+
+        // Assert
+        assertThat(reused).containsSame(page);
+        assertThat(meterRegistry.counter("search.speculative", "outcome", "reused").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void reuse_postFiltersCompletePageWhenCriteriaNarrow() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10);
+        AISearchFilterCriteria preFilters = brands("nike");
+        Page<CatalogShoe> page = new PageImpl<>(List.of(
+                shoe("1", "nike", 5000.0),
+                shoe("2", "nike", 2500.0),
+                shoe("3", "nike", 3000.0)
+        ), pageable, 3);
+        when(orchestrator.search(eq("nike under 4000"), eq(preFilters), eq(pageable), any(BooleanSupplier.class)))
+                .thenReturn(page);
+        when(orchestrator.pageableFor(any(AISearchFilterCriteria.class), eq(pageable))).thenReturn(pageable);
+        SpeculativeSearch.Speculation speculation = speculativeSearch.start("nike under 4000", preFilters, pageable);
+        AISearchFilterCriteria finalCriteria = brands("nike");
+        finalCriteria.setPriceSaleMax(4000.0);
+
+        // Act
+        Optional<Page<CatalogShoe>> narrowed = speculativeSearch.reuse(speculation, finalCriteria, pageable);
+
+        // Assert
+        assertThat(narrowed).get().satisfies(result -> {
+            assertThat(result.map(CatalogShoe::getId).getContent()).containsExactly("2", "3");
+            assertThat(result.getTotalElements()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void reuse_discardsWhenCriteriaWiden() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10);
+        AISearchFilterCriteria preFilters = brands("nike");
+        when(orchestrator.search(eq("nike or adidas"), eq(preFilters), eq(pageable), any(BooleanSupplier.class)))
+                .thenReturn(new PageImpl<>(List.of(shoe("1", "nike", 5000.0)), pageable, 1));
+        SpeculativeSearch.Speculation speculation = speculativeSearch.start("nike or adidas", preFilters, pageable);
+
+        // Act
+        Optional<Page<CatalogShoe>> reused = speculativeSearch.reuse(speculation, brands("nike", "adidas"), pageable);
+
+        // Assert
+        assertThat(reused).isEmpty();
+        assertThat(meterRegistry.counter("search.speculative", "outcome", "discarded").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void reuse_cancelsADiscardedSpeculationBeforeItQueries() {
+        // Arrange
+        List<Runnable> queued = new ArrayList<>();
+        SpeculativeSearch queuedSearch = new SpeculativeSearch(orchestrator, queued::add,
+                new ShoeSizeExtractor(new ObjectMapper(), new SimpleMeterRegistry()), new SpeculativeSearchProperties(),
+                meterRegistry);
+        Pageable pageable = PageRequest.of(0, 10);
+        SpeculativeSearch.Speculation speculation = queuedSearch.start("nike or adidas", brands("nike"), pageable);
+
+        // Act
+        Optional<Page<CatalogShoe>> reused = queuedSearch.reuse(speculation, brands("nike", "adidas"), pageable);
+        queued.forEach(Runnable::run);
+
+        // Assert
+        assertThat(reused).isEmpty();
+        assertThat(speculation.page()).isCancelled();
+        verifyNoInteractions(orchestrator);
+        assertThat(meterRegistry.counter("search.speculative.cancelled").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void start_letsTheOrchestratorSeeTheCancellation() {
+        // Arrange
+        List<Runnable> queued = new ArrayList<>();
+        SpeculativeSearch queuedSearch = new SpeculativeSearch(orchestrator, queued::add,
+                new ShoeSizeExtractor(new ObjectMapper(), new SimpleMeterRegistry()), new SpeculativeSearchProperties(),
+                meterRegistry);
+        Pageable pageable = PageRequest.of(0, 10);
+        AISearchFilterCriteria preFilters = brands("nike");
+        List<Boolean> seen = new ArrayList<>();
+        SpeculativeSearch.Speculation[] speculation = new SpeculativeSearch.Speculation[1];
+        when(orchestrator.search(eq("nike or adidas"), eq(preFilters), eq(pageable), any(BooleanSupplier.class)))
+                .thenAnswer(invocation -> {
+                    BooleanSupplier cancelled = invocation.getArgument(3);
+                    seen.add(cancelled.getAsBoolean());
+                    queuedSearch.reuse(speculation[0], brands("nike", "adidas"), pageable);
+                    seen.add(cancelled.getAsBoolean());
+                    return new PageImpl<>(List.of(), pageable, 0);
+                });
+        speculation[0] = queuedSearch.start("nike or adidas", preFilters, pageable);
+
+        // Act
+        queued.forEach(Runnable::run);
+
+        // Assert
+        assertThat(seen).containsExactly(false, true);
+        assertThat(speculation[0].page()).isCancelled();
+    }
+
+    @Test
+    void reuse_discardsPartialPageEvenWhenCriteriaNarrow() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 1);
+        AISearchFilterCriteria preFilters = brands("nike");
+        when(orchestrator.search(eq("nike sale"), eq(preFilters), eq(pageable), any(BooleanSupplier.class)))
+                .thenReturn(new PageImpl<>(List.of(shoe("1", "nike", 5000.0)), pageable, 40));
+        SpeculativeSearch.Speculation speculation = speculativeSearch.start("nike sale", preFilters, pageable);
+        AISearchFilterCriteria finalCriteria = brands("nike");
+        finalCriteria.setOnSale(true);
+
+        // Act
+        Optional<Page<CatalogShoe>> reused = speculativeSearch.reuse(speculation, finalCriteria, pageable);
+
+        // Assert
+        assertThat(reused).isEmpty();
+    }
+
+    private static AISearchFilterCriteria brands(String... brands) {
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setBrands(List.of(brands));
+        return criteria;
+    }
+
+    private static CatalogShoe shoe(String id, String brand, Double priceSale) {
+        CatalogShoe shoe = new CatalogShoe();
+        shoe.setId(id);
+        shoe.setBrand(brand);
+        shoe.setPriceSale(priceSale);
+        return shoe;
+    }
+}
@@ -2,10 +2,18 @@ package com.nimbly.phshoesbackend.search.core.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.cache.SearchResponseCache;
+import com.nimbly.phshoesbackend.search.core.config.props.CoalescingProperties;
+import com.nimbly.phshoesbackend.search.core.config.props.ResponseCacheProperties;
 import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.model.CatalogSlice;
+import com.nimbly.phshoesbackend.search.core.model.FilterPipelineResult;
+import com.nimbly.phshoesbackend.search.core.model.SearchCursor;
 import com.nimbly.phshoesbackend.search.core.service.FilterPipeline;
+import com.nimbly.phshoesbackend.search.core.util.ShoeSizeExtractor;
 import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponse;
 import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponseResultsContentInner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,14 +23,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.LocalDate;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,11 +47,20 @@ class TextSearchServiceImplTest {
     @Mock
     private SearchOrchestrator searchOrchestrator;
 
+    @Mock
+    private LatestSnapshotResolver latestSnapshotResolver;
+
+    @Mock
+    private SpeculativeSearch speculativeSearch;
+
     private TextSearchServiceImpl service;
 
     @BeforeEach
     void setup() {
-        service = new TextSearchServiceImpl(filterPipeline, searchOrchestrator, new ObjectMapper());
+        SearchResponseCache responseCache = new SearchResponseCache(new ResponseCacheProperties(),
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry());
+        service = new TextSearchServiceImpl(filterPipeline, searchOrchestrator, new ShoeSizeExtractor(new ObjectMapper(), new SimpleMeterRegistry()),
+                responseCache, latestSnapshotResolver, speculativeSearch, new CoalescingProperties(), new SimpleMeterRegistry());
     }
 
     @Test
@@ -68,7 +90,7 @@ class TextSearchServiceImplTest {
         Pageable pageable = PageRequest.of(0, 1);
         Page<CatalogShoe> page = new PageImpl<>(List.of(shoe), pageable, 1);
 
-        when(filterPipeline.process(eq("query"))).thenReturn(criteria);
+        when(filterPipeline.process(eq("query"))).thenReturn(new FilterPipelineResult(criteria, false));
         when(searchOrchestrator.search(eq("query"), eq(criteria), eq(pageable))).thenReturn(page);
 
         // Act
@@ -102,7 +124,7 @@ class TextSearchServiceImplTest {
         Pageable pageable = PageRequest.of(0, 1);
         Page<CatalogShoe> page = new PageImpl<>(List.of(shoe), pageable, 1);
 
-        when(filterPipeline.process(eq("query"))).thenReturn(criteria);
+        when(filterPipeline.process(eq("query"))).thenReturn(new FilterPipelineResult(criteria, false));
         when(searchOrchestrator.search(eq("query"), eq(criteria), eq(pageable))).thenReturn(page);
 
         // Act
@@ -111,4 +133,129 @@ class TextSearchServiceImplTest {
         // Assert
         assertThat(response.getResults().getContent().get(0).getUrl().toString()).isEqualTo("about:blank");
     }
+
+    @Test
+    void search_servesRepeatedRequestsFromResponseCache() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        Pageable pageable = PageRequest.of(0, 1);
+        when(latestSnapshotResolver.resolveGlobal()).thenReturn(20260124);
+        when(filterPipeline.process(eq("nike shoes"))).thenReturn(new FilterPipelineResult(criteria, false));
+        when(searchOrchestrator.search(eq("nike shoes"), eq(criteria), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+        // Act
+        TextSearchResponse first = service.search("nike shoes", pageable);
+        TextSearchResponse second = service.search("Nike  Shoes", pageable);
+
+        // Assert
+        assertThat(second).isEqualTo(first).isNotSameAs(first);
+        verify(filterPipeline, times(1)).process(eq("nike shoes"));
+    }
+
+    @Test
+    void search_recomputesWhenSnapshotDateChanges() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        Pageable pageable = PageRequest.of(0, 1);
+        when(latestSnapshotResolver.resolveGlobal()).thenReturn(20260124, 20260125);
+        when(filterPipeline.process(eq("nike shoes"))).thenReturn(new FilterPipelineResult(criteria, false));
+        when(searchOrchestrator.search(eq("nike shoes"), eq(criteria), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+        // Act
+        service.search("nike shoes", pageable);
+        service.search("nike shoes", pageable);
+
+        // Assert
+        verify(filterPipeline, times(2)).process(eq("nike shoes"));
+    }
+
+    @Test
+    void search_flagsAndDoesNotCacheDegradedResponses() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        Pageable pageable = PageRequest.of(0, 1);
+        when(latestSnapshotResolver.resolveGlobal()).thenReturn(20260124);
+        when(filterPipeline.process(eq("nike shoes"))).thenReturn(new FilterPipelineResult(criteria, true));
+        when(searchOrchestrator.search(eq("nike shoes"), eq(criteria), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+        // Act
+        TextSearchResponse first = service.search("nike shoes", pageable);
+        service.search("nike shoes", pageable);
+
+        // Assert
+        assertThat(first.getDegraded()).isTrue();
+        verify(filterPipeline, times(2)).process(eq("nike shoes"));
+    }
+
+    @Test
+    void searchSlice_omitsTotalsAndIssuesCursorPinnedToDay() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        Pageable pageable = PageRequest.of(0, 1);
+        when(latestSnapshotResolver.resolveGlobal()).thenReturn(20260124);
+        when(filterPipeline.process(eq("nike shoes"))).thenReturn(new FilterPipelineResult(criteria, false));
+        when(searchOrchestrator.searchSlice(eq("nike shoes"), eq(criteria), eq(pageable), isNull()))
+                .thenReturn(new CatalogSlice(new SliceImpl<>(List.of(new CatalogShoe()), pageable, true), 20260123, null));
+
+        // Act
+        TextSearchResponse response = service.searchSlice("nike shoes", pageable, null);
+
+        // Assert
+        assertThat(response.getResults().getTotalElements()).isNull();
+        assertThat(response.getResults().getTotalPages()).isNull();
+        assertThat(response.getResults().getHasNext()).isTrue();
+        assertThat(SearchCursor.decode(response.getResults().getNextCursor()))
+                .isEqualTo(new SearchCursor(1, 1, 20260123));
+    }
+
+    @Test
+    void searchSlice_cursorOverridesPositionAndPinsDay() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        SearchCursor cursor = new SearchCursor(2, 5, 20260123);
+        Pageable expected = PageRequest.of(2, 5);
+        when(filterPipeline.process(eq("nike shoes"))).thenReturn(new FilterPipelineResult(criteria, false));
+        when(searchOrchestrator.searchSlice(eq("nike shoes"), eq(criteria), eq(expected), eq(20260123)))
+                .thenReturn(new CatalogSlice(new SliceImpl<>(List.of(), expected, false), 20260123, 12L));
+
+        // Act
+        TextSearchResponse response = service.searchSlice("nike shoes", PageRequest.of(0, 15), cursor);
+
+        // Assert
+        assertThat(response.getResults().getPage()).isEqualTo(2);
+        assertThat(response.getResults().getTotalElements()).isEqualTo(12L);
+        assertThat(response.getResults().getTotalPages()).isEqualTo(3);
+        assertThat(response.getResults().getHasNext()).isFalse();
+        assertThat(response.getResults().getNextCursor()).isNull();
+        verifyNoInteractions(latestSnapshotResolver);
+    }
+
+    @Test
+    void search_doesNotCoalesceWhenDisabled() {
+        // Arrange
+        CoalescingProperties coalescing = new CoalescingProperties();
+        coalescing.setEnabled(false);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResponseCacheProperties cacheProperties = new ResponseCacheProperties();
+        cacheProperties.setEnabled(false);
+        TextSearchServiceImpl uncoalesced = new TextSearchServiceImpl(filterPipeline, searchOrchestrator,
+                new ShoeSizeExtractor(new ObjectMapper(), meterRegistry),
+                new SearchResponseCache(cacheProperties, new ObjectMapper(), meterRegistry), latestSnapshotResolver, speculativeSearch,
+                coalescing, meterRegistry);
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        Pageable pageable = PageRequest.of(0, 1);
+        when(filterPipeline.process(eq("nike shoes"))).thenReturn(new FilterPipelineResult(criteria, false));
+        when(searchOrchestrator.search(eq("nike shoes"), eq(criteria), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+        // Act
+        uncoalesced.search("nike shoes", pageable);
+
+        // Assert
+        assertThat(meterRegistry.get("search.singleflight").tag("outcome", "leader").counter().count()).isZero();
+        verifyNoInteractions(latestSnapshotResolver);
+    }
 }
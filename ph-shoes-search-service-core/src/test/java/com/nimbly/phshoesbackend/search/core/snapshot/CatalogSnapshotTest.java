@@ -0,0 +1,201 @@
+package com.nimbly.phshoesbackend.search.core.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.util.ShoeSizeExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSnapshotTest {
+
+    private final CatalogSnapshot snapshot = CatalogSnapshot.of(20260124, List.of(
+            shoe("1", "Nike", "Nike Pegasus 41", "Men's Road Running Shoes", 5000.0, 7000.0, "[\"9\",\"10\"]"),
+            shoe("2", "nike", "Nike Air Max 90", "Women's Shoes", 6500.0, 6500.0, "[\"7\",\"7.5\"]"),
+            shoe("3", "Adidas", "Adizero Boston 12", "Running", 4500.0, null, "[\"10\"]"),
+            shoe("4", null, "Unbranded Slide", null, null, 900.0, "[]"),
+            shoe("5", "Asics", "Gel-Kayano 31", "Men's Running Shoes", 8000.0, 9000.0, "[10]")
+    ), new ShoeSizeExtractor(new ObjectMapper(), new SimpleMeterRegistry()));
+
+    @Test
+    void select_matchesBrandsCaseInsensitively() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setBrands(List.of("NIKE"));
+
+        // Act
+        List<String> ids = ids(criteria);
+
+        // Assert
+        assertThat(ids).containsExactly("1", "2");
+    }
+
+    @Test
+    void select_usesPostingsForTextualSizesOnly() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setSizes(List.of(" 10 ", "7.5"));
+
+        // Act
+        List<String> ids = ids(criteria);
+
+        // Assert
+        assertThat(ids).containsExactly("1", "2", "3");
+    }
+
+    @Test
+    void select_treatsNullPricesAsNonMatching() {
+        // Arrange
+        AISearchFilterCriteria onSale = new AISearchFilterCriteria();
+        onSale.setOnSale(true);
+        AISearchFilterCriteria cheap = new AISearchFilterCriteria();
+        cheap.setPriceSaleMax(5000.0);
+
+        // Act
+        List<String> onSaleIds = ids(onSale);
+        List<String> cheapIds = ids(cheap);
+
+        // Assert
+        assertThat(onSaleIds).containsExactly("1", "5");
+        assertThat(cheapIds).containsExactly("1", "3");
+    }
+
+    @Test
+    void select_prefersModelOverKeywords() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setModel("Air Max");
+        criteria.setTitleKeywords(List.of("pegasus"));
+
+        // Act
+        List<String> ids = ids(criteria);
+
+        // Assert
+        assertThat(ids).containsExactly("2");
+    }
+
+    @Test
+    void select_trimsTheModelPhraseLikeProductSpecs() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setModel("  Air Max ");
+
+        // Act
+        List<String> ids = ids(criteria);
+
+        // Assert
+        assertThat(ids).containsExactly("2");
+    }
+
+    @Test
+    void select_matchesTitleOrSubtitleKeywords() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setTitleKeywords(List.of("boston"));
+        criteria.setSubtitleKeywords(List.of("women"));
+
+        // Act
+        List<String> ids = ids(criteria);
+
+        // Assert
+        assertThat(ids).containsExactly("2", "3");
+    }
+
+    @Test
+    void select_honoursLikeWildcardsInKeywords() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setTitleKeywords(List.of("gel_kayano", "   "));
+
+        // Act
+        List<String> ids = ids(criteria);
+
+        // Assert
+        assertThat(ids).containsExactly("5");
+    }
+
+    @Test
+    void page_sortsByPriceWithNullsHighAndSlices() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+
+        // Act
+        Optional<Page<CatalogShoe>> ascending =
+                snapshot.page(snapshot.select(criteria), PageRequest.of(0, 5, Sort.by("priceSale").ascending()));
+        Optional<Page<CatalogShoe>> descending =
+                snapshot.page(snapshot.select(criteria), PageRequest.of(1, 2, Sort.by("priceSale").descending()));
+
+        // Assert
+        assertThat(ascending).get().extracting(page -> page.map(CatalogShoe::getId).getContent())
+                .isEqualTo(List.of("3", "1", "2", "5", "4"));
+        assertThat(descending).get().satisfies(page -> {
+            assertThat(page.map(CatalogShoe::getId).getContent()).containsExactly("2", "1");
+            assertThat(page.getTotalElements()).isEqualTo(5);
+        });
+    }
+
+    @Test
+    void page_breaksTiesOnLaterSortOrdersThenOnRowOrder() {
+        // Arrange
+        CatalogSnapshot ties = CatalogSnapshot.of(20260124, List.of(
+                shoe("a", "Nike", "A", null, 5000.0, 7000.0, "[]"),
+                shoe("b", "Nike", "B", null, 5000.0, 6000.0, "[]"),
+                shoe("c", "Nike", "C", null, 4000.0, null, "[]"),
+                shoe("d", "Nike", "D", null, 5000.0, 6000.0, "[]")
+        ), new ShoeSizeExtractor(new ObjectMapper(), new SimpleMeterRegistry()));
+        Sort sort = Sort.by(Sort.Order.asc("priceSale"), Sort.Order.desc("priceOriginal"));
+
+        // Act
+        Optional<Page<CatalogShoe>> page =
+                ties.page(ties.select(new AISearchFilterCriteria()), PageRequest.of(0, 5, sort));
+
+        // Assert
+        assertThat(page).get().extracting(found -> found.map(CatalogShoe::getId).getContent())
+                .isEqualTo(List.of("c", "a", "b", "d"));
+    }
+
+    @Test
+    void page_declinesSortOnColumnsItDoesNotHold() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+
+        // Act
+        Optional<Page<CatalogShoe>> page =
+                snapshot.page(snapshot.select(criteria), PageRequest.of(0, 5, Sort.by("title")));
+
+        // Assert
+        assertThat(page).isEmpty();
+    }
+
+    private List<String> ids(AISearchFilterCriteria criteria) {
+        return snapshot.select(criteria).stream().mapToObj(row -> snapshot.row(row).getId()).toList();
+    }
+
+    private static CatalogShoe shoe(
+            String id,
+            String brand,
+            String title,
+            String subtitle,
+            Double priceSale,
+            Double priceOriginal,
+            String sizesJson
+    ) {
+        CatalogShoe shoe = new CatalogShoe();
+        shoe.setId(id);
+        shoe.setBrand(brand);
+        shoe.setTitle(title);
+        shoe.setSubtitle(subtitle);
+        shoe.setPriceSale(priceSale);
+        shoe.setPriceOriginal(priceOriginal);
+        shoe.setExtra("{\"sizes\":" + sizesJson + "}");
+        return shoe;
+    }
+}
@@ -0,0 +1,126 @@
+package com.nimbly.phshoesbackend.search.core.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.config.props.CatalogQueryProperties;
+import com.nimbly.phshoesbackend.search.core.config.props.LocalSnapshotProperties;
+import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
+import com.nimbly.phshoesbackend.search.core.repository.CatalogSearchRepository;
+import com.nimbly.phshoesbackend.search.core.service.impl.LatestSnapshotResolver;
+import com.nimbly.phshoesbackend.search.core.util.ShoeSizeExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LocalCatalogSnapshotTest {
+
+    @Mock
+    private CatalogSearchRepository catalogSearchRepository;
+
+    @Mock
+    private LatestSnapshotResolver latestSnapshotResolver;
+
+    private LocalCatalogSnapshot localSnapshot;
+
+    @BeforeEach
+    void setup() {
+        LocalSnapshotProperties properties = new LocalSnapshotProperties();
+        properties.setEnabled(true);
+        localSnapshot = new LocalCatalogSnapshot(catalogSearchRepository, latestSnapshotResolver,
+                new CatalogQueryProperties(), properties, new ShoeSizeExtractor(new ObjectMapper(), new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        localSnapshot.shutdown();
+    }
+
+    @Test
+    void reload_loadsLatestDayOnce() {
+        // Arrange
+        when(latestSnapshotResolver.resolveGlobal()).thenReturn(20260124);
+        when(catalogSearchRepository.findAll(any(Specification.class))).thenReturn(List.of(shoe("1", "Nike")));
+
+        // Act
+        boolean first = localSnapshot.reload();
+        boolean second = localSnapshot.reload();
+
+        // Assert
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(localSnapshot.current()).get().extracting(CatalogSnapshot::dateKey).isEqualTo(20260124);
+        verify(catalogSearchRepository, times(1)).findAll(any(Specification.class));
+    }
+
+    @Test
+    void search_answersFromLoadedSnapshot() {
+        // Arrange
+        when(latestSnapshotResolver.resolveGlobal()).thenReturn(20260124);
+        when(catalogSearchRepository.findAll(any(Specification.class)))
+                .thenReturn(List.of(shoe("1", "Nike"), shoe("2", "Adidas")));
+        localSnapshot.reload();
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setBrands(List.of("adidas"));
+
+        // Act
+        Optional<Page<CatalogShoe>> page = localSnapshot.search(criteria, PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(page).get().extracting(Page::getTotalElements).isEqualTo(1L);
+    }
+
+    @Test
+    void search_fallsBackWhenSnapshotHasNoMatch() {
+        // Arrange
+        when(latestSnapshotResolver.resolveGlobal()).thenReturn(20260124);
+        when(catalogSearchRepository.findAll(any(Specification.class))).thenReturn(List.of(shoe("1", "Nike")));
+        localSnapshot.reload();
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setBrands(List.of("puma"));
+
+        // Act
+        Optional<Page<CatalogShoe>> page = localSnapshot.search(criteria, PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(page).isEmpty();
+    }
+
+    @Test
+    void search_fallsBackWhenSnapshotIsStale() {
+        // Arrange
+        when(latestSnapshotResolver.resolveGlobal()).thenReturn(20260124, 20260125);
+        when(catalogSearchRepository.findAll(any(Specification.class))).thenReturn(List.of(shoe("1", "Nike")));
+        localSnapshot.reload();
+
+        // Act
+        Optional<Page<CatalogShoe>> page = localSnapshot.search(new AISearchFilterCriteria(), PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(page).isEmpty();
+    }
+
+    private static CatalogShoe shoe(String id, String brand) {
+        CatalogShoe shoe = new CatalogShoe();
+        shoe.setId(id);
+        shoe.setBrand(brand);
+        shoe.setTitle(brand + " Runner");
+        return shoe;
+    }
+}
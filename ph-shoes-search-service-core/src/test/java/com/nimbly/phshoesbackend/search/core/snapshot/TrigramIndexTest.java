@@ -0,0 +1,64 @@
+package com.nimbly.phshoesbackend.search.core.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private final String[] column = {
+            "nike pegasus 41",
+            null,
+            "adizero boston 12",
+            "nike air max 90",
+            "gel-kayano 31",
+            "ai"
+    };
+
+    private final TrigramIndex index = TrigramIndex.build(column);
+
+    @Test
+    void containing_matchesSubstringScan() {
+        // Arrange
+        String[] literals = {"nike", "air max", "ost", "s 4", "kayano 31", "zzz", "max 900"};
+
+        for (String literal : literals) {
+            // Act
+            BitSet indexed = index.containing(literal);
+
+            // Assert
+            assertThat(indexed).as(literal).isEqualTo(scan(literal));
+        }
+    }
+
+    @Test
+    void containing_verifiesCandidatesSharingAllTrigrams() {
+        // Arrange
+        TrigramIndex tricky = TrigramIndex.build(new String[]{"abcxbcd", "abcd"});
+
+        // Act
+        BitSet matches = tricky.containing("abcd");
+
+        // Assert
+        assertThat(matches.stream().toArray()).containsExactly(1);
+    }
+
+    @Test
+    void indexable_requiresAtLeastOneTrigram() {
+        // Act & Assert
+        assertThat(TrigramIndex.indexable("ai")).isFalse();
+        assertThat(TrigramIndex.indexable("air")).isTrue();
+    }
+
+    private BitSet scan(String literal) {
+        BitSet matches = new BitSet();
+        for (int row = 0; row < column.length; row++) {
+            if (column[row] != null && column[row].contains(literal)) {
+                matches.set(row);
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,54 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BrandDictionaryTest {
+
+    @Test
+    void aliases_resolveNamesAliasesAndMisspellingsToTheCompactBrand() throws IOException {
+        // Arrange
+        String seed = """
+                # comment
+                New Balance: nb, new  ballance
+                hoka
+                """;
+
+        // Act
+        BrandDictionary dictionary = BrandDictionary.builder().aliases(new StringReader(seed)).build();
+
+        // Assert
+        assertThat(dictionary.brands()).containsExactly("hoka", "newbalance");
+        assertThat(dictionary.phrases()).containsEntry("new balance", "newbalance")
+                .containsEntry("newbalance", "newbalance")
+                .containsEntry("new ballance", "newbalance")
+                .containsEntry("nb", "newbalance");
+        assertThat(dictionary.canonicalOf(" NewBallance ")).isEqualTo("newbalance");
+        assertThat(dictionary.canonicalOf("HOKA")).isEqualTo("hoka");
+        assertThat(dictionary.canonicalOf("unknown")).isNull();
+    }
+
+    @Test
+    void brand_skipsBlankAndNonAsciiNames() {
+        // Act
+        BrandDictionary dictionary = BrandDictionary.builder().brand(" ").brand("Café Shoes").brand(null).build();
+
+        // Assert
+        assertThat(dictionary.brands()).isEmpty();
+    }
+
+    @Test
+    void defaults_coverTheBundledBrands() {
+        // Act
+        BrandDictionary dictionary = BrandDictionary.defaults();
+
+        // Assert
+        assertThat(dictionary.brands())
+                .containsExactlyInAnyOrder("nike", "adidas", "newbalance", "asics", "worldbalance", "hoka");
+        assertThat(dictionary.canonicalOf("addidas")).isEqualTo("adidas");
+    }
+}
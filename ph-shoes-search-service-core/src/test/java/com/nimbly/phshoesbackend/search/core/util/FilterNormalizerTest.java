@@ -36,4 +36,45 @@ class FilterNormalizerTest {
         assertThat(criteria.getPriceSaleMin()).isEqualTo(3000.0);
         assertThat(criteria.getPriceSaleMax()).isEqualTo(5000.0);
     }
+
+    @Test
+    void normalize_isIdempotentAndKeepsCanonicalListsAsIs() {
+        // Arrange
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setBrands(List.of("New Balance", "newbalance"));
+        criteria.setTitleKeywords(List.of("990"));
+        criteria.setSizes(List.of("US 9.5"));
+        FilterNormalizer.normalize(criteria);
+        List<String> brands = criteria.getBrands();
+        List<String> titleKeywords = criteria.getTitleKeywords();
+        List<String> sizes = criteria.getSizes();
+
+        // Act
+        FilterNormalizer.normalize(criteria);
+
+        // Assert
+        assertThat(criteria.getBrands()).isSameAs(brands).containsExactly("newbalance");
+        assertThat(criteria.getTitleKeywords()).isSameAs(titleKeywords);
+        assertThat(criteria.getSizes()).isSameAs(sizes).containsExactly("9.5");
+    }
+
+    @Test
+    void normalize_dropsSizesThatOnlyRepeatTheModelNumber() {
+        // Arrange
+        AISearchFilterCriteria fromModel = new AISearchFilterCriteria();
+        fromModel.setModel("Pegasus 41");
+        fromModel.setSizes(List.of("US 41"));
+        AISearchFilterCriteria withCue = new AISearchFilterCriteria();
+        withCue.setModel("Pegasus 41");
+        withCue.setTitleKeywords(List.of("size 41"));
+        withCue.setSizes(List.of("41"));
+
+        // Act
+        FilterNormalizer.normalize(fromModel);
+        FilterNormalizer.normalize(withCue);
+
+        // Assert
+        assertThat(fromModel.getSizes()).isNull();
+        assertThat(withCue.getSizes()).containsExactly("41");
+    }
 }
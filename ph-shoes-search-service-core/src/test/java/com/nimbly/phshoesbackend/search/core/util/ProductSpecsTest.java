@@ -15,13 +15,14 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ProductSpecsTest {
 
     @Test
-    void brandIn_buildsPredicates() {
+    void brandIn_buildsSortedInList() {
         // Arrange
         CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class);
         @SuppressWarnings("unchecked")
@@ -31,20 +32,16 @@ class ProductSpecsTest {
         Path brandPath = mock(Path.class);
         @SuppressWarnings("unchecked")
         Expression<String> brandExpression = mock(Expression.class);
-        Predicate predicate = mock(Predicate.class);
 
         when(root.get("brand")).thenReturn(brandPath);
         when(criteriaBuilder.lower(brandPath)).thenReturn(brandExpression);
-        when(criteriaBuilder.equal(brandExpression, "nike")).thenReturn(predicate);
-        when(criteriaBuilder.or(any(Predicate[].class))).thenReturn(predicate);
 
         // Act
-        ProductSpecs.brandIn(List.of("Nike")).toPredicate(root, query, criteriaBuilder);
+        ProductSpecs.brandIn(List.of("Nike", "asics", " adidas", "nike")).toPredicate(root, query, criteriaBuilder);
 
         // Assert
         verify(criteriaBuilder).lower(brandPath);
-        verify(criteriaBuilder).equal(brandExpression, "nike");
-        verify(criteriaBuilder).or(any(Predicate[].class));
+        verify(brandExpression).in(List.of("adidas", "asics", "nike"));
     }
 
     @Test
@@ -104,4 +101,86 @@ class ProductSpecsTest {
         verify(criteriaBuilder).function(eq("REGEXP_LIKE"), eq(Boolean.class), eq(extraExpression), any(Expression.class));
         verify(criteriaBuilder).isTrue(regexExpression);
     }
+
+    @Test
+    void sizeAnyInSizesArray_buildsArrayContainsPredicate() {
+        // Arrange
+        CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class);
+        @SuppressWarnings("unchecked")
+        Root<CatalogShoe> root = mock(Root.class);
+        CriteriaQuery<?> query = mock(CriteriaQuery.class);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Path extraPath = mock(Path.class);
+        @SuppressWarnings("unchecked")
+        Expression<Object> sizesExpression = mock(Expression.class);
+        @SuppressWarnings("unchecked")
+        Expression<Boolean> containsExpression = mock(Expression.class);
+
+        when(root.get("extra")).thenReturn(extraPath);
+        when(criteriaBuilder.literal(Mockito.anyString())).thenAnswer(invocation -> mock(Expression.class));
+        when(criteriaBuilder.function(eq("GET"), eq(Object.class), eq(extraPath), any(Expression.class)))
+                .thenReturn(sizesExpression);
+        when(criteriaBuilder.function(eq("ARRAY_CONTAINS"), eq(Boolean.class), any(), eq(sizesExpression)))
+                .thenReturn(containsExpression);
+
+        // Act
+        ProductSpecs.sizeAnyIn(List.of("10", " 9.5 "), SizeFilterMode.ARRAY_CONTAINS)
+                .toPredicate(root, query, criteriaBuilder);
+
+        // Assert
+        verify(criteriaBuilder).literal("10");
+        verify(criteriaBuilder).literal("9.5");
+        verify(criteriaBuilder, Mockito.times(2)).isTrue(containsExpression);
+        verify(criteriaBuilder, never()).function(eq("REGEXP_LIKE"), eq(Boolean.class), any(), any());
+    }
+
+    @Test
+    void collectedOnDateKey_componentsModeComparesEachDateColumn() {
+        // Arrange
+        CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class);
+        @SuppressWarnings("unchecked")
+        Root<CatalogShoe> root = mock(Root.class);
+        CriteriaQuery<?> query = mock(CriteriaQuery.class);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Path yearPath = mock(Path.class);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Path monthPath = mock(Path.class);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Path dayPath = mock(Path.class);
+
+        when(root.get("year")).thenReturn(yearPath);
+        when(root.get("month")).thenReturn(monthPath);
+        when(root.get("day")).thenReturn(dayPath);
+
+        // Act
+        ProductSpecs.collectedOnDateKey(20250307, DateKeyMode.COMPONENTS, null)
+                .toPredicate(root, query, criteriaBuilder);
+
+        // Assert
+        verify(criteriaBuilder).equal(yearPath, 2025);
+        verify(criteriaBuilder).equal(monthPath, 3);
+        verify(criteriaBuilder).equal(dayPath, 7);
+        verify(criteriaBuilder, never()).prod(any(Expression.class), any(Integer.class));
+    }
+
+    @Test
+    void collectedOnDateKey_columnModeComparesConfiguredAttribute() {
+        // Arrange
+        CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class);
+        @SuppressWarnings("unchecked")
+        Root<CatalogShoe> root = mock(Root.class);
+        CriteriaQuery<?> query = mock(CriteriaQuery.class);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Path dateKeyPath = mock(Path.class);
+
+        when(root.get("dateKey")).thenReturn(dateKeyPath);
+
+        // Act
+        ProductSpecs.collectedOnDateKey(20250307, DateKeyMode.COLUMN, "dateKey")
+                .toPredicate(root, query, criteriaBuilder);
+
+        // Assert
+        verify(criteriaBuilder).equal(dateKeyPath, 20250307);
+        verify(root, never()).get("year");
+    }
 }
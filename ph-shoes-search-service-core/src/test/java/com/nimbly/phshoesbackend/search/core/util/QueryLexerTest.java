@@ -0,0 +1,61 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+import com.nimbly.phshoesbackend.search.core.util.QueryLexer.Kind;
+import com.nimbly.phshoesbackend.search.core.util.QueryLexer.Token;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryLexerTest {
+
+    private final QueryLexer lexer = QueryLexer.builder()
+            .phrase(Kind.BRAND, "new balance", "newbalance")
+            .phrase(Kind.BRAND, "newbalance", "newbalance")
+            .phrases(Kind.ON_SALE, "on sale", "on sales")
+            .phrases(Kind.UNIT, "us")
+            .build();
+
+    @Test
+    void scan_reportsOverlappingPhrasesWithBoundaries() {
+        // Act
+        List<Token> tokens = lexer.scan("New Balance ON SALES");
+
+        // Assert
+        assertThat(tokens).containsExactly(
+                new Token(Kind.BRAND, 0, 11, "newbalance", true, true),
+                new Token(Kind.ON_SALE, 12, 19, null, true, false),
+                new Token(Kind.ON_SALE, 12, 20, null, true, true)
+        );
+    }
+
+    @Test
+    void scan_findsPhrasesInsideWordsAndDigitRuns() {
+        // Act
+        List<Token> tokens = lexer.scan("pegasus us9.5");
+
+        // Assert
+        assertThat(tokens).containsExactly(
+                new Token(Kind.UNIT, 5, 7, null, false, true),
+                new Token(Kind.UNIT, 8, 10, null, true, false),
+                new Token(Kind.NUMBER, 10, 11, null, false, true),
+                new Token(Kind.NUMBER, 12, 13, null, true, true)
+        );
+    }
+
+    @Test
+    void scan_ignoresNonAsciiAndEmptyInput() {
+        // Act & Assert
+        assertThat(lexer.scan("")).isEmpty();
+        assertThat(lexer.scan("naïve newbalancé")).isEmpty();
+    }
+
+    @Test
+    void builder_rejectsNonAsciiPhrases() {
+        // Act & Assert
+        assertThatThrownBy(() -> QueryLexer.builder().phrases(Kind.BRAND, "café"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
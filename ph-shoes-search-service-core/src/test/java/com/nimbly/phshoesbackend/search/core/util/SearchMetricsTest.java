@@ -0,0 +1,50 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+import com.nimbly.phshoesbackend.search.core.util.SearchMetrics.Stage;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final SearchMetrics metrics = new SearchMetrics(meterRegistry);
+
+    @Test
+    void time_tagsTheStageWithTheOutcomeOfTheResult() {
+        // Act
+        String result = metrics.time(Stage.PAGE_QUERY, () -> "", rows -> rows.isEmpty()
+                ? SearchMetrics.ZERO_RESULTS
+                : SearchMetrics.RESULTS);
+
+        // Assert
+        assertThat(result).isEmpty();
+        Timer timer = meterRegistry.get(SearchMetrics.STAGE_TIMER)
+                .tags("stage", "page_query", "outcome", "zero_results")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(Arrays.stream(timer.takeSnapshot().percentileValues()).map(ValueAtPercentile::percentile))
+                .containsExactly(0.5, 0.95, 0.99);
+    }
+
+    @Test
+    void time_recordsFailuresAsErrors() {
+        // Act
+        assertThatThrownBy(() -> metrics.time(Stage.COUNT_QUERY, () -> {
+            throw new IllegalStateException("warehouse down");
+        })).hasMessage("warehouse down");
+
+        // Assert
+        assertThat(meterRegistry.get(SearchMetrics.STAGE_TIMER)
+                .tags("stage", "count_query", "outcome", "error")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+}
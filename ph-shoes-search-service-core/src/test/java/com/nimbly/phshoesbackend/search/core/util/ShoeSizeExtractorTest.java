@@ -0,0 +1,70 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShoeSizeExtractorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ShoeSizeExtractor extractor = new ShoeSizeExtractor(new ObjectMapper(), meterRegistry);
+
+    @Test
+    void extract_skipsPrecedingFieldsAndReadsTextualAndNumericSizes() {
+        // Arrange
+        String extra = "{\"category\":\"running\",\"colors\":[{\"name\":\"black\",\"sizes\":[\"99\"]}],"
+                + "\"sizes\":[\"7\",\"7.5\",8,\" \",{\"eu\":\"41\"}],\"tags\":[\"new\"]}";
+
+        // Act
+        List<String> sizes = extractor.extract(extra);
+        List<String> filterable = extractor.extractFilterable(extra);
+
+        // Assert
+        assertThat(sizes).containsExactly("7", "7.5", "8");
+        assertThat(filterable).containsExactly("7", "7.5");
+    }
+
+    @Test
+    void extract_returnsNullWhenSizesAbsentOrNotAnArray() {
+        // Arrange / Act / Assert
+        assertThat(extractor.extract("{\"category\":\"running\"}")).isNull();
+        assertThat(extractor.extract("{\"sizes\":\"7\"}")).isNull();
+        assertThat(extractor.extract("[\"7\"]")).isNull();
+        assertThat(extractor.extract("{\"sizes\":[]}")).isNull();
+        assertThat(extractor.extractFilterable(null)).isEmpty();
+    }
+
+    @Test
+    void extract_countsMalformedBlobs() {
+        // Arrange
+        String truncated = "{\"sizes\":[\"7\",\"8\"";
+
+        // Act
+        List<String> sizes = extractor.extract(truncated);
+
+        // Assert
+        assertThat(sizes).isNull();
+        assertThat(meterRegistry.get("search.sizes.malformed").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void intern_sharesCommonSizesOnly() {
+        // Arrange
+        char[] buffer = "x10.5y".toCharArray();
+
+        // Act
+        String common = ShoeSizeExtractor.intern(buffer, 1, 4);
+
+        // Assert
+        assertThat(common).isSameAs(ShoeSizeExtractor.intern("10.5".toCharArray(), 0, 4));
+        assertThat(ShoeSizeExtractor.intern("7".toCharArray(), 0, 1)).isSameAs(ShoeSizeExtractor.intern("7".toCharArray(), 0, 1));
+        assertThat(ShoeSizeExtractor.intern("07".toCharArray(), 0, 2)).isEqualTo("07");
+        assertThat(ShoeSizeExtractor.intern("10.0".toCharArray(), 0, 4)).isEqualTo("10.0");
+        assertThat(ShoeSizeExtractor.intern("M 9".toCharArray(), 0, 3)).isEqualTo("M 9");
+        assertThat(ShoeSizeExtractor.intern("21".toCharArray(), 0, 2)).isEqualTo("21");
+    }
+}
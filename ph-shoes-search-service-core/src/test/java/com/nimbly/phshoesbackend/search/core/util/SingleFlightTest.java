@@ -0,0 +1,158 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_sharesTheLeadersResultWithConcurrentCallers() throws Exception {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        AtomicReference<Thread> follower = new AtomicReference<>();
+        Future<String> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "result";
+        }));
+        awaitInFlight();
+
+        // Act
+        Future<String> shared = executor.submit(() -> {
+            follower.set(Thread.currentThread());
+            return singleFlight.execute("key", () -> "own " + loads.incrementAndGet());
+        });
+        awaitWaiting(follower);
+        release.countDown();
+
+        // Assert
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(shared.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(loads).hasValue(1);
+        assertThat(count("shared")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("search.singleflight.inflight").gauge().value()).isZero();
+    }
+
+    @Test
+    void execute_handsEachFollowerItsOwnShareOfTheLeadersResult() throws Exception {
+        // Arrange
+        SingleFlight<String, List<String>> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5),
+                ArrayList::new, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> result = new ArrayList<>(List.of("result"));
+        AtomicReference<Thread> follower = new AtomicReference<>();
+        Future<List<String>> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            await(release);
+            return result;
+        }));
+        awaitInFlight();
+
+        // Act
+        Future<List<String>> shared = executor.submit(() -> {
+            follower.set(Thread.currentThread());
+            return singleFlight.execute("key", () -> List.of("own"));
+        });
+        awaitWaiting(follower);
+        release.countDown();
+
+        // Assert
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isSameAs(result);
+        assertThat(shared.get(5, TimeUnit.SECONDS)).isEqualTo(result).isNotSameAs(result);
+    }
+
+    @Test
+    void execute_runsItsOwnLoaderAfterWaitingTooLong() throws Exception {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofMillis(50), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> singleFlight.execute("key", () -> {
+            await(release);
+            return "slow";
+        }));
+        awaitInFlight();
+
+        // Act
+        String result = singleFlight.execute("key", () -> "own");
+        release.countDown();
+
+        // Assert
+        assertThat(result).isEqualTo("own");
+        assertThat(count("timeout")).isEqualTo(1.0);
+    }
+
+    @Test
+    void execute_sharesTheLeadersFailureAndForgetsIt() throws Exception {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> follower = new AtomicReference<>();
+        executor.submit(() -> singleFlight.execute("key", () -> {
+            await(release);
+            throw new IllegalStateException("warehouse down");
+        }));
+        awaitInFlight();
+        CompletableFuture<String> shared = CompletableFuture.supplyAsync(() -> {
+            follower.set(Thread.currentThread());
+            return singleFlight.execute("key", () -> "own");
+        }, executor);
+        awaitWaiting(follower);
+
+        // Act
+        release.countDown();
+
+        // Assert
+        assertThatThrownBy(() -> shared.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("warehouse down");
+        assertThat(singleFlight.execute("key", () -> "retried")).isEqualTo("retried");
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("search.singleflight").tags("name", "test", "outcome", outcome).counter().count();
+    }
+
+    private void awaitInFlight() {
+        while (meterRegistry.get("search.singleflight.inflight").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void awaitWaiting(AtomicReference<Thread> thread) {
+        while (thread.get() == null || thread.get().getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
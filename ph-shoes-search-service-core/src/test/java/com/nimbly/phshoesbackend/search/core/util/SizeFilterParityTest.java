@@ -0,0 +1,59 @@
+package com.nimbly.phshoesbackend.search.core.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The regex filter and the ARRAY_CONTAINS filter must select the same rows. Snowflake is not available
+ * in tests, so the regex is evaluated with {@link Pattern#find()} and ARRAY_CONTAINS is mirrored by an
+ * exact string-element lookup in the parsed {@code sizes} array.
+ */
+class SizeFilterParityTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "{\"sizes\":[\"9\",\"10\",\"11\"]}                     | 10",
+            "{\"sizes\":[\"9\",\"10\",\"11\"]}                     | 12",
+            "{\"sizes\": [ \"8.5\" , \"9\" ]}                      | 8.5",
+            "{\"sizes\":[\"805\"]}                                 | 8.5",
+            "{\"sizes\":[\"10.5\"]}                                | 10",
+            "{\"sizes\":[\"110\"]}                                 | 10",
+            "{\"sizes\":[]}                                        | 10",
+            "{\"colors\":[\"black\"]}                              | 10",
+            "{\"sizes\":[\"9\"],\"widths\":[\"10\"]}               | 10",
+            "{\"widths\":[\"10\"],\"sizes\":[\"9\"]}               | 10",
+            "{\"category\":\"running\",\"sizes\":[\"7\",\"7.5\"]}  | 7.5",
+            "{\"sizes\":[10,11]}                                   | 10"
+    })
+    void regexAndArrayContains_selectSameRows(String extra, String size) throws Exception {
+        // Arrange
+        Pattern regex = Pattern.compile(ProductSpecs.sizeRegex(size));
+
+        // Act
+        boolean regexMatch = regex.matcher(extra).find();
+        boolean arrayMatch = arrayContains(objectMapper.readTree(extra).get("sizes"), size);
+
+        // Assert
+        assertThat(regexMatch).isEqualTo(arrayMatch);
+    }
+
+    private static boolean arrayContains(JsonNode sizes, String size) {
+        if (sizes == null || !sizes.isArray()) {
+            return false;
+        }
+        for (JsonNode element : sizes) {
+            if (element.isTextual() && element.textValue().equals(size)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,6 +1,7 @@
 package com.nimbly.phshoesbackend.search.core.util;
 
 import com.nimbly.phshoesbackend.catalog.core.model.CatalogShoe;
+import com.nimbly.phshoesbackend.search.core.config.props.CatalogQueryProperties;
 import com.nimbly.phshoesbackend.search.core.model.AISearchFilterCriteria;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
@@ -8,10 +9,20 @@ import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.StringJoiner;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -31,7 +42,7 @@ class SpecificationBuilderTest {
         criteria.setPriceOriginalMax(6000.0);
         criteria.setOnSale(true);
 
-        SpecificationBuilder builder = new SpecificationBuilder();
+        SpecificationBuilder builder = new SpecificationBuilder(new CatalogQueryProperties());
         CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class);
         @SuppressWarnings("unchecked")
         Root<CatalogShoe> root = mock(Root.class);
@@ -64,7 +75,7 @@ class SpecificationBuilderTest {
         criteria.setTitleKeywords(List.of("running"));
         criteria.setSubtitleKeywords(List.of("kids"));
 
-        SpecificationBuilder builder = new SpecificationBuilder();
+        SpecificationBuilder builder = new SpecificationBuilder(new CatalogQueryProperties());
         CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class);
         @SuppressWarnings("unchecked")
         Root<CatalogShoe> root = mock(Root.class);
@@ -91,4 +102,121 @@ class SpecificationBuilderTest {
         // Act
         builder.build(criteria).toPredicate(root, query, criteriaBuilder);
     }
+
+    @ParameterizedTest
+    @EnumSource(SizeFilterMode.class)
+    void build_rendersPermutedCriteriaAsTheSameStatement(SizeFilterMode sizeFilterMode) {
+        // Arrange
+        CatalogQueryProperties properties = new CatalogQueryProperties();
+        properties.setSizeFilterMode(sizeFilterMode);
+        SpecificationBuilder builder = new SpecificationBuilder(properties);
+        AISearchFilterCriteria first = new AISearchFilterCriteria();
+        first.setBrands(List.of("nike", "adidas", "asics"));
+        first.setSizes(List.of("10", "9.5"));
+        first.setTitleKeywords(List.of("running", "trail"));
+        first.setPriceSaleMax(5000.0);
+        AISearchFilterCriteria permuted = new AISearchFilterCriteria();
+        permuted.setBrands(List.of("Asics", " ADIDAS", "nike", "adidas"));
+        permuted.setSizes(List.of("9.5", " 10", "10"));
+        permuted.setTitleKeywords(List.of("Trail", "running"));
+        permuted.setPriceSaleMax(5000.0);
+
+        // Act
+        RenderedSql firstSql = RenderedSql.of(builder.build(first));
+        RenderedSql permutedSql = RenderedSql.of(builder.build(permuted));
+
+        // Assert
+        assertThat(permutedSql.sql()).isEqualTo(firstSql.sql());
+        assertThat(permutedSql.binds()).isEqualTo(firstSql.binds());
+        assertThat(firstSql.sql()).doesNotContain("nike", "9.5", "running", "5000");
+        assertThat(firstSql.binds()).startsWith("adidas", "asics", "nike");
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = TextFilterMode.class, names = {"ILIKE", "NORMALIZED"})
+    void build_comparesTextColumnsUnwrappedOutsideLowerMode(TextFilterMode textFilterMode) {
+        // Arrange
+        CatalogQueryProperties properties = new CatalogQueryProperties();
+        properties.setTextFilterMode(textFilterMode);
+        SpecificationBuilder builder = new SpecificationBuilder(properties);
+        AISearchFilterCriteria criteria = new AISearchFilterCriteria();
+        criteria.setBrands(List.of("nike", "adidas"));
+        criteria.setTitleKeywords(List.of("running"));
+        criteria.setSubtitleKeywords(List.of("men"));
+
+        // Act
+        RenderedSql rendered = RenderedSql.of(builder.build(criteria));
+
+        // Assert
+        assertThat(rendered.sql()).doesNotContain("lower(");
+        if (textFilterMode == TextFilterMode.ILIKE) {
+            assertThat(rendered.sql()).contains("ILIKE(shoe.brand, ?)", "ILIKE(shoe.title, ?)", "ILIKE(shoe.subtitle, ?)");
+        } else {
+            assertThat(rendered.sql()).contains("in(shoe.brandNormalized, ?, ?)",
+                    "like(shoe.titleNormalized, ?)", "like(shoe.subtitleNormalized, ?)");
+        }
+        assertThat(rendered.binds()).contains("%running%", "%men%");
+    }
+
+    /**
+     * A statement as a stand-in {@link HibernateCriteriaBuilder} renders it: values the JPA provider binds
+     * ({@code equal}, {@code like}, {@code in}, {@code value}) become {@code ?} and are collected in order, while
+     * {@code literal}s are inlined the way Hibernate inlines them.
+     */
+    private record RenderedSql(String sql, List<Object> binds) {
+
+        static RenderedSql of(Specification<CatalogShoe> spec) {
+            List<Object> binds = new ArrayList<>();
+            HibernateCriteriaBuilder cb = node(HibernateCriteriaBuilder.class, "cb", binds);
+            @SuppressWarnings("unchecked")
+            Root<CatalogShoe> root = node(Root.class, "shoe", binds);
+            Predicate predicate = spec.toPredicate(root, null, cb);
+            return new RenderedSql(String.valueOf(predicate), binds);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T node(Class<T> type, String sql, List<Object> binds) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "toString":
+                        return sql;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        break;
+                }
+                String rendered = switch (method.getName()) {
+                    case "get" -> sql + "." + args[0];
+                    case "literal" -> "'" + args[0] + "'";
+                    case "value" -> render(args, binds);
+                    case "function" -> args[0] + "(" + render(Arrays.copyOfRange(args, 2, args.length), binds) + ")";
+                    default -> method.getName() + "(" + (sql.equals("cb") ? "" : sql + ", ")
+                            + render(args == null ? new Object[0] : args, binds) + ")";
+                };
+                Class<?> returned = method.getReturnType().isInterface() ? method.getReturnType() : Predicate.class;
+                return node(returned, rendered, binds);
+            });
+        }
+
+        private static String render(Object[] args, List<Object> binds) {
+            StringJoiner joined = new StringJoiner(", ");
+            for (Object arg : args) {
+                if (arg instanceof Object[] array) {
+                    joined.add(render(array, binds));
+                } else if (arg instanceof Collection<?> values) {
+                    joined.add(render(values.toArray(), binds));
+                } else if (arg instanceof Class<?>) {
+                    continue;
+                } else if (arg != null && Proxy.isProxyClass(arg.getClass())) {
+                    joined.add(arg.toString());
+                } else {
+                    binds.add(arg);
+                    joined.add("?");
+                }
+            }
+            return joined.toString();
+        }
+    }
 }
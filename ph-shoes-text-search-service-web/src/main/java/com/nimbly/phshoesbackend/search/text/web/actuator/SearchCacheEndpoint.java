@@ -0,0 +1,51 @@
+package com.nimbly.phshoesbackend.search.text.web.actuator;
+
+import com.nimbly.phshoesbackend.search.core.cache.SearchResponseCache;
+import com.nimbly.phshoesbackend.search.core.service.impl.LatestSnapshotResolver;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admin endpoint ({@code /actuator/searchcache}) for inspecting and purging the search response cache,
+ * and for signalling that a new catalog snapshot has been ingested.
+ */
+@Component
+@Endpoint(id = "searchcache")
+public class SearchCacheEndpoint {
+
+    private final SearchResponseCache responseCache;
+    private final LatestSnapshotResolver latestSnapshotResolver;
+
+    public SearchCacheEndpoint(SearchResponseCache responseCache, LatestSnapshotResolver latestSnapshotResolver) {
+        this.responseCache = responseCache;
+        this.latestSnapshotResolver = latestSnapshotResolver;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return Map.of(
+                "enabled", responseCache.isEnabled(),
+                "responseEntries", responseCache.size()
+        );
+    }
+
+    @DeleteOperation
+    public Map<String, Object> purge() {
+        long purged = responseCache.size();
+        responseCache.invalidateAll();
+        return Map.of("purgedResponseEntries", purged);
+    }
+
+    @WriteOperation
+    public Map<String, Object> refreshSnapshot() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("latestDateKey", latestSnapshotResolver.refresh());
+        return result;
+    }
+}
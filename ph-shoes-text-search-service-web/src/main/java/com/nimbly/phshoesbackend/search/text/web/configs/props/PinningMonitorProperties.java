@@ -0,0 +1,28 @@
+package com.nimbly.phshoesbackend.search.text.web.configs.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "phshoes.search.pinning-monitor")
+public class PinningMonitorProperties {
+
+    /**
+     * Stream {@code jdk.VirtualThreadPinned} events while virtual threads are enabled.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Minimum time a virtual thread must stay pinned to its carrier before it is reported.
+     */
+    private Duration threshold = Duration.ofMillis(20);
+
+    /**
+     * Minimum gap between two pinning warnings in the log; the counter records every event.
+     */
+    private Duration logInterval = Duration.ofMinutes(1);
+}
@@ -1,5 +1,6 @@
 package com.nimbly.phshoesbackend.search.text.web.controller;
 
+import com.nimbly.phshoesbackend.search.core.model.SearchCursor;
 import com.nimbly.phshoesbackend.search.text.api.TextSearchApi;
 import com.nimbly.phshoesbackend.search.core.service.TextSearchService;
 import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponse;
@@ -32,15 +33,32 @@ public class TextSearchController implements TextSearchApi {
             String q,
             Integer page,
             Integer size,
-            String sort
+            String sort,
+            String pagination,
+            String cursor
     ) {
         String sanitized = sanitizeQuery(q);
         Pageable pageable = buildPageable(page, size, sort);
 
-        TextSearchResponse response = textSearchService.search(sanitized, pageable);
+        TextSearchResponse response;
+        if (StringUtils.hasText(cursor)) {
+            response = textSearchService.searchSlice(sanitized, pageable, parseCursor(cursor));
+        } else if ("slice".equalsIgnoreCase(pagination)) {
+            response = textSearchService.searchSlice(sanitized, pageable, null);
+        } else {
+            response = textSearchService.search(sanitized, pageable);
+        }
         return ResponseEntity.ok(response);
     }
 
+    private SearchCursor parseCursor(String cursor) {
+        try {
+            return SearchCursor.decode(cursor.trim());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(BAD_REQUEST, "Invalid pagination cursor.");
+        }
+    }
+
     private String sanitizeQuery(String query) {
         if (!StringUtils.hasText(query)) {
             throw new ResponseStatusException(BAD_REQUEST, "Query must not be blank.");
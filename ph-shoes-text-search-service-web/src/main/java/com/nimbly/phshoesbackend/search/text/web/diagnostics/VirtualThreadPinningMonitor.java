@@ -0,0 +1,115 @@
+package com.nimbly.phshoesbackend.search.text.web.diagnostics;
+
+import com.nimbly.phshoesbackend.search.text.web.configs.props.PinningMonitorProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier (e.g. inside a {@code synchronized}
+ * block of the Snowflake JDBC driver or the OpenAI HTTP client), which is what silently caps throughput
+ * when {@code spring.threads.virtual.enabled=true}. Every event above the threshold increments
+ * {@code jvm.threads.virtual.pinned{source}}, where {@code source} is one of a fixed set of libraries or
+ * {@code other}; the log carries the top frame itself at most once per interval.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(prefix = "phshoes.search.pinning-monitor", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    /**
+     * Package prefix to {@code source} tag; keeps the tag's cardinality bounded.
+     */
+    private static final Map<String, String> SOURCES = Map.of(
+            "net.snowflake.", "snowflake",
+            "com.openai.", "openai",
+            "okhttp3.", "okhttp",
+            "com.zaxxer.hikari.", "hikari",
+            "org.hibernate.", "hibernate",
+            "com.nimbly.", "app",
+            "java.", "jdk",
+            "jdk.", "jdk",
+            "sun.", "jdk");
+
+    private final PinningMonitorProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong lastLoggedAt = new AtomicLong();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(PinningMonitorProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(properties.getThreshold()).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started threshold={}", properties.getThreshold());
+    }
+
+    void onPinned(RecordedEvent event) {
+        String frame = topFrame(event.getStackTrace());
+        meterRegistry.counter("jvm.threads.virtual.pinned", "source", source(frame)).increment();
+
+        long now = System.nanoTime();
+        long last = lastLoggedAt.get();
+        if (now - last >= properties.getLogInterval().toNanos() && lastLoggedAt.compareAndSet(last, now)) {
+            log.warn("Virtual thread pinned for {}ms at {}", event.getDuration().toMillis(), frame);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * The library {@code frame} belongs to, or {@code other}.
+     */
+    static String source(String frame) {
+        for (Map.Entry<String, String> source : SOURCES.entrySet()) {
+            if (frame.startsWith(source.getKey())) {
+                return source.getValue();
+            }
+        }
+        return "other";
+    }
+
+    /**
+     * First frame outside the JDK, so the metric and the log name the library doing the blocking rather than the
+     * lock primitive.
+     */
+    static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        RecordedFrame first = stackTrace.getFrames().get(0);
+        return first.getMethod().getType().getName() + "." + first.getMethod().getName();
+    }
+}
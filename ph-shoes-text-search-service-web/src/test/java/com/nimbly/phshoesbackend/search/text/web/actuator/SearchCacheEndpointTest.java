@@ -0,0 +1,51 @@
+package com.nimbly.phshoesbackend.search.text.web.actuator;
+
+import com.nimbly.phshoesbackend.search.core.cache.SearchResponseCache;
+import com.nimbly.phshoesbackend.search.core.service.impl.LatestSnapshotResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchCacheEndpointTest {
+
+    @Mock
+    private SearchResponseCache responseCache;
+
+    @Mock
+    private LatestSnapshotResolver latestSnapshotResolver;
+
+    @Test
+    void purge_invalidatesResponseCache() {
+        // Arrange
+        when(responseCache.size()).thenReturn(3L);
+        SearchCacheEndpoint endpoint = new SearchCacheEndpoint(responseCache, latestSnapshotResolver);
+
+        // Act
+        Map<String, Object> result = endpoint.purge();
+
+        // Assert
+        verify(responseCache).invalidateAll();
+        assertThat(result).containsEntry("purgedResponseEntries", 3L);
+    }
+
+    @Test
+    void refreshSnapshot_reResolvesLatestDateKey() {
+        // Arrange
+        when(latestSnapshotResolver.refresh()).thenReturn(20260125);
+        SearchCacheEndpoint endpoint = new SearchCacheEndpoint(responseCache, latestSnapshotResolver);
+
+        // Act
+        Map<String, Object> result = endpoint.refreshSnapshot();
+
+        // Assert
+        assertThat(result).containsEntry("latestDateKey", 20260125);
+    }
+}
@@ -1,6 +1,7 @@
 package com.nimbly.phshoesbackend.search.text.web.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbly.phshoesbackend.search.core.model.SearchCursor;
 import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponse;
 import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponseFilter;
 import com.nimbly.phshoesbackend.search.text.core.model.dto.TextSearchResponseResults;
@@ -22,6 +23,8 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -104,6 +107,46 @@ class TextSearchControllerTest {
         assertThat(pageable.getSort().getOrderFor("year").getDirection()).isEqualTo(org.springframework.data.domain.Sort.Direction.DESC);
     }
 
+    @Test
+    void searchFactProductShoesByText_cursorSelectsSliceSearch() throws Exception {
+        // Arrange
+        TextSearchResponse response = buildResponse();
+        SearchCursor cursor = new SearchCursor(2, 15, 20250101);
+        when(textSearchService.searchSlice(any(), any(Pageable.class), any())).thenReturn(response);
+
+        // Act
+        mockMvc.perform(get("/search/fact-product-shoes")
+                        .param("q", "nike shoes")
+                        .param("cursor", cursor.encode())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // Assert
+        verify(textSearchService).searchSlice(eq("nike shoes"), any(Pageable.class), eq(cursor));
+        verify(textSearchService, never()).search(any(), any(Pageable.class));
+    }
+
+    @Test
+    void searchFactProductShoesByText_rejectsMalformedCursor() throws Exception {
+        // Arrange / Act / Assert
+        mockMvc.perform(get("/search/fact-product-shoes")
+                        .param("q", "nike shoes")
+                        .param("cursor", "not-a-cursor")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchFactProductShoesByText_rejectsOversizedCursor() throws Exception {
+        // Arrange / Act / Assert
+        mockMvc.perform(get("/search/fact-product-shoes")
+                        .param("q", "nike shoes")
+                        .param("cursor", new SearchCursor(0, Integer.MAX_VALUE, 20250101).encode())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verify(textSearchService, never()).searchSlice(any(), any(Pageable.class), any());
+    }
+
     private TextSearchResponse buildResponse() {
         TextSearchResponseFilter filter = new TextSearchResponseFilter()
                 .brands(List.of("nike"))
@@ -0,0 +1,26 @@
+package com.nimbly.phshoesbackend.search.text.web.diagnostics;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "net.snowflake.client.jdbc.SnowflakeStatementV1.executeQuery, snowflake",
+            "com.openai.core.http.HttpClient.execute, openai",
+            "com.nimbly.phshoesbackend.search.core.cache.IntentCache.get, app",
+            "java.lang.Object.wait, jdk",
+            "org.example.Unlisted.call, other",
+            "unknown, other"
+    })
+    void source_mapsFramesOntoAFixedSetOfTags(String frame, String source) {
+        // Act
+        String tag = VirtualThreadPinningMonitor.source(frame);
+
+        // Assert
+        assertThat(tag).isEqualTo(source);
+    }
+}